@@ -0,0 +1,65 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.config.ApiProperties;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+// Cliente HTTP de Amadeus (token OAuth y búsqueda de ofertas) con su propio pool y timeouts
+@Component
+public class AmadeusClient {
+
+    private final ApiProperties apiProperties;
+    private final RestTemplate restTemplate;
+
+    public AmadeusClient(ApiProperties apiProperties, OutboundHttpClients httpClients) {
+        this.apiProperties = apiProperties;
+        ApiProperties.AmadeusConfig config = apiProperties.getAmadeus();
+        this.restTemplate = httpClients.create("amadeus", config.getConnectTimeoutMs(), config.getReadTimeoutMs(),
+                config.getResilience());
+    }
+
+    // Respuesta cruda del endpoint OAuth (access_token, expires_in...)
+    public Map<?, ?> requestToken() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
+        body.add("grant_type", "client_credentials");
+        body.add("client_id", apiProperties.getAmadeus().getClientId());
+        body.add("client_secret", apiProperties.getAmadeus().getClientSecret());
+
+        ResponseEntity<Map> response = restTemplate.postForEntity(
+                apiProperties.getAmadeus().getAuthUrl(),
+                new HttpEntity<>(body, headers),
+                Map.class
+        );
+        return response.getBody();
+    }
+
+    // Ofertas de Amadeus (campo "data"); null si la respuesta no trae datos
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> searchOffers(String token, String origin, String destination,
+                                                  String departureDate, int adults, String cabinClass) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+
+        String url = String.format("%s/shopping/flight-offers?originLocationCode=%s&destinationLocationCode=%s" +
+                        "&departureDate=%s&adults=%d&travelClass=%s&max=%d",
+                apiProperties.getAmadeus().getBaseUrl(),
+                origin, destination, departureDate, adults, cabinClass.toUpperCase(),
+                apiProperties.getAmadeus().getMaxOffers());
+
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+        if (response.getBody() == null || !(response.getBody().get("data") instanceof List<?> data)) {
+            return null;
+        }
+        return (List<Map<String, Object>>) data;
+    }
+}
@@ -0,0 +1,190 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.config.ApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Properties;
+
+// Cuota mensual de peticiones a AviationStack. Cada petición gasta un token de un cubo que se
+// rellena al ritmo budget / duración del mes (con una ráfaga máxima de request-burst), así que
+// el presupuesto se reparte a lo largo del mes en vez de agotarse en unos días. Además nunca se
+// supera el total mensual. Lo gastado en el mes se guarda en usage-file para que un reinicio
+// no lo olvide: cada usage-flush-interval-ms y al parar, fuera del lock del presupuesto, para
+// que ninguna petición espere a una escritura en disco.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AviationStackBudget {
+
+    private final ApiProperties apiProperties;
+    private final MeterRegistry meterRegistry;
+
+    // Protegidos por this
+    private YearMonth month;
+    private int used;
+    private double tokens;
+    private long lastRefillNanos;
+    // Hay consumo sin guardar en usage-file
+    private boolean dirty;
+
+    // Serializa las escrituras de usage-file para que una antigua no pise a una más reciente
+    private final Object usageLock = new Object();
+
+    private Counter rejections;
+
+    @PostConstruct
+    public synchronized void init() {
+        month = currentMonth();
+        loadUsage();
+        tokens = apiProperties.getAviationstack().getRequestBurst();
+        lastRefillNanos = System.nanoTime();
+        rejections = meterRegistry.counter("flights.upstream.rejected", "provider", "aviationstack", "reason", "budget");
+        Gauge.builder("flights.upstream.budget.remaining", this, AviationStackBudget::remaining)
+                .description("Peticiones a AviationStack que quedan en el mes")
+                .tag("provider", "aviationstack")
+                .register(meterRegistry);
+    }
+
+    // Gasta una petición si el ritmo y el total mensual lo permiten
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1 || used >= monthlyBudget()) {
+            rejections.increment();
+            return false;
+        }
+        tokens -= 1;
+        used++;
+        dirty = true;
+        return true;
+    }
+
+    // Hay al menos una petición disponible ahora mismo
+    public synchronized boolean available() {
+        return available(0);
+    }
+
+    // Hay una petición disponible y, después de gastarla, seguirían quedando reserve
+    public synchronized boolean available(int reserve) {
+        refill();
+        return tokens >= 1 + reserve && used + reserve < monthlyBudget();
+    }
+
+    public synchronized int remaining() {
+        refill();
+        return Math.max(0, monthlyBudget() - used);
+    }
+
+    private void refill() {
+        YearMonth now = currentMonth();
+        if (!now.equals(month)) {
+            log.info("Nuevo mes: se reinicia el presupuesto de AviationStack ({} peticiones gastadas en {})", used, month);
+            month = now;
+            used = 0;
+            dirty = true;
+        }
+        long nanos = System.nanoTime();
+        double seconds = (nanos - lastRefillNanos) / 1e9;
+        lastRefillNanos = nanos;
+        double monthSeconds = Duration.ofDays(month.lengthOfMonth()).toSeconds();
+        tokens = Math.min(apiProperties.getAviationstack().getRequestBurst(), tokens + seconds * monthlyBudget() / monthSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${api.aviationstack.usage-flush-interval-ms:60000}")
+    public void flushUsage() {
+        synchronized (usageLock) {
+            YearMonth savedMonth;
+            int savedUsed;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                savedMonth = month;
+                savedUsed = used;
+            }
+            if (!saveUsage(savedMonth, savedUsed)) {
+                synchronized (this) {
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushUsage();
+    }
+
+    private int monthlyBudget() {
+        return apiProperties.getAviationstack().getMonthlyRequestBudget();
+    }
+
+    private void loadUsage() {
+        Path file = usageFile();
+        if (file == null) {
+            return;
+        }
+        Properties usage = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            usage.load(in);
+            if (month.toString().equals(usage.getProperty("month"))) {
+                used = Integer.parseInt(usage.getProperty("used", "0"));
+                log.info("Presupuesto de AviationStack: {} de {} peticiones gastadas en {}", used, monthlyBudget(), month);
+            }
+        } catch (NoSuchFileException e) {
+            // Primer arranque
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo leer el consumo de AviationStack de {}: {}", file, e.getMessage());
+        }
+    }
+
+    private boolean saveUsage(YearMonth savedMonth, int savedUsed) {
+        Path file = usageFile();
+        if (file == null) {
+            return true;
+        }
+        Properties usage = new Properties();
+        usage.setProperty("month", savedMonth.toString());
+        usage.setProperty("used", String.valueOf(savedUsed));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                usage.store(out, null);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el consumo de AviationStack en {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private Path usageFile() {
+        String path = apiProperties.getAviationstack().getUsageFile();
+        return path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    // El presupuesto se cuenta por mes natural (UTC)
+    private static YearMonth currentMonth() {
+        return YearMonth.now(ZoneOffset.UTC);
+    }
+}
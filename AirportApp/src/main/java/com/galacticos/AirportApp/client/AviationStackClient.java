@@ -0,0 +1,44 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.config.ApiProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+// Cliente HTTP de AviationStack con su propio pool de conexiones, timeouts y cuota mensual
+@Component
+public class AviationStackClient {
+
+    private final ApiProperties apiProperties;
+    private final AviationStackBudget budget;
+    private final RestTemplate restTemplate;
+
+    public AviationStackClient(ApiProperties apiProperties, OutboundHttpClients httpClients, AviationStackBudget budget) {
+        this.apiProperties = apiProperties;
+        this.budget = budget;
+        ApiProperties.AviationstackConfig config = apiProperties.getAviationstack();
+        this.restTemplate = httpClients.create("aviationstack", config.getConnectTimeoutMs(), config.getReadTimeoutMs(),
+                config.getResilience());
+    }
+
+    // Vuelos que salen del aeropuerto indicado y cuya llegada acepta el filtro. La respuesta
+    // se lee en streaming y los vuelos descartados no llegan a construirse.
+    public List<FlightRecord> getDepartures(String depIata, int limit, Predicate<String> acceptArrival) {
+        // Toda petición pasa por la cuota mensual, venga del planificador o de un refresco forzado
+        if (!budget.tryAcquire()) {
+            throw new UpstreamUnavailableException("Sin presupuesto de peticiones a AviationStack");
+        }
+        String url = String.format("%s/flights?access_key=%s&dep_iata=%s&limit=%d",
+                apiProperties.getAviationstack().getBaseUrl(),
+                apiProperties.getAviationstack().getApiKey(),
+                depIata, limit);
+
+        List<FlightRecord> flights = restTemplate.execute(url, HttpMethod.GET, null,
+                response -> AviationStackFlightReader.read(response.getBody(), acceptArrival));
+        return flights != null ? flights : List.of();
+    }
+}
@@ -0,0 +1,257 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightStatus;
+import com.galacticos.AirportApp.model.FlightTimes;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.json.JsonFactory;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Lee la respuesta de /flights de AviationStack token a token. Cada elemento de "data" se
+// convierte directamente en FlightRecord sin pasar por Map; en cuanto se lee el IATA de
+// llegada y no es aceptado, se salta el resto del vuelo sin construir nada más.
+// Una respuesta con "error" (cuota agotada, clave inválida...) es un fallo del proveedor, no
+// un hub sin vuelos.
+final class AviationStackFlightReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private AviationStackFlightReader() {
+    }
+
+    static List<FlightRecord> read(InputStream body, Predicate<String> acceptArrival) {
+        List<FlightRecord> flights = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(ObjectReadContext.empty(), body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return flights;
+            }
+            String name;
+            while ((name = parser.nextName()) != null) {
+                JsonToken token = parser.nextToken();
+                if ("data".equals(name) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        FlightRecord flight = readFlight(parser, acceptArrival);
+                        if (flight != null) {
+                            flights.add(flight);
+                        }
+                    }
+                } else if ("error".equals(name) && token == JsonToken.START_OBJECT) {
+                    throw new RestClientException("AviationStack respondió con un error: " + readError(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return flights;
+    }
+
+    // Devuelve null si el vuelo se descarta (llegada no aceptada o faltan códigos IATA)
+    private static FlightRecord readFlight(JsonParser parser, Predicate<String> acceptArrival) {
+        FlightRecord.FlightRecordBuilder flight = FlightRecord.builder();
+        FlightRecord.FlightInfo info = null;
+        FlightRecord.Endpoint departure = null;
+        FlightRecord.Endpoint arrival = null;
+
+        String name;
+        while ((name = parser.nextName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "flight_date" -> flight.flightDateEpochDay(FlightTimes.toEpochDay(text(parser)));
+                case "flight_status" -> flight.status(FlightStatus.fromValue(text(parser)));
+                case "flight" -> flight.flight(info = readFlightInfo(parser));
+                case "airline" -> flight.airline(readAirline(parser));
+                case "departure" -> flight.departure(departure = readEndpoint(parser, null));
+                case "arrival" -> {
+                    arrival = readEndpoint(parser, acceptArrival);
+                    if (arrival == null) {
+                        skipToEndOfObject(parser);
+                        return null;
+                    }
+                    flight.arrival(arrival);
+                }
+                case "live" -> flight.live(readLive(parser));
+                default -> parser.skipChildren();
+            }
+        }
+
+        boolean complete = info != null && info.getIata() != null
+                && departure != null && departure.getIata() != null
+                && arrival != null;
+        return complete ? flight.build() : null;
+    }
+
+    private static FlightRecord.FlightInfo readFlightInfo(JsonParser parser) {
+        if (!isObject(parser)) {
+            return null;
+        }
+        FlightRecord.FlightInfo.FlightInfoBuilder info = FlightRecord.FlightInfo.builder();
+        String name;
+        while ((name = parser.nextName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "number" -> info.number(FlightRecord.name(text(parser)));
+                case "iata" -> info.iata(FlightRecord.code(text(parser)));
+                case "icao" -> info.icao(FlightRecord.code(text(parser)));
+                default -> parser.skipChildren();
+            }
+        }
+        return info.build();
+    }
+
+    private static FlightRecord.Airline readAirline(JsonParser parser) {
+        if (!isObject(parser)) {
+            return null;
+        }
+        FlightRecord.Airline.AirlineBuilder airline = FlightRecord.Airline.builder();
+        String name;
+        while ((name = parser.nextName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "name" -> airline.name(FlightRecord.name(text(parser)));
+                case "iata" -> airline.iata(FlightRecord.code(text(parser)));
+                case "icao" -> airline.icao(FlightRecord.code(text(parser)));
+                default -> parser.skipChildren();
+            }
+        }
+        return airline.build();
+    }
+
+    // Con acceptIata se valida el IATA al leerlo; si no pasa se salta el resto del objeto y se devuelve null
+    private static FlightRecord.Endpoint readEndpoint(JsonParser parser, Predicate<String> acceptIata) {
+        if (!isObject(parser)) {
+            return null;
+        }
+        FlightRecord.Endpoint.EndpointBuilder endpoint = FlightRecord.Endpoint.builder();
+        String iata = null;
+        String name;
+        while ((name = parser.nextName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "airport" -> endpoint.airport(FlightRecord.name(text(parser)));
+                case "timezone" -> endpoint.timezone(FlightRecord.name(text(parser)));
+                case "iata" -> {
+                    iata = FlightRecord.code(text(parser));
+                    if (acceptIata != null && (iata == null || !acceptIata.test(iata))) {
+                        skipToEndOfObject(parser);
+                        return null;
+                    }
+                    endpoint.iata(iata);
+                }
+                case "icao" -> endpoint.icao(FlightRecord.code(text(parser)));
+                case "terminal" -> endpoint.terminal(FlightRecord.name(text(parser)));
+                case "gate" -> endpoint.gate(FlightRecord.name(text(parser)));
+                case "delay" -> endpoint.delay(integer(parser));
+                case "scheduled" -> endpoint.scheduledEpoch(FlightTimes.toEpochSecond(text(parser)));
+                case "estimated" -> endpoint.estimatedEpoch(FlightTimes.toEpochSecond(text(parser)));
+                case "actual" -> endpoint.actualEpoch(FlightTimes.toEpochSecond(text(parser)));
+                default -> parser.skipChildren();
+            }
+        }
+        // El IATA es obligatorio cuando se filtra por él
+        if (acceptIata != null && iata == null) {
+            return null;
+        }
+        return endpoint.build();
+    }
+
+    // "código: mensaje" del objeto error
+    private static String readError(JsonParser parser) {
+        String code = null;
+        String message = null;
+        String name;
+        while ((name = parser.nextName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "code" -> code = text(parser);
+                case "message" -> message = text(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return code + ": " + message;
+    }
+
+    private static FlightRecord.Live readLive(JsonParser parser) {
+        if (!isObject(parser)) {
+            return null;
+        }
+        FlightRecord.Live.LiveBuilder live = FlightRecord.Live.builder();
+        boolean hasPosition = false;
+        String name;
+        while ((name = parser.nextName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "updated" -> live.updatedEpoch(FlightTimes.toEpochSecond(text(parser)));
+                case "latitude" -> {
+                    hasPosition = token.isNumeric();
+                    live.latitude(number(parser));
+                }
+                case "longitude" -> live.longitude(number(parser));
+                case "altitude" -> live.altitude(number(parser));
+                case "direction" -> live.direction(number(parser));
+                case "speed_horizontal" -> live.speedHorizontal(number(parser));
+                case "speed_vertical" -> live.speedVertical(number(parser));
+                case "is_ground" -> live.ground(bool(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return hasPosition ? live.build() : null;
+    }
+
+    // null y objetos/arrays inesperados se tratan como ausentes
+    private static boolean isObject(JsonParser parser) {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            return true;
+        }
+        parser.skipChildren();
+        return false;
+    }
+
+    private static String text(JsonParser parser) {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING || token.isNumeric()) {
+            return parser.getString();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    // Igual que text: un objeto o array en lugar del valor se salta entero y cuenta como ausente
+    private static double number(JsonParser parser) {
+        if (parser.currentToken().isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        parser.skipChildren();
+        return 0;
+    }
+
+    private static Integer integer(JsonParser parser) {
+        if (parser.currentToken().isNumeric()) {
+            return parser.getValueAsInt();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static boolean bool(JsonParser parser) {
+        if (parser.currentToken() == JsonToken.VALUE_TRUE) {
+            return true;
+        }
+        parser.skipChildren();
+        return false;
+    }
+
+    // Salta lo que queda del objeto actual hasta su END_OBJECT
+    private static void skipToEndOfObject(JsonParser parser) {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_OBJECT) {
+            parser.skipChildren();
+        }
+    }
+}
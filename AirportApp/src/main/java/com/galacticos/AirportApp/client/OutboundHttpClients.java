@@ -0,0 +1,75 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.config.ApiProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Crea el RestTemplate de cada proveedor externo. Cada proveedor tiene su propio HttpClient
+// del JDK (pool de conexiones keep-alive, HTTP/2 cuando el servidor lo negocia y HTTP/1.1 si no),
+// timeouts de conexión y lectura para que una conexión colgada no bloquee un hilo de Tomcat,
+// respuestas comprimidas con gzip, un timer por proveedor y código de estado y un
+// circuit breaker con bulkhead (UpstreamGuard) para fallar rápido si el proveedor no responde.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboundHttpClients {
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<HttpClient> clients = new CopyOnWriteArrayList<>();
+
+    public RestTemplate create(String provider, int connectTimeoutMs, int readTimeoutMs,
+                               ApiProperties.ResilienceConfig resilience) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        clients.add(httpClient);
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        requestFactory.enableCompression(true);
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // El guard va primero: las peticiones rechazadas no llegan al timer ni a la red
+        restTemplate.getInterceptors().add(new UpstreamGuard(provider, resilience, meterRegistry));
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String status = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = String.valueOf(response.getStatusCode().value());
+                return response;
+            } finally {
+                sample.stop(Timer.builder("flights.upstream.requests")
+                        .description("Peticiones a las APIs externas de vuelos")
+                        .tag("provider", provider)
+                        .tag("method", request.getMethod().name())
+                        .tag("status", status)
+                        .register(meterRegistry));
+            }
+        });
+
+        log.info("Cliente HTTP de {} creado (connect {} ms, read {} ms, máx. {} llamadas simultáneas)",
+                provider, connectTimeoutMs, readTimeoutMs, resilience.getMaxConcurrentCalls());
+        return restTemplate;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(HttpClient::close);
+    }
+}
@@ -0,0 +1,168 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.config.ApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Circuit breaker y bulkhead de un proveedor externo, como interceptor de su RestTemplate.
+// Tras failure-threshold fallos seguidos (error de red, 5xx o 429) el circuito se abre y las
+// peticiones fallan al instante durante open-ms; después se deja pasar una sola de prueba
+// que lo vuelve a cerrar o a abrir. El bulkhead limita las llamadas simultáneas: el permiso
+// se mantiene hasta cerrar la respuesta, así que también cubre la lectura del cuerpo.
+@Slf4j
+final class UpstreamGuard implements ClientHttpRequestInterceptor {
+
+    private static final int CLOSED = 0;
+    private static final int HALF_OPEN = 1;
+    private static final int OPEN = 2;
+
+    private final String provider;
+    private final ApiProperties.ResilienceConfig config;
+    private final Semaphore permits;
+
+    private final AtomicInteger state = new AtomicInteger(CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+
+    private final Counter circuitRejections;
+    private final Counter bulkheadRejections;
+
+    UpstreamGuard(String provider, ApiProperties.ResilienceConfig config, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxConcurrentCalls());
+        this.circuitRejections = meterRegistry.counter("flights.upstream.rejected", "provider", provider, "reason", "circuit_open");
+        this.bulkheadRejections = meterRegistry.counter("flights.upstream.rejected", "provider", provider, "reason", "bulkhead_full");
+        Gauge.builder("flights.upstream.circuit", state, AtomicInteger::get)
+                .description("Estado del circuito: 0 cerrado, 1 semiabierto, 2 abierto")
+                .tag("provider", provider)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!allowRequest()) {
+            circuitRejections.increment();
+            throw new UpstreamUnavailableException("Circuito abierto para " + provider);
+        }
+        if (!acquirePermit()) {
+            // La prueba del semiabierto no llegó a salir: se deja pasar otra
+            state.compareAndSet(HALF_OPEN, OPEN);
+            openUntil.set(0);
+            bulkheadRejections.increment();
+            throw new UpstreamUnavailableException("Demasiadas peticiones simultáneas a " + provider);
+        }
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            onFailure();
+            throw e;
+        }
+
+        HttpStatusCode status = response.getStatusCode();
+        if (status.is5xxServerError() || status.value() == 429) {
+            onFailure();
+        } else {
+            onSuccess();
+        }
+        return new GuardedResponse(response);
+    }
+
+    private boolean allowRequest() {
+        int current = state.get();
+        if (current == CLOSED) {
+            return true;
+        }
+        // Pasado open-ms, solo la petición que gana el CAS sale como prueba
+        return current == OPEN && System.currentTimeMillis() >= openUntil.get()
+                && state.compareAndSet(OPEN, HALF_OPEN);
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return permits.tryAcquire(config.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(CLOSED) != CLOSED) {
+            log.info("Circuito de {} cerrado", provider);
+        }
+    }
+
+    private void onFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        int current = state.get();
+        if (current == HALF_OPEN || (current == CLOSED && failures >= config.getFailureThreshold())) {
+            openUntil.set(System.currentTimeMillis() + config.getOpenMs());
+            if (state.getAndSet(OPEN) != OPEN) {
+                log.warn("Circuito de {} abierto durante {} ms tras {} fallos seguidos", provider, config.getOpenMs(), failures);
+            }
+        }
+    }
+
+    // Devuelve el permiso del bulkhead al cerrar la respuesta (una sola vez)
+    private final class GuardedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        GuardedResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
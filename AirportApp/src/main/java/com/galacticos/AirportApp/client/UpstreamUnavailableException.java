@@ -0,0 +1,11 @@
+package com.galacticos.AirportApp.client;
+
+import org.springframework.web.client.RestClientException;
+
+// Petición rechazada sin llegar al proveedor: circuito abierto o sin hueco en el bulkhead
+public class UpstreamUnavailableException extends RestClientException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
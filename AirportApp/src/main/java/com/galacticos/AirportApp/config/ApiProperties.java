@@ -1,6 +1,8 @@
 package com.galacticos.AirportApp.config;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +35,29 @@ public class ApiProperties {
     public static class AviationstackConfig {
         private String apiKey = "";
         private String baseUrl = "https://api.aviationstack.com/v1";
+        // Hubs consultados en paralelo por refresco y hubs de reserva para sustituir fallos
+        private int hubsPerRefresh = 7;
+        private int maxHubRequests = 10;
+        // Se deja de esperar al alcanzar este número de vuelos
+        private int targetFlights = 40;
+        private long hubTimeoutMs = 4000;
+        private long refreshDeadlineMs = 8000;
+        private int connectTimeoutMs = 2000;
+        private int readTimeoutMs = 4000;
+        private ResilienceConfig resilience = new ResilienceConfig(5, 30000, 10, 100);
+        // Cuota mensual de peticiones, ráfaga máxima (cubre una carga completa de hubs) y
+        // fichero donde se guarda lo gastado en el mes (vacío para no guardarlo) y cada cuánto
+        private int monthlyRequestBudget = 10000;
+        private int requestBurst = 10;
+        private String usageFile = System.getProperty("java.io.tmpdir") + "/airportapp/aviationstack-usage.properties";
+        private long usageFlushIntervalMs = 60000;
+        // Cada cuánto se comprueba si toca refrescar un hub, y edad a partir de la cual
+        // un hub cuenta como totalmente desactualizado al priorizar
+        private long pollCheckIntervalMs = 15000;
+        private long hubMaxAgeMs = 6 * 60 * 60 * 1000;
+        // Peticiones que el refresco incremental deja siempre libres para un /refresh
+        // (debe ser menor que request-burst o no se consultará ningún hub)
+        private int pollReserveRequests = 3;
     }
 
     @Getter
@@ -42,5 +67,23 @@ public class ApiProperties {
         private String clientSecret = "";
         private String authUrl = "https://test.api.amadeus.com/v1/security/oauth2/token";
         private String baseUrl = "https://test.api.amadeus.com/v2";
+        private int connectTimeoutMs = 3000;
+        private int readTimeoutMs = 10000;
+        // Ofertas pedidas por búsqueda (Amadeus admite hasta 250); se ordenan y recortan en el servidor
+        private int maxOffers = 50;
+        private ResilienceConfig resilience = new ResilienceConfig(5, 30000, 8, 500);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResilienceConfig {
+        // Fallos seguidos que abren el circuito y tiempo que permanece abierto
+        private int failureThreshold = 5;
+        private long openMs = 30000;
+        // Bulkhead: llamadas simultáneas al proveedor y espera máxima por un hueco
+        private int maxConcurrentCalls = 10;
+        private long maxWaitMs = 100;
     }
 }
@@ -0,0 +1,113 @@
+package com.galacticos.AirportApp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flights")
+@Getter
+@Setter
+public class FlightProperties {
+
+    private CacheConfig cache = new CacheConfig();
+    private OffersConfig offers = new OffersConfig();
+    private StreamConfig stream = new StreamConfig();
+    private PositionsConfig positions = new PositionsConfig();
+    private MockConfig mock = new MockConfig();
+    private ConnectionsConfig connections = new ConnectionsConfig();
+    private ArchiveConfig archive = new ArchiveConfig();
+
+    @Getter
+    @Setter
+    public static class CacheConfig {
+        // Tiempo que un snapshot se considera fresco
+        private long ttlMs = 30 * 60 * 1000;
+        // Tiempo extra durante el que se sirve el snapshot caducado mientras se refresca en segundo plano
+        private long maxStaleMs = 2 * 60 * 60 * 1000;
+        // Edad a partir de la cual el planificador refresca antes de que caduque
+        private long refreshAheadMs = 25 * 60 * 1000;
+        private long checkIntervalMs = 60 * 1000;
+        // Versiones del snapshot recordadas para responder a ?sinceVersion=
+        private int historyVersions = 256;
+        // Copia en disco del último snapshot para arrancar en caliente (vacío para desactivarla)
+        private String snapshotFile = System.getProperty("java.io.tmpdir") + "/airportapp/flight-snapshot.bin";
+        // Las cargas completas se guardan al momento; el resto de cambios, como mucho con esta frecuencia
+        private long snapshotWriteIntervalMs = 60 * 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class OffersConfig {
+        // Búsquedas de ofertas distintas que se mantienen en memoria y durante cuánto tiempo
+        private int cacheMaxEntries = 1000;
+        private long cacheTtlMs = 10 * 60 * 1000;
+        // Tiempo extra que una búsqueda caducada se guarda para servirla si Amadeus falla
+        private long cacheMaxStaleMs = 6 * 60 * 60 * 1000;
+        // Búsqueda flexible (±N días): días máximos a cada lado, llamadas simultáneas a Amadeus,
+        // separación mínima entre llamadas y plazo total de la búsqueda
+        private int flexibleMaxDays = 7;
+        private int flexibleMaxConcurrent = 3;
+        private long flexibleMinIntervalMs = 100;
+        private long flexibleDeadlineMs = 20 * 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class StreamConfig {
+        // Cada cuánto se envían las posiciones de los vuelos en el aire (también sirve de latido)
+        private long positionIntervalMs = 5000;
+        // Eventos pendientes por cliente antes de desconectarlo por lento
+        private int maxQueuedEvents = 64;
+        private long timeoutMs = 30 * 60 * 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class PositionsConfig {
+        // Las posiciones calculadas de GET /api/flights se redondean a este intervalo, así que
+        // dentro de él la respuesta (y su ETag) no cambia si no cambia el snapshot
+        private long granularityMs = 30 * 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class MockConfig {
+        // ROUTES: las 20 rutas fijas de siempre. SYNTHETIC: MockFlightGenerator con "flights"
+        // vuelos sobre todo el registro, reproducibles con la misma semilla
+        private Generator generator = Generator.ROUTES;
+        private int flights = 20000;
+        private long seed = 42;
+
+        public enum Generator {
+            ROUTES,
+            SYNTHETIC
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class ConnectionsConfig {
+        // Tiempo mínimo de escala en el mismo aeropuerto y tramos máximos de un itinerario
+        private int minConnectionMinutes = 45;
+        private int maxLegs = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class ArchiveConfig {
+        // Histórico de vuelos para las estadísticas de puntualidad, una partición por día
+        private boolean enabled = true;
+        private String directory = System.getProperty("java.io.tmpdir") + "/airportapp/archive";
+        // Los datos mock no se archivan salvo que se pida (para pruebas)
+        private boolean includeMock = false;
+        private long flushIntervalMs = 60 * 1000;
+        private long aggregateIntervalMs = 60 * 60 * 1000;
+        // Días que sus vuelos aún pueden cambiar; los anteriores se agregan en disco una vez
+        private int openDays = 2;
+        private int retentionDays = 400;
+        // Agregados diarios (uno por dimensión) que se mantienen en memoria
+        private int cachedPartitions = 256;
+    }
+}
@@ -0,0 +1,43 @@
+package com.galacticos.AirportApp.controller;
+
+import com.galacticos.AirportApp.dto.response.ApiResponse;
+import com.galacticos.AirportApp.dto.response.FlightResponse;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.service.FlightService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/airports")
+@RequiredArgsConstructor
+@Slf4j
+public class AirportController {
+
+    private final FlightService flightService;
+
+    @GetMapping("/{iata}/departures")
+    public ResponseEntity<ApiResponse<FlightResponse<FlightRecord>>> getDepartures(
+            @PathVariable String iata,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        log.info("GET /api/airports/{}/departures - Panel de salidas", iata);
+        FlightResponse<FlightRecord> board = flightService.getDepartures(iata, from, to, limit, cursor);
+        return ResponseEntity.ok(ApiResponse.success(board));
+    }
+
+    @GetMapping("/{iata}/arrivals")
+    public ResponseEntity<ApiResponse<FlightResponse<FlightRecord>>> getArrivals(
+            @PathVariable String iata,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        log.info("GET /api/airports/{}/arrivals - Panel de llegadas", iata);
+        FlightResponse<FlightRecord> board = flightService.getArrivals(iata, from, to, limit, cursor);
+        return ResponseEntity.ok(ApiResponse.success(board));
+    }
+}
@@ -1,12 +1,24 @@
 package com.galacticos.AirportApp.controller;
 
+import com.galacticos.AirportApp.dto.request.FlightQueryRequest;
 import com.galacticos.AirportApp.dto.response.ApiResponse;
+import com.galacticos.AirportApp.dto.response.ConnectionResponse;
+import com.galacticos.AirportApp.dto.response.FlightOfferCalendarResponse;
+import com.galacticos.AirportApp.dto.response.FlightOfferResponse;
 import com.galacticos.AirportApp.dto.response.FlightResponse;
+import com.galacticos.AirportApp.dto.response.FlightStatsResponse;
+import com.galacticos.AirportApp.model.FlightRecord;
 import com.galacticos.AirportApp.service.FlightService;
+import com.galacticos.AirportApp.service.flight.FlightResponseCache;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/flights")
@@ -15,31 +27,122 @@ import org.springframework.web.bind.annotation.*;
 public class FlightController {
 
     private final FlightService flightService;
+    private final FlightResponseCache responseCache;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<FlightResponse>> getAllFlights(
-            @RequestParam(defaultValue = "false") boolean forceRefresh) {
+    public ResponseEntity<?> getAllFlights(
+            @RequestParam(defaultValue = "false") boolean forceRefresh,
+            @Valid @ModelAttribute FlightQueryRequest query,
+            WebRequest webRequest) {
         log.info("GET /api/flights - Obtener todos los vuelos. ForceRefresh: {}", forceRefresh);
-        FlightResponse flights = flightService.getAllFlights(forceRefresh);
+        FlightResponse<FlightRecord> flights = flightService.getAllFlights(forceRefresh, query);
+        // Misma versión del snapshot y mismo instante de posiciones => misma respuesta: 304 sin serializar
+        String etag = "W/\"" + flights.getVersion() + "-" + flights.getPositionsEpoch() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        // Listado completo: se escriben los bytes ya serializados (gzip si el cliente lo acepta)
+        FlightResponseCache.Serialized serialized = responseCache.serialized(flights);
+        if (serialized != null) {
+            boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return builder.body(gzip ? serialized.gzip() : serialized.json());
+        }
         return ResponseEntity.ok(ApiResponse.success(flights));
     }
 
     @GetMapping("/refresh")
-    public ResponseEntity<ApiResponse<FlightResponse>> refreshFlights() {
+    public ResponseEntity<ApiResponse<FlightResponse<FlightRecord>>> refreshFlights() {
         log.info("GET /api/flights/refresh - Forzar actualización de vuelos");
-        FlightResponse flights = flightService.getAllFlights(true);
+        FlightResponse<FlightRecord> flights = flightService.getAllFlights(true, new FlightQueryRequest());
         return ResponseEntity.ok(ApiResponse.success("Vuelos actualizados", flights));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFlights() {
+        log.info("GET /api/flights/stream - Suscripción a cambios de vuelos");
+        return flightService.streamFlights();
+    }
+
+    @GetMapping("/connections")
+    public ResponseEntity<ApiResponse<FlightResponse<ConnectionResponse>>> searchConnections(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam(required = false) String departAfter,
+            @RequestParam(required = false) Integer maxLegs) {
+        log.info("GET /api/flights/connections - Buscar conexiones: {} -> {}", origin, destination);
+        FlightResponse<ConnectionResponse> connections = flightService.searchConnections(origin, destination, departAfter, maxLegs);
+        return ResponseEntity.ok(ApiResponse.success(connections));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<FlightStatsResponse>> getFlightStats(
+            @RequestParam(required = false) String flight,
+            @RequestParam(required = false) String route,
+            @RequestParam(required = false) String airline,
+            @RequestParam(required = false) String airport,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        log.info("GET /api/flights/stats - Estadísticas de puntualidad");
+        FlightStatsResponse stats = flightService.getFlightStats(flight, route, airline, airport, from, to);
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
     @GetMapping("/offers")
-    public ResponseEntity<ApiResponse<FlightResponse>> searchFlightOffers(
+    public ResponseEntity<ApiResponse<FlightResponse<FlightOfferResponse>>> searchFlightOffers(
             @RequestParam String origin,
             @RequestParam String destination,
             @RequestParam String departureDate,
             @RequestParam(defaultValue = "1") int adults,
-            @RequestParam(defaultValue = "ECONOMY") String cabinClass) {
+            @RequestParam(defaultValue = "ECONOMY") String cabinClass,
+            @RequestParam(defaultValue = "price") String sort,
+            @RequestParam(required = false) Integer limit) {
         log.info("GET /api/flights/offers - Buscar ofertas: {} -> {} en {}", origin, destination, departureDate);
-        FlightResponse offers = flightService.searchFlightOffers(origin, destination, departureDate, adults, cabinClass);
+        FlightResponse<FlightOfferResponse> offers = flightService.searchFlightOffers(origin, destination, departureDate,
+                adults, cabinClass, sort, limit);
         return ResponseEntity.ok(ApiResponse.success(offers));
     }
+
+    @GetMapping("/offers/calendar")
+    public ResponseEntity<ApiResponse<FlightOfferCalendarResponse>> searchFlexibleOffers(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam String departureDate,
+            @RequestParam(defaultValue = "3") int flexDays,
+            @RequestParam(defaultValue = "1") int adults,
+            @RequestParam(defaultValue = "ECONOMY") String cabinClass) {
+        log.info("GET /api/flights/offers/calendar - Calendario de precios: {} -> {} en {} ±{} días",
+                origin, destination, departureDate, flexDays);
+        FlightOfferCalendarResponse calendar = flightService.searchFlexibleOffers(origin, destination, departureDate,
+                flexDays, adults, cabinClass);
+        return ResponseEntity.ok(ApiResponse.success(calendar));
+    }
+
+    // Después de las rutas fijas (/refresh, /stream, /offers...): Spring prioriza las literales
+    @GetMapping("/{iata}")
+    public ResponseEntity<ApiResponse<FlightRecord>> getFlight(@PathVariable String iata) {
+        log.info("GET /api/flights/{} - Obtener vuelo", iata);
+        FlightRecord flight = flightService.getFlight(iata);
+        return ResponseEntity.ok(ApiResponse.success(flight));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" significa que no lo acepta
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
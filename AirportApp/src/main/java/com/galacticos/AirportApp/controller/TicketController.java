@@ -3,6 +3,7 @@ package com.galacticos.AirportApp.controller;
 import com.galacticos.AirportApp.dto.request.CreateTicketRequest;
 import com.galacticos.AirportApp.dto.request.UpdateTicketRequest;
 import com.galacticos.AirportApp.dto.response.ApiResponse;
+import com.galacticos.AirportApp.dto.response.TicketPageResponse;
 import com.galacticos.AirportApp.dto.response.TicketResponse;
 import com.galacticos.AirportApp.service.TicketService;
 import jakarta.validation.Valid;
@@ -12,8 +13,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/tickets")
 @RequiredArgsConstructor
@@ -48,36 +47,45 @@ public class TicketController {
     }
 
     @GetMapping("/user/{ownerUserId}")
-    public ResponseEntity<ApiResponse<List<TicketResponse>>> getTicketsByUser(
+    public ResponseEntity<ApiResponse<TicketPageResponse>> getTicketsByUser(
             @PathVariable String ownerUserId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean live) {
         log.info("GET /api/tickets/user/{} - Obtener tickets del usuario", ownerUserId);
         
-        List<TicketResponse> tickets;
+        TicketPageResponse page;
         if (status != null && !status.isEmpty()) {
-            tickets = ticketService.getTicketsByUserAndStatus(ownerUserId, status);
+            page = ticketService.getTicketsByUserAndStatus(ownerUserId, status, limit, cursor);
         } else {
-            tickets = ticketService.getTicketsByUser(ownerUserId);
+            page = ticketService.getTicketsByUser(ownerUserId, limit, cursor);
         }
         
-        return ResponseEntity.ok(ApiResponse.success(tickets));
+        return ResponseEntity.ok(ApiResponse.success(live ? withLiveStatus(page) : page));
     }
 
     @GetMapping("/flight/{flightIATA}")
-    public ResponseEntity<ApiResponse<List<TicketResponse>>> getTicketsByFlight(
-            @PathVariable String flightIATA) {
+    public ResponseEntity<ApiResponse<TicketPageResponse>> getTicketsByFlight(
+            @PathVariable String flightIATA,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean live) {
         log.info("GET /api/tickets/flight/{} - Obtener tickets por vuelo", flightIATA);
-        List<TicketResponse> tickets = ticketService.getTicketsByFlight(flightIATA);
-        return ResponseEntity.ok(ApiResponse.success(tickets));
+        TicketPageResponse page = ticketService.getTicketsByFlight(flightIATA, limit, cursor);
+        return ResponseEntity.ok(ApiResponse.success(live ? withLiveStatus(page) : page));
     }
 
     @GetMapping("/user/{ownerUserId}/flight/{flightIATA}")
-    public ResponseEntity<ApiResponse<List<TicketResponse>>> getTicketsByUserAndFlight(
+    public ResponseEntity<ApiResponse<TicketPageResponse>> getTicketsByUserAndFlight(
             @PathVariable String ownerUserId,
-            @PathVariable String flightIATA) {
+            @PathVariable String flightIATA,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean live) {
         log.info("GET /api/tickets/user/{}/flight/{} - Obtener tickets del usuario por vuelo", ownerUserId, flightIATA);
-        List<TicketResponse> tickets = ticketService.getTicketsByUserAndFlight(ownerUserId, flightIATA);
-        return ResponseEntity.ok(ApiResponse.success(tickets));
+        TicketPageResponse page = ticketService.getTicketsByUserAndFlight(ownerUserId, flightIATA, limit, cursor);
+        return ResponseEntity.ok(ApiResponse.success(live ? withLiveStatus(page) : page));
     }
 
     @PatchMapping("/{id}")
@@ -102,4 +110,9 @@ public class TicketController {
         ticketService.deleteTicket(id);
         return ResponseEntity.ok(ApiResponse.success("Ticket eliminado exitosamente", null));
     }
+
+    private TicketPageResponse withLiveStatus(TicketPageResponse page) {
+        page.setTickets(ticketService.withLiveStatus(page.getTickets()));
+        return page;
+    }
 }
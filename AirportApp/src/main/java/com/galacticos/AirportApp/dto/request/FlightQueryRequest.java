@@ -0,0 +1,52 @@
+package com.galacticos.AirportApp.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.*;
+
+// Parámetros de consulta de GET /api/flights. Todos son opcionales: sin ninguno se
+// devuelve el snapshot completo como antes.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightQueryRequest {
+
+    @Pattern(regexp = "[A-Za-z]{3}", message = "El código IATA de salida debe tener 3 letras")
+    private String depIata;
+
+    @Pattern(regexp = "[A-Za-z]{3}", message = "El código IATA de llegada debe tener 3 letras")
+    private String arrIata;
+
+    @Pattern(regexp = "[A-Za-z0-9]{2}", message = "El código IATA de la aerolínea debe tener 2 caracteres")
+    private String airline;
+
+    private String status;
+
+    // Ventana sobre la hora programada de salida (YYYY-MM-DDTHH:mm[:ss])
+    private String from;
+    private String to;
+
+    @Pattern(regexp = "-?(departure|arrival)", message = "Orden inválido. Use departure, -departure, arrival o -arrival")
+    private String sort;
+
+    @Min(value = 1, message = "El límite debe ser mayor que 0")
+    @Max(value = 1000, message = "El límite no puede superar 1000")
+    private Integer limit;
+
+    private String cursor;
+
+    // Con varios filtros el total de la paginación solo se calcula si se pide (recorre todos los candidatos)
+    private Boolean total;
+
+    // Zona visible del mapa: oeste,sur,este,norte en grados
+    @Pattern(regexp = "\\s*-?\\d+(\\.\\d+)?(\\s*,\\s*-?\\d+(\\.\\d+)?){3}\\s*",
+            message = "bbox inválido. Use oeste,sur,este,norte (grados)")
+    private String bbox;
+
+    // Versión recibida en una respuesta anterior: solo se devuelven los vuelos que cambiaron desde ella
+    @Min(value = 0, message = "La versión debe ser positiva")
+    private Long sinceVersion;
+}
@@ -0,0 +1,47 @@
+package com.galacticos.AirportApp.dto.response;
+
+import com.galacticos.AirportApp.model.FlightNetwork;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightTimes;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Itinerario con escalas calculado sobre los vuelos en memoria. Las horas son locales de cada
+// aeropuerto, así que solo se da el tiempo de cada escala y no una duración total.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConnectionResponse {
+
+    private String origin;
+    private String destination;
+    private String departureAt;
+    private String arrivalAt;
+    private int stops;
+    // Minutos en cada escala, en orden
+    private List<Long> connectionMinutes;
+    private List<FlightRecord> legs;
+
+    public static ConnectionResponse fromItinerary(FlightNetwork.Itinerary itinerary) {
+        List<FlightRecord> legs = itinerary.legs();
+        List<Long> connections = new ArrayList<>(legs.size() - 1);
+        for (int i = 1; i < legs.size(); i++) {
+            long arrival = legs.get(i - 1).getArrival().getEffectiveEpoch();
+            long departure = legs.get(i).getDeparture().getEffectiveEpoch();
+            connections.add((departure - arrival) / 60);
+        }
+        return ConnectionResponse.builder()
+                .origin(legs.getFirst().getDeparture().getIata())
+                .destination(legs.getLast().getArrival().getIata())
+                .departureAt(FlightTimes.format(itinerary.departure()))
+                .arrivalAt(FlightTimes.format(itinerary.arrival()))
+                .stops(legs.size() - 1)
+                .connectionMinutes(connections)
+                .legs(legs)
+                .build();
+    }
+}
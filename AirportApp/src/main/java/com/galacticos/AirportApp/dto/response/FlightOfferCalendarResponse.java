@@ -0,0 +1,50 @@
+package com.galacticos.AirportApp.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Precio mínimo por día alrededor de una fecha: una fila por día, sin las ofertas completas
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightOfferCalendarResponse {
+
+    private String origin;
+    private String destination;
+    private int adults;
+    private String cabinClass;
+    private String from;
+    private String to;
+    // Día más barato del calendario (null si ningún día tiene ofertas)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String cheapestDate;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal cheapestPrice;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String currency;
+    private List<Day> days;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Day {
+        private String date;
+        // null si el día no tiene ofertas o no se pudo consultar (available = false)
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private BigDecimal minPrice;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String currency;
+        private int offers;
+        private boolean available;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String source;
+        private boolean stale;
+    }
+}
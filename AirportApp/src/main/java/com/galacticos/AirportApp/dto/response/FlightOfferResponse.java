@@ -2,9 +2,16 @@ package com.galacticos.AirportApp.dto.response;
 
 import lombok.*;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+// Oferta de vuelo tipada a partir del JSON de Amadeus (o del mock con la misma forma):
+// precio y duración ya parseados para poder ordenar en el servidor.
 @Getter
 @Setter
 @NoArgsConstructor
@@ -12,10 +19,118 @@ import java.util.Map;
 @Builder
 public class FlightOfferResponse {
 
-    private List<Map<String, Object>> offers;
+    private String id;
     private String origin;
     private String destination;
-    private String departureDate;
-    private int totalOffers;
-    private String source;
+    // Horas locales del aeropuerto (YYYY-MM-DDTHH:mm:ss), como las da Amadeus
+    private String departureAt;
+    private String arrivalAt;
+    private Long durationMinutes;
+    private int stops;
+    private BigDecimal price;
+    private String currency;
+    private String carrierCode;
+    private String carrierName;
+    private List<Segment> segments;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Segment {
+        private String carrierCode;
+        private String carrierName;
+        private String number;
+        private String departureIata;
+        private String departureAt;
+        private String arrivalIata;
+        private String arrivalAt;
+    }
+
+    // Solo se lee el primer itinerario (las búsquedas son de ida). Los campos que faltan o no
+    // se pueden parsear quedan a null y esas ofertas se ordenan al final.
+    public static FlightOfferResponse fromAmadeus(Map<String, Object> offer) {
+        Map<String, Object> price = map(offer.get("price"));
+        List<Map<String, Object>> itineraries = list(offer.get("itineraries"));
+        Map<String, Object> itinerary = itineraries.isEmpty() ? Map.of() : itineraries.getFirst();
+
+        List<Segment> segments = new ArrayList<>();
+        for (Map<String, Object> segment : list(itinerary.get("segments"))) {
+            Map<String, Object> departure = map(segment.get("departure"));
+            Map<String, Object> arrival = map(segment.get("arrival"));
+            Map<String, Object> operating = map(segment.get("operating"));
+            Object carrierCode = segment.get("carrierCode") != null ? segment.get("carrierCode") : operating.get("carrierCode");
+            segments.add(Segment.builder()
+                    .carrierCode(string(carrierCode))
+                    .carrierName(string(operating.get("carrierName")))
+                    .number(string(segment.get("number")))
+                    .departureIata(string(departure.get("iataCode")))
+                    .departureAt(string(departure.get("at")))
+                    .arrivalIata(string(arrival.get("iataCode")))
+                    .arrivalAt(string(arrival.get("at")))
+                    .build());
+        }
+
+        Segment first = segments.isEmpty() ? new Segment() : segments.getFirst();
+        Segment last = segments.isEmpty() ? new Segment() : segments.getLast();
+        return FlightOfferResponse.builder()
+                .id(string(offer.get("id")))
+                .origin(first.getDepartureIata())
+                .destination(last.getArrivalIata())
+                .departureAt(first.getDepartureAt())
+                .arrivalAt(last.getArrivalAt())
+                .durationMinutes(durationMinutes(string(itinerary.get("duration")), first.getDepartureAt(), last.getArrivalAt()))
+                .stops(Math.max(0, segments.size() - 1))
+                .price(decimal(price.get("total")))
+                .currency(string(price.get("currency")))
+                .carrierCode(first.getCarrierCode())
+                .carrierName(first.getCarrierName())
+                .segments(segments)
+                .build();
+    }
+
+    // Amadeus da la duración en ISO-8601 (PT2H10M); si no viene se calcula con las horas de
+    // salida y llegada, que solo es exacto si ambos aeropuertos están en la misma zona horaria
+    private static Long durationMinutes(String isoDuration, String departureAt, String arrivalAt) {
+        try {
+            if (isoDuration != null) {
+                return Duration.parse(isoDuration).toMinutes();
+            }
+            if (departureAt != null && arrivalAt != null) {
+                return Duration.between(LocalDateTime.parse(departureAt), LocalDateTime.parse(arrivalAt)).toMinutes();
+            }
+        } catch (DateTimeParseException e) {
+            // Sin duración
+        }
+        return null;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return value instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> list(Object value) {
+        if (!(value instanceof List<?> items)) {
+            return List.of();
+        }
+        return (List<Map<String, Object>>) items.stream().filter(Map.class::isInstance).toList();
+    }
 }
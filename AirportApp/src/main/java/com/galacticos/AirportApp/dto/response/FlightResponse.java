@@ -1,21 +1,32 @@
 package com.galacticos.AirportApp.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.util.List;
-import java.util.Map;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
-public class FlightResponse {
+@Builder(toBuilder = true)
+public class FlightResponse<T> {
 
-    private List<Map<String, Object>> data;
+    private List<T> data;
     private Pagination pagination;
     private String source;
     private boolean fromStorage;
+    // Datos servidos desde cache caducada mientras se refrescan en segundo plano
+    private boolean stale;
+    // Versión del snapshot de vuelos (null en las ofertas) y epoch de las posiciones calculadas
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long positionsEpoch;
+    // Respuesta a ?sinceVersion=: data solo trae los vuelos que cambiaron y removed las claves eliminadas
+    private boolean delta;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> removed;
 
     @Getter
     @Setter
@@ -24,8 +35,13 @@ public class FlightResponse {
     @Builder
     public static class Pagination {
         private int limit;
-        private int offset;
+        // offset y total son null si no se han calculado (ver FlightIndex.Page)
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer offset;
         private int count;
-        private int total;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer total;
+        // Cursor para pedir la página siguiente (null si no hay más resultados)
+        private String nextCursor;
     }
 }
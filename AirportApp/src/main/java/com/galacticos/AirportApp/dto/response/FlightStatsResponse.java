@@ -0,0 +1,65 @@
+package com.galacticos.AirportApp.dto.response;
+
+import com.galacticos.AirportApp.model.FlightDelayStats;
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightStatsResponse {
+
+    // flight, route, airline o airport, y su valor (IB1000, MAD-BCN, IB, MAD)
+    private String dimension;
+    private String value;
+    private String from;
+    private String to;
+
+    private long operated;
+    private long cancelled;
+    private long onTime;
+    private long delayed;
+    private double onTimePercentage;
+    private double cancellationPercentage;
+    // Media sobre los vuelos operados (los adelantos cuentan como 0)
+    private double averageDelayMinutes;
+    private int maxDelayMinutes;
+    // Vuelos operados por tramo de retraso: "<15", "15-29", ..., "180+"
+    private Map<String, Long> delayBuckets;
+
+    public static FlightStatsResponse of(String dimension, String value, String from, String to, FlightDelayStats stats) {
+        long scheduled = stats.getOperated() + stats.getCancelled();
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        int[] limits = FlightDelayStats.BUCKET_MINUTES;
+        for (int i = 0; i < limits.length; i++) {
+            String label = i == 0 ? "<" + limits[1]
+                    : i == limits.length - 1 ? limits[i] + "+"
+                    : limits[i] + "-" + (limits[i + 1] - 1);
+            buckets.put(label, stats.getBuckets()[i]);
+        }
+        return FlightStatsResponse.builder()
+                .dimension(dimension)
+                .value(value)
+                .from(from)
+                .to(to)
+                .operated(stats.getOperated())
+                .cancelled(stats.getCancelled())
+                .onTime(stats.getOnTime())
+                .delayed(stats.getDelayed())
+                .onTimePercentage(percentage(stats.getOnTime(), stats.getOperated()))
+                .cancellationPercentage(percentage(stats.getCancelled(), scheduled))
+                .averageDelayMinutes(stats.getOperated() == 0 ? 0
+                        : Math.round(stats.getTotalDelayMinutes() * 10.0 / stats.getOperated()) / 10.0)
+                .maxDelayMinutes(stats.getMaxDelayMinutes())
+                .delayBuckets(buckets)
+                .build();
+    }
+
+    private static double percentage(long part, long total) {
+        return total == 0 ? 0 : Math.round(part * 1000.0 / total) / 10.0;
+    }
+}
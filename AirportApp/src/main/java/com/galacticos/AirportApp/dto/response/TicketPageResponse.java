@@ -0,0 +1,20 @@
+package com.galacticos.AirportApp.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+// Una página de tickets, del más reciente al más antiguo
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketPageResponse {
+
+    private List<TicketResponse> tickets;
+    private int limit;
+    private int count;
+    // Cursor para pedir la página siguiente (null si no hay más tickets)
+    private String nextCursor;
+}
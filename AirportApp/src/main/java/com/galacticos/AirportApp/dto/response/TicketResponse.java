@@ -1,6 +1,8 @@
 package com.galacticos.AirportApp.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.galacticos.AirportApp.entity.Ticket;
+import com.galacticos.AirportApp.model.FlightRecord;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -49,6 +51,18 @@ public class TicketResponse {
     private String ticketStatus;
     private String purchaseDate;
 
+    // Estado en vivo del vuelo (solo con ?live=true y si el vuelo de ese día está en el snapshot)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String liveStatus;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String estimatedDeparture;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String estimatedArrival;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String departureGate;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private FlightRecord.Live livePosition;
+
     public static TicketResponse fromEntity(Ticket ticket) {
         return TicketResponse.builder()
                 .id(ticket.getId())
@@ -11,7 +11,14 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "tickets")
+// Índices compuestos para los listados paginados por keyset (TicketRepository.findPageBy...):
+// el filtro, después purchaseDate e id, en el mismo orden que el ORDER BY de cada consulta
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_owner_purchase", columnList = "ownerUserId, purchaseDate, id"),
+        @Index(name = "idx_tickets_owner_status_purchase", columnList = "ownerUserId, ticketStatus, purchaseDate, id"),
+        @Index(name = "idx_tickets_flight_purchase", columnList = "flightIATA, purchaseDate, id"),
+        @Index(name = "idx_tickets_owner_flight_purchase", columnList = "ownerUserId, flightIATA, purchaseDate, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
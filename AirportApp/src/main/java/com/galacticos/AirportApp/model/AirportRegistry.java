@@ -0,0 +1,200 @@
+package com.galacticos.AirportApp.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Registro de aeropuertos conocidos, cargado una sola vez desde data/airports.csv.
+// Los códigos IATA se codifican como enteros (3 letras -> 0..26^3-1), la pertenencia a
+// una región es un bit en un BitSet y las coordenadas viven en arrays primitivos, así que
+// comprobar un aeropuerto o leer su posición no asigna memoria ni recorre listas.
+public final class AirportRegistry {
+
+    public enum Region {
+        EUROPE,
+        NORTH_AMERICA,
+        SOUTH_AMERICA,
+        MIDDLE_EAST,
+        AFRICA,
+        ASIA
+    }
+
+    public static final int NO_CODE = -1;
+
+    private static final int CODE_SPACE = 26 * 26 * 26;
+    private static final String RESOURCE = "/data/airports.csv";
+
+    // Peso relativo del tráfico de los grandes aeropuertos; el resto pesa 1
+    private static final Map<String, Integer> TRAFFIC_WEIGHTS = Map.ofEntries(
+            Map.entry("LHR", 12), Map.entry("CDG", 11), Map.entry("AMS", 11), Map.entry("FRA", 10),
+            Map.entry("IST", 10), Map.entry("MAD", 10), Map.entry("BCN", 8), Map.entry("MUC", 8),
+            Map.entry("FCO", 7), Map.entry("LGW", 6), Map.entry("DUB", 6), Map.entry("ZRH", 5),
+            Map.entry("CPH", 5), Map.entry("PMI", 5), Map.entry("OSL", 5), Map.entry("VIE", 5),
+            Map.entry("ARN", 5), Map.entry("LIS", 5), Map.entry("MAN", 4), Map.entry("BRU", 4),
+            Map.entry("ATH", 4), Map.entry("HEL", 4), Map.entry("DUS", 4), Map.entry("MXP", 4),
+            Map.entry("ORY", 4), Map.entry("WAW", 3), Map.entry("PRG", 3), Map.entry("BER", 3),
+            Map.entry("STN", 3), Map.entry("AGP", 3), Map.entry("GVA", 3), Map.entry("HAM", 3),
+            Map.entry("DXB", 3), Map.entry("DOH", 2), Map.entry("JFK", 2)
+    );
+
+    // Índice denso de cada código (o -1) y datos por índice
+    private static final int[] INDEX_BY_CODE = new int[CODE_SPACE];
+    private static final String[] IATA;
+    private static final String[] NAMES;
+    private static final String[] COUNTRIES;
+    private static final Region[] REGIONS;
+    private static final double[] LATITUDES;
+    private static final double[] LONGITUDES;
+    private static final Map<Region, BitSet> MEMBERS = new EnumMap<>(Region.class);
+    private static final Map<Region, List<String>> CODES_BY_REGION = new EnumMap<>(Region.class);
+
+    static {
+        Arrays.fill(INDEX_BY_CODE, -1);
+        List<String[]> rows = readRows();
+        int size = rows.size();
+        IATA = new String[size];
+        NAMES = new String[size];
+        COUNTRIES = new String[size];
+        REGIONS = new Region[size];
+        LATITUDES = new double[size];
+        LONGITUDES = new double[size];
+
+        Map<Region, List<String>> codes = new EnumMap<>(Region.class);
+        for (Region region : Region.values()) {
+            MEMBERS.put(region, new BitSet(CODE_SPACE));
+            codes.put(region, new ArrayList<>());
+        }
+
+        for (int i = 0; i < size; i++) {
+            String[] row = rows.get(i);
+            int code = encode(row[0]);
+            if (code == NO_CODE || INDEX_BY_CODE[code] != -1) {
+                throw new IllegalStateException("Código IATA inválido o repetido en " + RESOURCE + ": " + row[0]);
+            }
+            INDEX_BY_CODE[code] = i;
+            IATA[i] = FlightRecord.code(row[0]);
+            REGIONS[i] = Region.valueOf(row[1]);
+            COUNTRIES[i] = FlightRecord.code(row[2]);
+            LATITUDES[i] = Double.parseDouble(row[3]);
+            LONGITUDES[i] = Double.parseDouble(row[4]);
+            NAMES[i] = FlightRecord.name(row[5]);
+            MEMBERS.get(REGIONS[i]).set(code);
+            codes.get(REGIONS[i]).add(IATA[i]);
+        }
+        codes.forEach((region, list) -> CODES_BY_REGION.put(region, List.copyOf(list)));
+    }
+
+    private AirportRegistry() {
+    }
+
+    // Codifica un IATA de 3 letras (mayúsculas o minúsculas) sin crear objetos; NO_CODE si no es válido
+    public static int encode(CharSequence iata) {
+        if (iata == null || iata.length() != 3) {
+            return NO_CODE;
+        }
+        int code = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = Character.toUpperCase(iata.charAt(i)) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return NO_CODE;
+            }
+            code = code * 26 + letter;
+        }
+        return code;
+    }
+
+    public static String decode(int code) {
+        if (code < 0 || code >= CODE_SPACE) {
+            return null;
+        }
+        return new String(new char[]{(char) ('A' + code / 676), (char) ('A' + code / 26 % 26), (char) ('A' + code % 26)});
+    }
+
+    // Índice denso del aeropuerto (0..size-1) o -1 si no está registrado
+    public static int indexOf(CharSequence iata) {
+        int code = encode(iata);
+        return code == NO_CODE ? -1 : INDEX_BY_CODE[code];
+    }
+
+    public static boolean contains(CharSequence iata) {
+        return indexOf(iata) >= 0;
+    }
+
+    public static boolean isIn(CharSequence iata, Region region) {
+        int code = encode(iata);
+        return code != NO_CODE && MEMBERS.get(region).get(code);
+    }
+
+    public static boolean isEuropean(CharSequence iata) {
+        return isIn(iata, Region.EUROPE);
+    }
+
+    public static List<String> codesIn(Region region) {
+        return CODES_BY_REGION.get(region);
+    }
+
+    public static int size() {
+        return IATA.length;
+    }
+
+    public static String iata(int index) {
+        return IATA[index];
+    }
+
+    public static String name(int index) {
+        return NAMES[index];
+    }
+
+    public static String country(int index) {
+        return COUNTRIES[index];
+    }
+
+    public static Region region(int index) {
+        return REGIONS[index];
+    }
+
+    public static double latitude(int index) {
+        return LATITUDES[index];
+    }
+
+    public static double longitude(int index) {
+        return LONGITUDES[index];
+    }
+
+    public static int trafficWeight(int index) {
+        return TRAFFIC_WEIGHTS.getOrDefault(IATA[index], 1);
+    }
+
+    private static List<String[]> readRows() {
+        InputStream input = AirportRegistry.class.getResourceAsStream(RESOURCE);
+        if (input == null) {
+            throw new IllegalStateException("No se encuentra " + RESOURCE);
+        }
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                // El nombre es la última columna y puede contener comas
+                String[] row = line.split(",", 6);
+                if (row.length != 6) {
+                    throw new IllegalStateException("Línea inválida en " + RESOURCE + ": " + line);
+                }
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Error leyendo " + RESOURCE, e);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,38 @@
+package com.galacticos.AirportApp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Diferencias entre dos snapshots por clave de vuelo: añadidos, modificados y eliminados
+public record FlightChanges(List<FlightRecord> added, List<FlightRecord> updated, List<String> removed) {
+
+    public static FlightChanges between(FlightSnapshot previous, FlightSnapshot current) {
+        List<FlightRecord> added = new ArrayList<>();
+        List<FlightRecord> updated = new ArrayList<>();
+
+        Map<String, FlightRecord> before = new HashMap<>();
+        if (previous != null) {
+            for (FlightRecord flight : previous.getFlights()) {
+                before.put(flight.getKey(), flight);
+            }
+        }
+        for (FlightRecord flight : current.getFlights()) {
+            FlightRecord old = before.remove(flight.getKey());
+            if (old == null) {
+                added.add(flight);
+            } else if (old != flight && !old.equals(flight)) {
+                updated.add(flight);
+            }
+        }
+        return new FlightChanges(added, updated, new ArrayList<>(before.keySet()));
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+package com.galacticos.AirportApp.model;
+
+import lombok.Getter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Acumulador de puntualidad: vuelos operados, cancelados y retrasos por tramos. Se puede sumar
+// con otro (merge), así que los agregados de cada día se combinan sin volver a leer los vuelos.
+// Un vuelo es puntual si llega (o, sin dato de llegada, sale) con menos de 15 minutos de retraso.
+@Getter
+public final class FlightDelayStats {
+
+    public static final int ON_TIME_MINUTES = 15;
+    // Límite inferior (minutos) de cada tramo de retraso; el primero son los puntuales
+    public static final int[] BUCKET_MINUTES = {Integer.MIN_VALUE, ON_TIME_MINUTES, 30, 60, 120, 180};
+
+    private long operated;
+    private long cancelled;
+    private long totalDelayMinutes;
+    private int maxDelayMinutes;
+    private final long[] buckets = new long[BUCKET_MINUTES.length];
+
+    public void add(FlightStatus status, int delayMinutes) {
+        if (status == FlightStatus.CANCELLED) {
+            cancelled++;
+            return;
+        }
+        operated++;
+        // Los adelantos cuentan como puntuales pero no restan retraso
+        totalDelayMinutes += Math.max(0, delayMinutes);
+        maxDelayMinutes = Math.max(maxDelayMinutes, delayMinutes);
+        int bucket = BUCKET_MINUTES.length - 1;
+        while (delayMinutes < BUCKET_MINUTES[bucket]) {
+            bucket--;
+        }
+        buckets[bucket]++;
+    }
+
+    public void merge(FlightDelayStats other) {
+        operated += other.operated;
+        cancelled += other.cancelled;
+        totalDelayMinutes += other.totalDelayMinutes;
+        maxDelayMinutes = Math.max(maxDelayMinutes, other.maxDelayMinutes);
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] += other.buckets[i];
+        }
+    }
+
+    public long getOnTime() {
+        return buckets[0];
+    }
+
+    public long getDelayed() {
+        return operated - buckets[0];
+    }
+
+    // Varints con zigzag: casi todos los contadores de un vuelo o una ruta caben en un byte
+    public void write(DataOutput out) throws IOException {
+        writeVarLong(out, operated);
+        writeVarLong(out, cancelled);
+        writeVarLong(out, totalDelayMinutes);
+        writeVarLong(out, maxDelayMinutes);
+        for (long bucket : buckets) {
+            writeVarLong(out, bucket);
+        }
+    }
+
+    public static FlightDelayStats read(DataInput in) throws IOException {
+        FlightDelayStats stats = new FlightDelayStats();
+        stats.operated = readVarLong(in);
+        stats.cancelled = readVarLong(in);
+        stats.totalDelayMinutes = readVarLong(in);
+        stats.maxDelayMinutes = (int) readVarLong(in);
+        for (int i = 0; i < stats.buckets.length; i++) {
+            stats.buckets[i] = readVarLong(in);
+        }
+        return stats;
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package com.galacticos.AirportApp.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.IntBinaryOperator;
+
+// Índices secundarios de un snapshot (por aeropuerto de salida y llegada, aerolínea y estado).
+// Se construyen una sola vez por snapshot y cada lista de posiciones está ordenada por hora
+// de salida, así que una consulta solo recorre la lista más pequeña de las que aplican y
+// la ventana temporal se localiza con búsqueda binaria.
+// Para el bbox hay además una rejilla geográfica: cada vuelo en el aire se apunta en las
+// celdas que cubre su ruta, y solo esos candidatos calculan su posición exacta al consultar.
+public final class FlightIndex {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int CELL_DEGREES = 5;
+    private static final int LAT_CELLS = 180 / CELL_DEGREES;
+    private static final int LON_CELLS = 360 / CELL_DEGREES;
+
+    private final List<FlightRecord> flights;
+    private final long[] departureTimes;
+    private final long[] arrivalTimes;
+    private final int[] byDeparture;
+    private final List<FlightRecord> ordered;
+    private final Map<String, int[]> byDepartureAirport;
+    private final Map<String, int[]> byArrivalAirport;
+    private final Map<String, int[]> byAirline;
+    private final Map<FlightStatus, int[]> byStatus;
+    // Rangos (posición en byDeparture) de los vuelos cuya ruta pasa por cada celda
+    private final int[][] byCell;
+
+    public FlightIndex(List<FlightRecord> flights) {
+        this.flights = flights;
+        int size = flights.size();
+        departureTimes = new long[size];
+        arrivalTimes = new long[size];
+        for (int i = 0; i < size; i++) {
+            FlightRecord flight = flights.get(i);
+            departureTimes[i] = sortTime(flight.getDeparture());
+            arrivalTimes[i] = sortTime(flight.getArrival());
+        }
+
+        byDeparture = sortedPositions(size, departureTimes);
+        FlightRecord[] inOrder = new FlightRecord[size];
+        Map<String, List<Integer>> departureAirports = new HashMap<>();
+        Map<String, List<Integer>> arrivalAirports = new HashMap<>();
+        Map<String, List<Integer>> airlines = new HashMap<>();
+        Map<FlightStatus, List<Integer>> statuses = new EnumMap<>(FlightStatus.class);
+        Map<Integer, List<Integer>> cells = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            int position = byDeparture[i];
+            FlightRecord flight = flights.get(position);
+            inOrder[i] = flight;
+            addPosting(departureAirports, flight.getDeparture() != null ? flight.getDeparture().getIata() : null, position);
+            addPosting(arrivalAirports, flight.getArrival() != null ? flight.getArrival().getIata() : null, position);
+            addPosting(airlines, flight.getAirline() != null ? flight.getAirline().getIata() : null, position);
+            addPosting(statuses, flight.getStatus(), position);
+            GeoBox bounds = FlightPositions.bounds(flight);
+            if (bounds != null) {
+                for (int cell : cellsOf(bounds)) {
+                    addPosting(cells, cell, i);
+                }
+            }
+        }
+
+        ordered = List.of(inOrder);
+        byDepartureAirport = toArrays(departureAirports);
+        byArrivalAirport = toArrays(arrivalAirports);
+        byAirline = toArrays(airlines);
+        byStatus = toArrays(statuses);
+        byCell = new int[LAT_CELLS * LON_CELLS][];
+        toArrays(cells).forEach((cell, ranks) -> byCell[cell] = ranks);
+    }
+
+    // Todos los vuelos ordenados por hora de salida
+    public List<FlightRecord> all() {
+        return ordered;
+    }
+
+    // Una página cuesta O(log n + filas recorridas hasta llenarla): el cursor se localiza con
+    // búsqueda binaria y el recorrido se detiene en limit + 1 coincidencias. El total exacto
+    // solo sale gratis si la lista de candidatos ya cumple todos los filtros; si no, se cuenta
+    // únicamente cuando se pide (countTotal) o cuando la consulta recorre todo de todos modos.
+    public Page query(FlightQuery query) {
+        int[] candidates = candidatesFor(query);
+        int from = query.getFromEpoch() == FlightTimes.NONE ? 0 : lowerBound(candidates, query.getFromEpoch());
+        int to = query.getToEpoch() == FlightTimes.NONE ? candidates.length : lowerBound(candidates, query.getToEpoch() + 1);
+        to = Math.max(from, to);
+        Cursor cursor = Cursor.decode(query.getCursor(), query.getSortField());
+
+        if (query.getSortField() == FlightQuery.SortField.DEPARTURE) {
+            return pageByDeparture(candidates, from, to, query, cursor);
+        }
+        return pageByArrival(candidates, from, to, query, cursor);
+    }
+
+    // Los candidatos ya están ordenados por (salida, clave): se salta al cursor y se recorre desde ahí
+    private Page pageByDeparture(int[] candidates, int from, int to, FlightQuery query, Cursor cursor) {
+        int limit = query.getLimit() > 0 ? query.getLimit() : Integer.MAX_VALUE;
+        boolean descending = query.isDescending();
+        boolean filter = needsFilter(query);
+
+        // Ascendente: desde la primera fila posterior al cursor. Descendente: hacia atrás desde la anterior
+        int start = from;
+        int end = to;
+        if (cursor != null) {
+            if (descending) {
+                end = Math.max(from, Math.min(to, searchCursor(candidates, from, to, cursor, false)));
+            } else {
+                start = Math.min(to, Math.max(from, searchCursor(candidates, from, to, cursor, true)));
+            }
+        }
+
+        List<FlightRecord> page = new ArrayList<>(Math.min(limit, end - start));
+        int last = -1;
+        boolean hasMore = false;
+        for (int i = 0; i < end - start; i++) {
+            int position = candidates[descending ? end - 1 - i : start + i];
+            if (filter && !matches(position, query)) {
+                continue;
+            }
+            if (page.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            page.add(flights.get(position));
+            last = position;
+        }
+
+        Integer total = null;
+        Integer offset = null;
+        if (!filter) {
+            total = to - from;
+            offset = descending ? to - end : start - from;
+        } else if (query.isCountTotal() || !hasMore) {
+            // Sin más páginas lo que queda por contar es lo saltado por el cursor
+            int skipped = countMatches(candidates, descending ? end : from, descending ? to : start, query);
+            offset = skipped;
+            total = hasMore ? skipped + countMatches(candidates, start, end, query) : skipped + page.size();
+        }
+
+        String nextCursor = hasMore ? new Cursor(query.getSortField(), departureTimes[last], keyOf(last)).encode() : null;
+        return new Page(page, total, offset, nextCursor);
+    }
+
+    // Orden por llegada: se recorren los candidatos que cumplen los filtros, pero solo se ordenan
+    // los limit + 1 primeros tras el cursor (montículo acotado), no todos
+    private Page pageByArrival(int[] candidates, int from, int to, FlightQuery query, Cursor cursor) {
+        int limit = query.getLimit() > 0 ? query.getLimit() : Integer.MAX_VALUE;
+        boolean descending = query.isDescending();
+        IntBinaryOperator order = descending
+                ? (a, b) -> compare(b, a, arrivalTimes)
+                : (a, b) -> compare(a, b, arrivalTimes);
+
+        int keep = limit == Integer.MAX_VALUE ? to - from : limit + 1;
+        PositionHeap selected = new PositionHeap(Math.min(keep, to - from), order);
+        int total = 0;
+        int offset = 0;
+        for (int i = from; i < to; i++) {
+            int position = candidates[i];
+            if (!matches(position, query)) {
+                continue;
+            }
+            total++;
+            if (cursor != null && !cursor.isBefore(arrivalTimes[position], keyOf(position), descending)) {
+                offset++;
+            } else {
+                selected.offer(position, keep);
+            }
+        }
+
+        int[] rows = selected.sorted();
+        boolean hasMore = rows.length > limit;
+        int count = hasMore ? limit : rows.length;
+        List<FlightRecord> page = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            page.add(flights.get(rows[i]));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            int last = rows[count - 1];
+            nextCursor = new Cursor(query.getSortField(), arrivalTimes[last], keyOf(last)).encode();
+        }
+        return new Page(page, total, offset, nextCursor);
+    }
+
+    // Con un solo filtro de índice (y sin bbox) los candidatos son exactamente los que lo cumplen
+    private static boolean needsFilter(FlightQuery query) {
+        int filters = (query.getDepartureIata() != null ? 1 : 0) + (query.getArrivalIata() != null ? 1 : 0)
+                + (query.getAirlineIata() != null ? 1 : 0) + (query.getStatus() != null ? 1 : 0);
+        return query.getBbox() != null || filters > 1;
+    }
+
+    private int countMatches(int[] candidates, int from, int to, FlightQuery query) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (matches(candidates[i], query)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Primera posición en [from, to) posterior al cursor (after) o no anterior a él (!after),
+    // en el orden (hora de salida, clave) de las listas
+    private int searchCursor(int[] positions, int from, int to, Cursor cursor, boolean after) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int position = positions[mid];
+            int comparison = Long.compare(departureTimes[position], cursor.time());
+            if (comparison == 0) {
+                comparison = keyOf(position).compareTo(cursor.key());
+            }
+            if (comparison < 0 || (after && comparison == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int[] candidatesFor(FlightQuery query) {
+        int[] candidates = byDeparture;
+        if (query.getDepartureIata() != null) {
+            candidates = smallest(candidates, byDepartureAirport.getOrDefault(query.getDepartureIata(), EMPTY));
+        }
+        if (query.getArrivalIata() != null) {
+            candidates = smallest(candidates, byArrivalAirport.getOrDefault(query.getArrivalIata(), EMPTY));
+        }
+        if (query.getAirlineIata() != null) {
+            candidates = smallest(candidates, byAirline.getOrDefault(query.getAirlineIata(), EMPTY));
+        }
+        if (query.getStatus() != null) {
+            candidates = smallest(candidates, byStatus.getOrDefault(query.getStatus(), EMPTY));
+        }
+        if (query.getBbox() != null) {
+            candidates = smallest(candidates, inCells(cellsOf(query.getBbox())));
+        }
+        return candidates;
+    }
+
+    // Vuelos apuntados en alguna de las celdas, sin repetir y en orden de salida
+    private int[] inCells(int[] cells) {
+        BitSet ranks = new BitSet(byDeparture.length);
+        for (int cell : cells) {
+            int[] posting = byCell[cell];
+            if (posting != null) {
+                for (int rank : posting) {
+                    ranks.set(rank);
+                }
+            }
+        }
+        int[] positions = new int[ranks.cardinality()];
+        int count = 0;
+        for (int rank = ranks.nextSetBit(0); rank >= 0; rank = ranks.nextSetBit(rank + 1)) {
+            positions[count++] = byDeparture[rank];
+        }
+        return positions;
+    }
+
+    private static int[] cellsOf(GeoBox box) {
+        int south = latCell(box.south());
+        int north = latCell(box.north());
+        int west = lonCell(box.west());
+        int east = lonCell(box.east());
+        // Si cruza el antimeridiano se recorre de west hasta el final y desde el principio hasta east
+        int lonSpan = box.crossesAntimeridian() ? LON_CELLS - west + east + 1 : east - west + 1;
+        int[] cells = new int[(north - south + 1) * lonSpan];
+        int count = 0;
+        for (int lat = south; lat <= north; lat++) {
+            for (int i = 0; i < lonSpan; i++) {
+                cells[count++] = lat * LON_CELLS + (west + i) % LON_CELLS;
+            }
+        }
+        return cells;
+    }
+
+    private static int latCell(double latitude) {
+        return Math.min(LAT_CELLS - 1, (int) ((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int lonCell(double longitude) {
+        return Math.min(LON_CELLS - 1, (int) ((longitude + 180) / CELL_DEGREES));
+    }
+
+    private boolean matches(int position, FlightQuery query) {
+        FlightRecord flight = flights.get(position);
+        return (query.getDepartureIata() == null
+                    || (flight.getDeparture() != null && query.getDepartureIata().equals(flight.getDeparture().getIata())))
+                && (query.getArrivalIata() == null
+                    || (flight.getArrival() != null && query.getArrivalIata().equals(flight.getArrival().getIata())))
+                && (query.getAirlineIata() == null
+                    || (flight.getAirline() != null && query.getAirlineIata().equals(flight.getAirline().getIata())))
+                && (query.getStatus() == null || query.getStatus() == flight.getStatus())
+                && (query.getBbox() == null || isInside(flight, query));
+    }
+
+    private static boolean isInside(FlightRecord flight, FlightQuery query) {
+        FlightRecord.Live live = FlightPositions.positionAt(flight, query.getAtEpoch());
+        return live != null && query.getBbox().contains(live.getLatitude(), live.getLongitude());
+    }
+
+    // Primera posición de la lista cuya hora de salida es >= time
+    private int lowerBound(int[] positions, long time) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departureTimes[positions[mid]] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String keyOf(int position) {
+        String key = flights.get(position).getKey();
+        return key != null ? key : "";
+    }
+
+    private int[] sortedPositions(int size, long[] times) {
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        sort(positions, (a, b) -> compare(a, b, times));
+        return positions;
+    }
+
+    private int compare(int a, int b, long[] times) {
+        int comparison = Long.compare(times[a], times[b]);
+        return comparison != 0 ? comparison : keyOf(a).compareTo(keyOf(b));
+    }
+
+    // Merge sort de enteros con comparador propio, para no pasar cada posición a Integer
+    private static void sort(int[] positions, IntBinaryOperator order) {
+        int[] buffer = new int[positions.length];
+        for (int width = 1; width < positions.length; width *= 2) {
+            for (int low = 0; low < positions.length - width; low += 2 * width) {
+                int mid = low + width;
+                int high = Math.min(low + 2 * width, positions.length);
+                if (order.applyAsInt(positions[mid - 1], positions[mid]) <= 0) {
+                    continue;
+                }
+                int left = low;
+                int right = mid;
+                int out = low;
+                while (left < mid && right < high) {
+                    buffer[out++] = order.applyAsInt(positions[left], positions[right]) <= 0
+                            ? positions[left++] : positions[right++];
+                }
+                while (left < mid) {
+                    buffer[out++] = positions[left++];
+                }
+                while (right < high) {
+                    buffer[out++] = positions[right++];
+                }
+                System.arraycopy(buffer, low, positions, low, high - low);
+            }
+        }
+    }
+
+    private static long sortTime(FlightRecord.Endpoint endpoint) {
+        // Los vuelos sin hora van al final
+        if (endpoint == null || endpoint.getScheduledEpoch() == FlightTimes.NONE) {
+            return Long.MAX_VALUE;
+        }
+        return endpoint.getScheduledEpoch();
+    }
+
+    private static int[] smallest(int[] current, int[] candidate) {
+        return candidate.length < current.length ? candidate : current;
+    }
+
+    private static <K> void addPosting(Map<K, List<Integer>> postings, K key, int position) {
+        if (key != null) {
+            postings.computeIfAbsent(key, k -> new ArrayList<>()).add(position);
+        }
+    }
+
+    private static <K> Map<K, int[]> toArrays(Map<K, List<Integer>> postings) {
+        Map<K, int[]> arrays = new HashMap<>(postings.size() * 2);
+        postings.forEach((key, positions) -> arrays.put(key, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return arrays;
+    }
+
+    // total y offset son null cuando contarlos obligaría a recorrer todos los candidatos
+    public record Page(List<FlightRecord> flights, Integer total, Integer offset, String nextCursor) {
+    }
+
+    // Montículo de posiciones acotado: la cima es la peor de las seleccionadas según order
+    private static final class PositionHeap {
+
+        private final IntBinaryOperator order;
+        private int[] heap;
+        private int size;
+
+        PositionHeap(int capacity, IntBinaryOperator order) {
+            this.order = order;
+            this.heap = new int[Math.max(1, capacity)];
+        }
+
+        void offer(int position, int keep) {
+            if (size < keep) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, size * 2);
+                }
+                heap[size] = position;
+                siftUp(size++);
+            } else if (order.applyAsInt(position, heap[0]) < 0) {
+                heap[0] = position;
+                siftDown(0);
+            }
+        }
+
+        int[] sorted() {
+            int[] rows = Arrays.copyOf(heap, size);
+            sort(rows, order);
+            return rows;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (order.applyAsInt(heap[index], heap[parent]) <= 0) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && order.applyAsInt(heap[left], heap[largest]) > 0) {
+                    largest = left;
+                }
+                if (right < size && order.applyAsInt(heap[right], heap[largest]) > 0) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    // Cursor opaco para paginación por clave: (campo de orden, hora, clave del vuelo)
+    private record Cursor(FlightQuery.SortField field, long time, String key) {
+
+        boolean isBefore(long otherTime, String otherKey, boolean descending) {
+            int comparison = Long.compare(otherTime, time);
+            if (comparison == 0) {
+                comparison = otherKey.compareTo(key);
+            }
+            return descending ? comparison < 0 : comparison > 0;
+        }
+
+        String encode() {
+            String raw = field.name() + "|" + time + "|" + key;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String encoded, FlightQuery.SortField expectedField) {
+            if (encoded == null || encoded.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 3);
+                FlightQuery.SortField field = FlightQuery.SortField.valueOf(parts[0]);
+                if (field != expectedField) {
+                    throw new IllegalArgumentException("El cursor no corresponde al orden solicitado");
+                }
+                return new Cursor(field, Long.parseLong(parts[1]), parts[2]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + encoded);
+            }
+        }
+    }
+}
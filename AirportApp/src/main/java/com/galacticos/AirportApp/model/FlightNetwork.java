@@ -0,0 +1,150 @@
+package com.galacticos.AirportApp.model;
+
+import java.util.*;
+
+// Red de conexiones de un snapshot para buscar itinerarios con escalas sin llamar a ningún
+// proveedor. Cada vuelo no cancelado es una conexión (origen, destino, salida, llegada) con la
+// hora real o estimada si la hay (Endpoint.getEffectiveEpoch), así que los retrasos ya cuentan.
+// Se construye una vez por snapshot.
+// La búsqueda es un connection scan por número de tramos: la pasada k recorre todas las
+// conexiones y mejora la llegada con k tramos a cada aeropuerto a partir de la de k - 1.
+// Las horas son locales de cada aeropuerto, así que no se puede confiar en que una conexión
+// salga después de la anterior en el orden global (un vuelo corto hacia el oeste "llega antes
+// de salir"); con pasadas por tramos el orden no importa y solo se comparan horas del mismo
+// aeropuerto: llegada y salida en la escala, y llegadas al destino entre sí.
+public final class FlightNetwork {
+
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    private final Map<String, Integer> stations = new HashMap<>();
+    private final int[] from;
+    private final int[] to;
+    private final long[] departures;
+    private final long[] arrivals;
+    private final FlightRecord[] flights;
+
+    public FlightNetwork(List<FlightRecord> snapshotFlights) {
+        List<FlightRecord> usable = new ArrayList<>(snapshotFlights.size());
+        for (FlightRecord flight : snapshotFlights) {
+            if (isUsable(flight)) {
+                usable.add(flight);
+            }
+        }
+        usable.sort(Comparator.comparingLong(flight -> flight.getDeparture().getEffectiveEpoch()));
+
+        int size = usable.size();
+        from = new int[size];
+        to = new int[size];
+        departures = new long[size];
+        arrivals = new long[size];
+        flights = usable.toArray(new FlightRecord[0]);
+        for (int i = 0; i < size; i++) {
+            FlightRecord flight = flights[i];
+            from[i] = station(flight.getDeparture().getIata());
+            to[i] = station(flight.getArrival().getIata());
+            departures[i] = flight.getDeparture().getEffectiveEpoch();
+            arrivals[i] = flight.getArrival().getEffectiveEpoch();
+        }
+    }
+
+    public int size() {
+        return flights.length;
+    }
+
+    // Itinerario de llegada más temprana para cada número de tramos (1..maxLegs), saliendo del
+    // origen a partir de departAfter. Solo se incluye uno con más tramos si llega antes que los
+    // de menos, así que la lista va de menos a más escalas y de llegada más tardía a más temprana.
+    public List<Itinerary> earliestArrivals(String origin, String destination, long departAfter,
+                                            int maxLegs, long minConnectionSeconds) {
+        Integer source = stations.get(origin);
+        Integer target = stations.get(destination);
+        if (source == null || target == null || source.equals(target) || maxLegs < 1) {
+            return List.of();
+        }
+
+        int stationCount = stations.size();
+        long[][] arrival = new long[maxLegs + 1][stationCount];
+        int[][] via = new int[maxLegs + 1][stationCount];
+        for (long[] layer : arrival) {
+            Arrays.fill(layer, UNREACHED);
+        }
+
+        // Primer tramo: las salidas del origen están ordenadas, se empieza por búsqueda binaria
+        for (int c = firstDepartingAt(departAfter); c < flights.length; c++) {
+            if (from[c] == source && to[c] != source && arrivals[c] < arrival[1][to[c]]) {
+                arrival[1][to[c]] = arrivals[c];
+                via[1][to[c]] = c;
+            }
+        }
+
+        for (int legs = 2; legs <= maxLegs; legs++) {
+            long[] previous = arrival[legs - 1];
+            long[] current = arrival[legs];
+            for (int c = 0; c < flights.length; c++) {
+                int stop = from[c];
+                // No se hace escala en el destino ni se vuelve al origen
+                if (stop == target || to[c] == source || previous[stop] == UNREACHED
+                        || departures[c] < previous[stop] + minConnectionSeconds) {
+                    continue;
+                }
+                if (arrivals[c] < current[to[c]]) {
+                    current[to[c]] = arrivals[c];
+                    via[legs][to[c]] = c;
+                }
+            }
+        }
+
+        List<Itinerary> itineraries = new ArrayList<>();
+        long best = UNREACHED;
+        for (int legs = 1; legs <= maxLegs; legs++) {
+            if (arrival[legs][target] < best) {
+                best = arrival[legs][target];
+                itineraries.add(itinerary(via, legs, target));
+            }
+        }
+        return itineraries;
+    }
+
+    private Itinerary itinerary(int[][] via, int legs, int target) {
+        FlightRecord[] path = new FlightRecord[legs];
+        int station = target;
+        for (int leg = legs; leg >= 1; leg--) {
+            int connection = via[leg][station];
+            path[leg - 1] = flights[connection];
+            station = from[connection];
+        }
+        return new Itinerary(List.of(path), path[0].getDeparture().getEffectiveEpoch(),
+                path[legs - 1].getArrival().getEffectiveEpoch());
+    }
+
+    private int firstDepartingAt(long epochSecond) {
+        int low = 0;
+        int high = departures.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (departures[middle] < epochSecond) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int station(String iata) {
+        return stations.computeIfAbsent(iata, code -> stations.size());
+    }
+
+    private static boolean isUsable(FlightRecord flight) {
+        if (flight.getStatus() == FlightStatus.CANCELLED || flight.getDeparture() == null || flight.getArrival() == null
+                || flight.getDeparture().getIata() == null || flight.getArrival().getIata() == null
+                || flight.getDeparture().getIata().equals(flight.getArrival().getIata())) {
+            return false;
+        }
+        return flight.getDeparture().getEffectiveEpoch() != FlightTimes.NONE && flight.getArrival().getEffectiveEpoch() != FlightTimes.NONE;
+    }
+
+    // departure y arrival son la salida del primer tramo y la llegada del último (hora local de cada aeropuerto)
+    public record Itinerary(List<FlightRecord> legs, long departure, long arrival) {
+    }
+}
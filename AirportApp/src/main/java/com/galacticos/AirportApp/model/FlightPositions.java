@@ -0,0 +1,151 @@
+package com.galacticos.AirportApp.model;
+
+// Posición de los vuelos en el aire. Si la fuente trae datos "live" se usan tal cual; si no,
+// la posición de un vuelo activo se calcula en el momento de la petición sobre el círculo
+// máximo entre los aeropuertos de origen y destino, según el tiempo transcurrido.
+public final class FlightPositions {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double CRUISE_ALTITUDE_FT = 37000;
+    // Fracción del vuelo dedicada a ascenso y a descenso
+    private static final double CLIMB_FRACTION = 0.1;
+    // Puntos de la ruta usados para calcular su rectángulo envolvente
+    private static final int ROUTE_SAMPLES = 16;
+    private static final double BOUNDS_MARGIN = 0.5;
+
+    private FlightPositions() {
+    }
+
+    // Devuelve el vuelo con su posición en epochSecond (el mismo objeto si no cambia)
+    public static FlightRecord withPosition(FlightRecord flight, long epochSecond) {
+        if (flight.getLive() != null) {
+            return flight;
+        }
+        FlightRecord.Live live = positionAt(flight, epochSecond);
+        return live == null ? flight : flight.toBuilder().live(live).build();
+    }
+
+    // Posición en epochSecond, o null si el vuelo no está en el aire o no se conoce su ruta
+    public static FlightRecord.Live positionAt(FlightRecord flight, long epochSecond) {
+        if (flight.getLive() != null) {
+            return flight.getLive();
+        }
+        Route route = Route.of(flight);
+        if (route == null) {
+            return null;
+        }
+
+        double progress = Math.clamp((double) (epochSecond - route.departureEpoch()) / route.durationSeconds(), 0, 1);
+        double[] point = route.interpolate(progress);
+        double altitude = CRUISE_ALTITUDE_FT * Math.min(1, Math.min(progress, 1 - progress) / CLIMB_FRACTION);
+
+        return FlightRecord.Live.builder()
+                .updatedEpoch(epochSecond)
+                .latitude(point[0])
+                .longitude(point[1])
+                .altitude(Math.round(altitude))
+                .direction(bearing(point[0], point[1], route.arrivalLat(), route.arrivalLon()))
+                .speedHorizontal(route.distanceKm() / (route.durationSeconds() / 3600.0))
+                .ground(false)
+                .build();
+    }
+
+    // Rectángulo que contiene todas las posiciones posibles del vuelo, o null si no tendrá posición
+    public static GeoBox bounds(FlightRecord flight) {
+        FlightRecord.Live live = flight.getLive();
+        if (live != null) {
+            return new GeoBox(live.getLatitude(), live.getLongitude(), live.getLatitude(), live.getLongitude());
+        }
+        Route route = Route.of(flight);
+        if (route == null) {
+            return null;
+        }
+
+        double south = 90;
+        double north = -90;
+        double west = 180;
+        double east = -180;
+        double previousLon = Double.NaN;
+        boolean wraps = false;
+        for (int i = 0; i <= ROUTE_SAMPLES; i++) {
+            double[] point = route.interpolate((double) i / ROUTE_SAMPLES);
+            south = Math.min(south, point[0]);
+            north = Math.max(north, point[0]);
+            west = Math.min(west, point[1]);
+            east = Math.max(east, point[1]);
+            wraps |= !Double.isNaN(previousLon) && Math.abs(point[1] - previousLon) > 180;
+            previousLon = point[1];
+        }
+        if (wraps) {
+            west = -180;
+            east = 180;
+        }
+        return new GeoBox(Math.max(-90, south - BOUNDS_MARGIN), Math.max(-180, west - BOUNDS_MARGIN),
+                Math.min(90, north + BOUNDS_MARGIN), Math.min(180, east + BOUNDS_MARGIN));
+    }
+
+    private static double bearing(double fromLat, double fromLon, double toLat, double toLon) {
+        double phi1 = Math.toRadians(fromLat);
+        double phi2 = Math.toRadians(toLat);
+        double deltaLambda = Math.toRadians(toLon - fromLon);
+        double y = Math.sin(deltaLambda) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(deltaLambda);
+        double degrees = Math.toDegrees(Math.atan2(y, x));
+        return degrees < 0 ? degrees + 360 : degrees;
+    }
+
+    // Ruta de un vuelo activo entre dos aeropuertos del registro
+    private record Route(double departureLat, double departureLon, double arrivalLat, double arrivalLon,
+                         long departureEpoch, long durationSeconds, double angle) {
+
+        static Route of(FlightRecord flight) {
+            if (flight.getStatus() != FlightStatus.ACTIVE || flight.getDeparture() == null || flight.getArrival() == null) {
+                return null;
+            }
+            int from = AirportRegistry.indexOf(flight.getDeparture().getIata());
+            int to = AirportRegistry.indexOf(flight.getArrival().getIata());
+            // Las mismas horas que usa FlightStatusEngine, para que el progreso cuadre con el estado
+            long departure = flight.getDeparture().getEffectiveEpoch();
+            long arrival = flight.getArrival().getEffectiveEpoch();
+            if (from < 0 || to < 0 || from == to || departure == FlightTimes.NONE
+                    || arrival == FlightTimes.NONE || arrival <= departure) {
+                return null;
+            }
+
+            double lat1 = AirportRegistry.latitude(from);
+            double lon1 = AirportRegistry.longitude(from);
+            double lat2 = AirportRegistry.latitude(to);
+            double lon2 = AirportRegistry.longitude(to);
+            // Distancia angular (haversine)
+            double a = Math.pow(Math.sin(Math.toRadians(lat2 - lat1) / 2), 2)
+                    + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                    * Math.pow(Math.sin(Math.toRadians(lon2 - lon1) / 2), 2);
+            double angle = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+            return new Route(lat1, lon1, lat2, lon2, departure, arrival - departure, angle);
+        }
+
+        double distanceKm() {
+            return angle * EARTH_RADIUS_KM;
+        }
+
+        // Punto intermedio del círculo máximo: {latitud, longitud} en grados
+        double[] interpolate(double fraction) {
+            if (angle == 0) {
+                return new double[]{departureLat, departureLon};
+            }
+            double phi1 = Math.toRadians(departureLat);
+            double lambda1 = Math.toRadians(departureLon);
+            double phi2 = Math.toRadians(arrivalLat);
+            double lambda2 = Math.toRadians(arrivalLon);
+            double a = Math.sin((1 - fraction) * angle) / Math.sin(angle);
+            double b = Math.sin(fraction * angle) / Math.sin(angle);
+            double x = a * Math.cos(phi1) * Math.cos(lambda1) + b * Math.cos(phi2) * Math.cos(lambda2);
+            double y = a * Math.cos(phi1) * Math.sin(lambda1) + b * Math.cos(phi2) * Math.sin(lambda2);
+            double z = a * Math.sin(phi1) + b * Math.sin(phi2);
+            return new double[]{
+                    Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y))),
+                    Math.toDegrees(Math.atan2(y, x))
+            };
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.galacticos.AirportApp.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+// Consulta ya validada sobre un snapshot de vuelos
+@Value
+@Builder
+public class FlightQuery {
+
+    String departureIata;
+    String arrivalIata;
+    String airlineIata;
+    FlightStatus status;
+
+    @Builder.Default
+    long fromEpoch = FlightTimes.NONE;
+
+    @Builder.Default
+    long toEpoch = FlightTimes.NONE;
+
+    @Builder.Default
+    SortField sortField = SortField.DEPARTURE;
+
+    boolean descending;
+
+    // 0 = sin límite
+    int limit;
+
+    String cursor;
+
+    // Contar el total exacto aunque haya que recorrer todos los candidatos
+    boolean countTotal;
+
+    // Zona visible del mapa: solo vuelos en el aire cuya posición en atEpoch cae dentro
+    GeoBox bbox;
+
+    @Builder.Default
+    long atEpoch = FlightTimes.NONE;
+
+    public boolean isUnfiltered() {
+        return departureIata == null && arrivalIata == null && airlineIata == null && status == null && bbox == null
+                && fromEpoch == FlightTimes.NONE && toEpoch == FlightTimes.NONE
+                && sortField == SortField.DEPARTURE && !descending && limit == 0 && cursor == null;
+    }
+
+    public enum SortField {
+        DEPARTURE,
+        ARRIVAL
+    }
+}
@@ -0,0 +1,189 @@
+package com.galacticos.AirportApp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Vuelo inmutable del snapshot. Se serializa con la misma forma JSON que AviationStack
+// (flight_date, flight_status, flight, airline, departure, arrival, live) para que el
+// frontend no note el cambio, pero internamente guarda códigos compartidos y horas epoch.
+@Value
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"flight_date", "flight_status", "flight", "airline", "departure", "arrival", "live"})
+public class FlightRecord {
+
+    @JsonIgnore
+    @Builder.Default
+    long flightDateEpochDay = FlightTimes.NONE;
+
+    @JsonProperty("flight_status")
+    FlightStatus status;
+
+    FlightInfo flight;
+    Airline airline;
+    Endpoint departure;
+    Endpoint arrival;
+    Live live;
+
+    @JsonProperty("flight_date")
+    public String getFlightDate() {
+        return FlightTimes.formatDate(flightDateEpochDay);
+    }
+
+    // Clave estable del vuelo dentro del snapshot
+    @JsonIgnore
+    public String getKey() {
+        return flight != null ? flight.getIata() : null;
+    }
+
+    public FlightRecord withStatus(FlightStatus newStatus) {
+        return newStatus == status ? this : toBuilder().status(newStatus).build();
+    }
+
+    @Value
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"number", "iata", "icao"})
+    public static class FlightInfo {
+        String number;
+        String iata;
+        String icao;
+    }
+
+    @Value
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"name", "iata", "icao"})
+    public static class Airline {
+        String name;
+        String iata;
+        String icao;
+    }
+
+    @Value
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"airport", "timezone", "iata", "icao", "terminal", "gate", "delay",
+            "scheduled", "estimated", "actual"})
+    public static class Endpoint {
+        String airport;
+        String timezone;
+        String iata;
+        String icao;
+        String terminal;
+        String gate;
+        Integer delay;
+
+        @JsonIgnore
+        @Builder.Default
+        long scheduledEpoch = FlightTimes.NONE;
+
+        @JsonIgnore
+        @Builder.Default
+        long estimatedEpoch = FlightTimes.NONE;
+
+        @JsonIgnore
+        @Builder.Default
+        long actualEpoch = FlightTimes.NONE;
+
+        // Hora real si la hay; si no, la estimada y, si no, la programada (NONE si no hay ninguna)
+        @JsonIgnore
+        public long getEffectiveEpoch() {
+            if (actualEpoch != FlightTimes.NONE) {
+                return actualEpoch;
+            }
+            return estimatedEpoch != FlightTimes.NONE ? estimatedEpoch : scheduledEpoch;
+        }
+
+        @JsonProperty("scheduled")
+        public String getScheduled() {
+            return FlightTimes.format(scheduledEpoch);
+        }
+
+        @JsonProperty("estimated")
+        public String getEstimated() {
+            return FlightTimes.format(estimatedEpoch);
+        }
+
+        @JsonProperty("actual")
+        public String getActual() {
+            return FlightTimes.format(actualEpoch);
+        }
+    }
+
+    @Value
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"updated", "latitude", "longitude", "altitude", "direction",
+            "speed_horizontal", "speed_vertical", "is_ground"})
+    public static class Live {
+        @JsonIgnore
+        @Builder.Default
+        long updatedEpoch = FlightTimes.NONE;
+
+        double latitude;
+        double longitude;
+        double altitude;
+        double direction;
+
+        @JsonProperty("speed_horizontal")
+        double speedHorizontal;
+
+        @JsonProperty("speed_vertical")
+        double speedVertical;
+
+        @JsonProperty("is_ground")
+        boolean ground;
+
+        @JsonProperty("updated")
+        public String getUpdated() {
+            return FlightTimes.format(updatedEpoch);
+        }
+
+        // Alias que usaban los datos mock y el simulador del frontend
+        @JsonProperty("speed")
+        public double getSpeed() {
+            return speedHorizontal;
+        }
+    }
+
+    // Códigos y nombres se repiten en todos los vuelos: se comparte una sola instancia de cada uno.
+    // Se usa un mapa propio en vez de String.intern (mucho más lento) con un tope de tamaño.
+    private static final int MAX_POOLED = 50_000;
+    private static final Map<String, String> POOL = new ConcurrentHashMap<>();
+
+    public static String code(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : pooled(text.toUpperCase());
+    }
+
+    public static String name(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : pooled(text);
+    }
+
+    private static String pooled(String text) {
+        String existing = POOL.get(text);
+        if (existing != null) {
+            return existing;
+        }
+        if (POOL.size() >= MAX_POOLED) {
+            return text;
+        }
+        existing = POOL.putIfAbsent(text, text);
+        return existing != null ? existing : text;
+    }
+}
@@ -0,0 +1,92 @@
+package com.galacticos.AirportApp.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Conjunto inmutable de vuelos obtenido en un refresco, junto con su origen y momento de carga.
+// Cada snapshot (también los derivados con withFlights) tiene una versión creciente; se parte
+// de la hora de arranque para que tampoco retroceda entre reinicios.
+@Getter
+public class FlightSnapshot {
+
+    private static final AtomicLong VERSIONS = new AtomicLong(System.currentTimeMillis());
+
+    private final List<FlightRecord> flights;
+    private final String source;
+    private final long createdAt;
+    private final long version;
+
+    // Índices secundarios, construidos la primera vez que se consultan
+    private volatile FlightIndex index;
+    // Índice hash por clave de vuelo. Va aparte de FlightIndex porque es mucho más barato de
+    // construir (O(n), sin ordenar) y los snapshots derivados de cambios de estado lo necesitan enseguida
+    @Getter(AccessLevel.NONE)
+    private volatile Map<String, FlightRecord> byKey;
+    // Red de conexiones para las búsquedas con escalas, también bajo demanda
+    private volatile FlightNetwork network;
+
+    public FlightSnapshot(List<FlightRecord> flights, String source) {
+        this(flights, source, System.currentTimeMillis());
+    }
+
+    public FlightSnapshot(List<FlightRecord> flights, String source, long createdAt) {
+        this.flights = List.copyOf(flights);
+        this.source = source;
+        this.createdAt = createdAt;
+        this.version = VERSIONS.incrementAndGet();
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    public FlightIndex getIndex() {
+        FlightIndex built = index;
+        if (built == null) {
+            built = new FlightIndex(flights);
+            index = built;
+        }
+        return built;
+    }
+
+    // Vuelo por clave (IATA del vuelo) o null
+    public FlightRecord find(String key) {
+        if (key == null) {
+            return null;
+        }
+        Map<String, FlightRecord> built = byKey;
+        if (built == null) {
+            built = HashMap.newHashMap(flights.size());
+            for (FlightRecord flight : flights) {
+                if (flight.getKey() != null) {
+                    built.put(flight.getKey(), flight);
+                }
+            }
+            byKey = built;
+        }
+        return built.get(key);
+    }
+
+    public FlightNetwork getNetwork() {
+        FlightNetwork built = network;
+        if (built == null) {
+            built = new FlightNetwork(flights);
+            network = built;
+        }
+        return built;
+    }
+
+    public boolean isOlderThan(long maxAgeMs) {
+        return System.currentTimeMillis() - createdAt > maxAgeMs;
+    }
+
+    // Devuelve un snapshot con los mismos metadatos pero otra lista de vuelos
+    public FlightSnapshot withFlights(List<FlightRecord> newFlights) {
+        return new FlightSnapshot(newFlights, source, createdAt);
+    }
+}
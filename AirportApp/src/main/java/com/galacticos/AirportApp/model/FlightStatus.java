@@ -0,0 +1,33 @@
+package com.galacticos.AirportApp.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum FlightStatus {
+    SCHEDULED,
+    ACTIVE,
+    LANDED,
+    CANCELLED,
+    INCIDENT,
+    DIVERTED,
+    UNKNOWN;
+
+    // Valor que usa AviationStack y el frontend ("scheduled", "active"...)
+    private final String value = name().toLowerCase();
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public static FlightStatus fromValue(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        for (FlightStatus status : values()) {
+            if (status.value.equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,79 @@
+package com.galacticos.AirportApp.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Conversión entre las fechas ISO de AviationStack y segundos epoch.
+// AviationStack publica la hora local del aeropuerto con sufijo "+00:00", por eso
+// (igual que hacía el cálculo de estados original) se ignora el offset y se
+// interpreta la hora en la zona del servidor.
+// Al servirlas (format) salen sin offset, "yyyy-MM-ddTHH:mm:ss", igual que las de los datos
+// mock: son hora de reloj y el frontend las muestra tal cual (parseFlightTime en formatters.js).
+// Reenviar el "+00:00" haría que el navegador las desplazase con su propia zona.
+public final class FlightTimes {
+
+    // Marca de "sin hora" para los campos epoch primitivos
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter ISO_LOCAL = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private FlightTimes() {
+    }
+
+    // Formato fijo yyyy-MM-ddTHH:mm:ss: se leen los dígitos a mano en vez de LocalDateTime.parse,
+    // que asigna ~1 KB por llamada y se usa varias veces por vuelo al leer AviationStack
+    public static long toEpochSecond(String iso) {
+        if (iso == null || iso.length() < 19 || iso.charAt(4) != '-' || iso.charAt(7) != '-'
+                || iso.charAt(10) != 'T' || iso.charAt(13) != ':' || iso.charAt(16) != ':') {
+            return NONE;
+        }
+        try {
+            return LocalDateTime.of(digits(iso, 0, 4), digits(iso, 5, 7), digits(iso, 8, 10),
+                    digits(iso, 11, 13), digits(iso, 14, 16), digits(iso, 17, 19)).atZone(ZONE).toEpochSecond();
+        } catch (Exception e) {
+            return NONE;
+        }
+    }
+
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toEpochSecond();
+    }
+
+    public static String format(long epochSecond) {
+        if (epochSecond == NONE) {
+            return null;
+        }
+        return ISO_LOCAL.format(Instant.ofEpochSecond(epochSecond).atZone(ZONE));
+    }
+
+    public static long toEpochDay(String isoDate) {
+        if (isoDate == null || isoDate.length() < 10 || isoDate.charAt(4) != '-' || isoDate.charAt(7) != '-') {
+            return NONE;
+        }
+        try {
+            return LocalDate.of(digits(isoDate, 0, 4), digits(isoDate, 5, 7), digits(isoDate, 8, 10)).toEpochDay();
+        } catch (Exception e) {
+            return NONE;
+        }
+    }
+
+    public static String formatDate(long epochDay) {
+        return epochDay == NONE ? null : LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Fecha inválida: " + text);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,28 @@
+package com.galacticos.AirportApp.model;
+
+// Rectángulo geográfico en grados (sur, oeste, norte, este). Si west > east el rectángulo
+// cruza el antimeridiano.
+public record GeoBox(double south, double west, double north, double east) {
+
+    public GeoBox {
+        if (south < -90 || north > 90 || south > north) {
+            throw new IllegalArgumentException("Latitudes del bbox fuera de rango");
+        }
+        if (west < -180 || west > 180 || east < -180 || east > 180) {
+            throw new IllegalArgumentException("Longitudes del bbox fuera de rango");
+        }
+    }
+
+    public boolean crossesAntimeridian() {
+        return west > east;
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < south || latitude > north) {
+            return false;
+        }
+        return crossesAntimeridian()
+                ? longitude >= west || longitude <= east
+                : longitude >= west && longitude <= east;
+    }
+}
@@ -2,22 +2,52 @@ package com.galacticos.AirportApp.repository;
 
 import com.galacticos.AirportApp.entity.Ticket;
 import com.galacticos.AirportApp.entity.TicketStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
-    List<Ticket> findByOwnerUserIdOrderByPurchaseDateDesc(String ownerUserId);
-
-    List<Ticket> findByOwnerUserIdAndTicketStatusOrderByPurchaseDateDesc(String ownerUserId, TicketStatus status);
-
-    List<Ticket> findByFlightIATAOrderByPurchaseDateDesc(String flightIATA);
-
-    List<Ticket> findByOwnerUserIdAndFlightIATAOrderByPurchaseDateDesc(String ownerUserId, String flightIATA);
+    // Listados paginados por keyset: los tickets anteriores a (purchaseDate, id) en orden
+    // descendente. Cada consulta recorre su índice compuesto de Ticket desde el cursor, así que
+    // el coste de una página no depende de cuántas se hayan leído antes.
+
+    @Query("SELECT t FROM Ticket t WHERE t.ownerUserId = :ownerUserId"
+            + " AND t.purchaseDate <= :purchaseDate AND (t.purchaseDate < :purchaseDate OR t.id < :id)"
+            + " ORDER BY t.purchaseDate DESC, t.id DESC")
+    List<Ticket> findPageByOwnerUserId(@Param("ownerUserId") String ownerUserId,
+                                       @Param("purchaseDate") LocalDateTime purchaseDate,
+                                       @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Ticket t WHERE t.ownerUserId = :ownerUserId AND t.ticketStatus = :status"
+            + " AND t.purchaseDate <= :purchaseDate AND (t.purchaseDate < :purchaseDate OR t.id < :id)"
+            + " ORDER BY t.purchaseDate DESC, t.id DESC")
+    List<Ticket> findPageByOwnerUserIdAndTicketStatus(@Param("ownerUserId") String ownerUserId,
+                                                      @Param("status") TicketStatus status,
+                                                      @Param("purchaseDate") LocalDateTime purchaseDate,
+                                                      @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Ticket t WHERE t.flightIATA = :flightIATA"
+            + " AND t.purchaseDate <= :purchaseDate AND (t.purchaseDate < :purchaseDate OR t.id < :id)"
+            + " ORDER BY t.purchaseDate DESC, t.id DESC")
+    List<Ticket> findPageByFlightIATA(@Param("flightIATA") String flightIATA,
+                                      @Param("purchaseDate") LocalDateTime purchaseDate,
+                                      @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Ticket t WHERE t.ownerUserId = :ownerUserId AND t.flightIATA = :flightIATA"
+            + " AND t.purchaseDate <= :purchaseDate AND (t.purchaseDate < :purchaseDate OR t.id < :id)"
+            + " ORDER BY t.purchaseDate DESC, t.id DESC")
+    List<Ticket> findPageByOwnerUserIdAndFlightIATA(@Param("ownerUserId") String ownerUserId,
+                                                    @Param("flightIATA") String flightIATA,
+                                                    @Param("purchaseDate") LocalDateTime purchaseDate,
+                                                    @Param("id") Long id, Limit limit);
 
     Optional<Ticket> findByBookingReference(String bookingReference);
 
@@ -1,10 +1,40 @@
 package com.galacticos.AirportApp.service;
 
+import com.galacticos.AirportApp.dto.request.FlightQueryRequest;
+import com.galacticos.AirportApp.dto.response.ConnectionResponse;
+import com.galacticos.AirportApp.dto.response.FlightOfferCalendarResponse;
+import com.galacticos.AirportApp.dto.response.FlightOfferResponse;
 import com.galacticos.AirportApp.dto.response.FlightResponse;
+import com.galacticos.AirportApp.dto.response.FlightStatsResponse;
+import com.galacticos.AirportApp.model.FlightRecord;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface FlightService {
 
-    FlightResponse getAllFlights(boolean forceRefresh);
+    FlightResponse<FlightRecord> getAllFlights(boolean forceRefresh, FlightQueryRequest query);
 
-    FlightResponse searchFlightOffers(String origin, String destination, String departureDate, int adults, String cabinClass);
+    // Un vuelo del snapshot por su IATA, con la posición actual si está en el aire
+    FlightRecord getFlight(String iata);
+
+    // Snapshot completo al conectar y después solo los cambios
+    SseEmitter streamFlights();
+
+    // Paneles del aeropuerto ordenados por hora programada, dentro de la ventana [from, to]
+    FlightResponse<FlightRecord> getDepartures(String iata, String from, String to, Integer limit, String cursor);
+
+    FlightResponse<FlightRecord> getArrivals(String iata, String from, String to, Integer limit, String cursor);
+
+    // Itinerarios con escalas de llegada más temprana calculados sobre el snapshot, sin llamadas externas
+    FlightResponse<ConnectionResponse> searchConnections(String origin, String destination, String departAfter, Integer maxLegs);
+
+    // Puntualidad histórica de un vuelo, ruta, aerolínea o aeropuerto (exactamente uno) entre dos días
+    FlightStatsResponse getFlightStats(String flight, String route, String airline, String airport, String from, String to);
+
+    // Ofertas ordenadas por price, duration o departure; limit se queda con las mejores
+    FlightResponse<FlightOfferResponse> searchFlightOffers(String origin, String destination, String departureDate,
+                                                          int adults, String cabinClass, String sort, Integer limit);
+
+    // Precio mínimo de cada día entre departureDate - flexDays y departureDate + flexDays
+    FlightOfferCalendarResponse searchFlexibleOffers(String origin, String destination, String departureDate,
+                                                    int flexDays, int adults, String cabinClass);
 }
@@ -2,6 +2,7 @@ package com.galacticos.AirportApp.service;
 
 import com.galacticos.AirportApp.dto.request.CreateTicketRequest;
 import com.galacticos.AirportApp.dto.request.UpdateTicketRequest;
+import com.galacticos.AirportApp.dto.response.TicketPageResponse;
 import com.galacticos.AirportApp.dto.response.TicketResponse;
 
 import java.util.List;
@@ -14,13 +15,17 @@ public interface TicketService {
 
     TicketResponse getTicketByBookingReference(String bookingReference);
 
-    List<TicketResponse> getTicketsByUser(String ownerUserId);
+    // Listados del más reciente al más antiguo, de limit en limit; cursor es el nextCursor de la página anterior
+    TicketPageResponse getTicketsByUser(String ownerUserId, Integer limit, String cursor);
 
-    List<TicketResponse> getTicketsByUserAndStatus(String ownerUserId, String status);
+    TicketPageResponse getTicketsByUserAndStatus(String ownerUserId, String status, Integer limit, String cursor);
 
-    List<TicketResponse> getTicketsByFlight(String flightIATA);
+    TicketPageResponse getTicketsByFlight(String flightIATA, Integer limit, String cursor);
 
-    List<TicketResponse> getTicketsByUserAndFlight(String ownerUserId, String flightIATA);
+    TicketPageResponse getTicketsByUserAndFlight(String ownerUserId, String flightIATA, Integer limit, String cursor);
+
+    // Añade a cada ticket el estado en vivo de su vuelo desde el snapshot en memoria (sin llamadas externas)
+    List<TicketResponse> withLiveStatus(List<TicketResponse> tickets);
 
     TicketResponse updateTicket(Long id, UpdateTicketRequest request);
 
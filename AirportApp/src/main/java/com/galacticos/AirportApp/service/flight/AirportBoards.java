@@ -0,0 +1,171 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.model.FlightChanges;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.model.FlightTimes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Paneles de salidas y llegadas por aeropuerto: para cada aeropuerto, una skip list de sus
+// vuelos ordenados por hora programada (y clave, para desempatar). Una carga completa
+// reconstruye los paneles y los publica de golpe; los cambios de estado y retrasos solo mueven
+// los vuelos que cambiaron. Una consulta localiza el inicio de la ventana en O(log n) y
+// después solo recorre las filas que devuelve.
+@Component
+@RequiredArgsConstructor
+public class AirportBoards {
+
+    private final FlightVersionHistory versionHistory;
+
+    private volatile Boards boards = new Boards();
+    // Versión del snapshot que reflejan los paneles. Protegido por this.
+    private long version = -1;
+
+    public enum Direction {
+        DEPARTURES, ARRIVALS
+    }
+
+    // Sincronizado: los cambios se aplican de uno en uno. Va antes que FlightStatusEngine, cuyos
+    // cambios de estado llegan como eventos anidados; aun así no depende del orden: un evento
+    // más antiguo que los paneles se ignora, y uno que no parte de su versión los reconstruye
+    @EventListener
+    @Order(3)
+    public synchronized void onSnapshotChanged(FlightSnapshotChangedEvent event) {
+        FlightSnapshot snapshot = event.current();
+        if (snapshot.getVersion() <= version) {
+            return;
+        }
+        if (event.reloaded() || event.previous() == null || event.previous().getVersion() != version) {
+            Boards rebuilt = new Boards();
+            snapshot.getFlights().forEach(rebuilt::put);
+            boards = rebuilt;
+        } else {
+            FlightChanges changes = versionHistory.changesOf(event);
+            Boards current = boards;
+            changes.removed().forEach(current::remove);
+            changes.added().forEach(current::put);
+            changes.updated().forEach(current::put);
+        }
+        version = snapshot.getVersion();
+    }
+
+    // Filas del panel entre fromEpoch y toEpoch (incluidos), como mucho limit, a partir del cursor si lo hay
+    public Page board(String iata, Direction direction, long fromEpoch, long toEpoch, int limit, String cursor) {
+        NavigableMap<Slot, FlightRecord> board = boards.of(direction).get(iata);
+        if (board == null) {
+            return new Page(List.of(), null);
+        }
+        NavigableMap<Slot, FlightRecord> window = cursor != null
+                ? board.tailMap(Slot.decode(cursor), false)
+                : board.tailMap(new Slot(fromEpoch, ""), true);
+
+        List<FlightRecord> rows = new ArrayList<>(Math.min(limit, 64));
+        Slot last = null;
+        for (Map.Entry<Slot, FlightRecord> entry : window.entrySet()) {
+            if (entry.getKey().time() > toEpoch) {
+                return new Page(rows, null);
+            }
+            if (rows.size() == limit) {
+                return new Page(rows, last.encode());
+            }
+            rows.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page(rows, null);
+    }
+
+    public record Page(List<FlightRecord> flights, String nextCursor) {
+    }
+
+    private static final class Boards {
+
+        private final Map<String, FlightRecord> byKey = new ConcurrentHashMap<>();
+        private final Map<String, ConcurrentSkipListMap<Slot, FlightRecord>> departures = new ConcurrentHashMap<>();
+        private final Map<String, ConcurrentSkipListMap<Slot, FlightRecord>> arrivals = new ConcurrentHashMap<>();
+
+        Map<String, ConcurrentSkipListMap<Slot, FlightRecord>> of(Direction direction) {
+            return direction == Direction.DEPARTURES ? departures : arrivals;
+        }
+
+        void put(FlightRecord flight) {
+            if (flight.getKey() == null) {
+                return;
+            }
+            FlightRecord previous = byKey.put(flight.getKey(), flight);
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(departures, flight.getDeparture(), flight);
+            link(arrivals, flight.getArrival(), flight);
+        }
+
+        void remove(String key) {
+            FlightRecord previous = byKey.remove(key);
+            if (previous != null) {
+                unlink(previous);
+            }
+        }
+
+        private void unlink(FlightRecord flight) {
+            unlink(departures, flight.getDeparture(), flight.getKey());
+            unlink(arrivals, flight.getArrival(), flight.getKey());
+        }
+
+        private static void link(Map<String, ConcurrentSkipListMap<Slot, FlightRecord>> boards,
+                                 FlightRecord.Endpoint endpoint, FlightRecord flight) {
+            if (endpoint == null || endpoint.getIata() == null || endpoint.getScheduledEpoch() == FlightTimes.NONE) {
+                return;
+            }
+            boards.computeIfAbsent(endpoint.getIata(), iata -> new ConcurrentSkipListMap<>())
+                    .put(new Slot(endpoint.getScheduledEpoch(), flight.getKey()), flight);
+        }
+
+        private static void unlink(Map<String, ConcurrentSkipListMap<Slot, FlightRecord>> boards,
+                                   FlightRecord.Endpoint endpoint, String key) {
+            if (endpoint == null || endpoint.getIata() == null || endpoint.getScheduledEpoch() == FlightTimes.NONE) {
+                return;
+            }
+            ConcurrentSkipListMap<Slot, FlightRecord> board = boards.get(endpoint.getIata());
+            if (board != null) {
+                board.remove(new Slot(endpoint.getScheduledEpoch(), key));
+            }
+        }
+    }
+
+    // Posición en el panel: hora programada y clave del vuelo. También es el cursor (opaco) de la página siguiente
+    private record Slot(long time, String key) implements Comparable<Slot> {
+
+        @Override
+        public int compareTo(Slot other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : key.compareTo(other.key);
+        }
+
+        String encode() {
+            String raw = time + ":" + key;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Slot decode(String encoded) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new Slot(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + encoded);
+            }
+        }
+    }
+}
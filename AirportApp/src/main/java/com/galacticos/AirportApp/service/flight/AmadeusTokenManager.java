@@ -0,0 +1,143 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.client.AmadeusClient;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Token OAuth de Amadeus compartido por todas las búsquedas. Las lecturas son una simple
+// lectura atómica; solo se bloquea cuando no hay token válido y, aun así, una única petición
+// pide el token nuevo mientras las demás esperan a ese resultado. Antes de que caduque se
+// renueva en segundo plano para que ninguna búsqueda tenga que pagar la latencia del login.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AmadeusTokenManager {
+
+    // Margen respecto a expires_in: se renueva 5 minutos antes y se deja de usar 30 s antes
+    private static final long REFRESH_MARGIN_MS = 300_000;
+    private static final long EXPIRY_MARGIN_MS = 30_000;
+    private static final long RETRY_DELAY_MS = 30_000;
+
+    private final AmadeusClient amadeusClient;
+
+    private final AtomicReference<AccessToken> token = new AtomicReference<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "amadeus-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Si no se ha usado el token desde la última renovación no se renueva en segundo plano
+    private volatile boolean usedSinceRefresh;
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public String getToken() {
+        usedSinceRefresh = true;
+        AccessToken current = token.get();
+        if (current != null && current.isValid(System.currentTimeMillis())) {
+            return current.value();
+        }
+        return refresh(current, false).value();
+    }
+
+    // Descarta el token solo si sigue siendo el que rechazó Amadeus (otro hilo puede haberlo renovado ya)
+    public void invalidate(String rejected) {
+        AccessToken current = token.get();
+        if (current != null && current.value().equals(rejected) && token.compareAndSet(current, null)) {
+            log.info("Token de Amadeus invalidado");
+        }
+    }
+
+    // Ejecuta la llamada con el token actual; si Amadeus responde 401 se invalida y se reintenta una vez
+    public <T> T execute(Function<String, T> call) {
+        String current = getToken();
+        try {
+            return call.apply(current);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            log.warn("Amadeus rechazó el token (401), renovando y reintentando");
+            invalidate(current);
+            return call.apply(getToken());
+        }
+    }
+
+    private AccessToken refresh(AccessToken seen, boolean proactive) {
+        refreshLock.lock();
+        try {
+            // Otro hilo ha podido renovarlo mientras esperábamos el lock
+            AccessToken current = token.get();
+            if (current != seen && current != null && current.isValid(System.currentTimeMillis())) {
+                return current;
+            }
+            AccessToken fresh = requestToken();
+            token.set(fresh);
+            usedSinceRefresh = !proactive;
+            scheduleRefresh(fresh, fresh.refreshAt() - System.currentTimeMillis());
+            return fresh;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void scheduleRefresh(AccessToken expected, long delayMs) {
+        scheduler.schedule(() -> refreshAhead(expected), Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshAhead(AccessToken expected) {
+        if (token.get() != expected) {
+            return;
+        }
+        if (!usedSinceRefresh) {
+            log.debug("Token de Amadeus sin uso, no se renueva por adelantado");
+            return;
+        }
+        try {
+            refresh(expected, true);
+            log.debug("Token de Amadeus renovado por adelantado");
+        } catch (Exception e) {
+            // Mientras el token actual siga siendo válido se vuelve a intentar más tarde
+            log.warn("Error renovando el token de Amadeus: {}", e.getMessage());
+            if (expected.isValid(System.currentTimeMillis() + RETRY_DELAY_MS)) {
+                scheduleRefresh(expected, RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private AccessToken requestToken() {
+        log.info("Obteniendo token de Amadeus...");
+
+        Map<?, ?> payload = amadeusClient.requestToken();
+        if (payload == null || !(payload.get("access_token") instanceof String value)) {
+            throw new IllegalStateException("Respuesta de token de Amadeus sin access_token");
+        }
+        long expiresInMs = payload.get("expires_in") instanceof Number number ? number.longValue() * 1000 : 0;
+        long now = System.currentTimeMillis();
+        long expiresAt = now + Math.max(0, expiresInMs - EXPIRY_MARGIN_MS);
+        // Con tokens muy cortos se renueva a mitad de vida
+        long refreshAt = expiresInMs > 2 * REFRESH_MARGIN_MS ? now + expiresInMs - REFRESH_MARGIN_MS : now + expiresInMs / 2;
+
+        log.info("Token de Amadeus obtenido (caduca en {} s)", expiresInMs / 1000);
+        return new AccessToken(value, expiresAt, refreshAt);
+    }
+
+    private record AccessToken(String value, long expiresAt, long refreshAt) {
+        boolean isValid(long now) {
+            return now < expiresAt;
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightChanges;
+import com.galacticos.AirportApp.model.FlightDelayStats;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightStatus;
+import com.galacticos.AirportApp.model.FlightTimes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Histórico de vuelos para estadísticas de puntualidad. Cada carga añade todos sus vuelos y
+// cada cambio posterior (estados, retrasos) los vuelos que cambiaron, en un log solo de
+// escritura con una partición por día de vuelo (flights-YYYY-MM-DD.log.gz). Cada escritura es un
+// miembro gzip nuevo al final del fichero: GZIPInputStream lee los miembros seguidos como un
+// único flujo, así que nunca se reescribe lo anterior.
+// De cada vuelo cuenta su último registro del día. Los días ya cerrados (más de open-days)
+// se resumen una vez en un agregado por dimensión (flights-YYYY-MM-DD.route.agg.gz...) y las
+// consultas de meses solo leen el agregado de la dimensión pedida; los días abiertos se
+// agregan en memoria mientras su log no crezca.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightArchive {
+
+    private static final int RECORD = 1;
+    private static final int AGGREGATE_FORMAT = 1;
+    private static final String LOG_SUFFIX = ".log.gz";
+    private static final String AGGREGATE_SUFFIX = ".agg.gz";
+    private static final int DIMENSIONS = Dimension.values().length;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final FlightProperties flightProperties;
+    private final FlightVersionHistory versionHistory;
+    private final MeterRegistry meterRegistry;
+
+    // Registros pendientes de escribir. Protegido por this.
+    private List<ArchivedFlight> pending = new ArrayList<>();
+    // Agregados por día y dimensión ya calculados, con el tamaño del log del que salieron. Protegido por cache.
+    private final LinkedHashMap<PartitionKey, Partition> cache = new LinkedHashMap<>(64, 0.75f, true);
+    // Serializa las escrituras de logs y agregados
+    private final Object fileLock = new Object();
+
+    private Counter archived;
+
+    @PostConstruct
+    public void registerMetrics() {
+        archived = meterRegistry.counter("flights.archive.records");
+    }
+
+    public enum Dimension {
+        FLIGHT, ROUTE, AIRLINE, AIRPORT
+    }
+
+    @EventListener
+    @Order(4)
+    public void onSnapshotChanged(FlightSnapshotChangedEvent event) {
+        FlightProperties.ArchiveConfig config = flightProperties.getArchive();
+        if (!config.isEnabled() || (!config.isIncludeMock() && event.current().getSource().startsWith("mock"))) {
+            return;
+        }
+        List<FlightRecord> flights;
+        if (event.reloaded()) {
+            flights = event.current().getFlights();
+        } else {
+            FlightChanges changes = versionHistory.changesOf(event);
+            flights = new ArrayList<>(changes.added());
+            flights.addAll(changes.updated());
+        }
+
+        long now = System.currentTimeMillis();
+        List<ArchivedFlight> records = new ArrayList<>(flights.size());
+        for (FlightRecord flight : flights) {
+            ArchivedFlight record = ArchivedFlight.of(flight, now);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        synchronized (this) {
+            pending.addAll(records);
+        }
+    }
+
+    // Escribe lo pendiente: un miembro gzip por partición afectada
+    @Scheduled(fixedDelayString = "${flights.archive.flush-interval-ms:60000}")
+    public void flush() {
+        List<ArchivedFlight> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+
+        Map<LocalDate, List<ArchivedFlight>> byDay = new TreeMap<>();
+        for (ArchivedFlight record : batch) {
+            byDay.computeIfAbsent(LocalDate.ofEpochDay(record.epochDay()), day -> new ArrayList<>()).add(record);
+        }
+        synchronized (fileLock) {
+            byDay.forEach((day, records) -> {
+                Path file = logFile(day);
+                try {
+                    Files.createDirectories(file.getParent());
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(
+                            Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND))))) {
+                        for (ArchivedFlight record : records) {
+                            record.write(out);
+                        }
+                    }
+                    archived.increment(records.size());
+                } catch (IOException e) {
+                    log.warn("No se pudieron archivar {} vuelos en {}: {}", records.size(), file, e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Agrega los días cerrados que aún no tienen agregado (o cuyo log cambió) y borra los antiguos
+    @Scheduled(fixedDelayString = "${flights.archive.aggregate-interval-ms:3600000}",
+            initialDelayString = "${flights.archive.flush-interval-ms:60000}")
+    public void maintain() {
+        FlightProperties.ArchiveConfig config = flightProperties.getArchive();
+        LocalDate today = LocalDate.now(ZONE);
+        for (LocalDate day : partitions()) {
+            if (day.isBefore(today.minusDays(config.getRetentionDays()))) {
+                delete(day);
+            } else if (isClosed(day)) {
+                aggregateIfMissing(day);
+            }
+        }
+    }
+
+    // Solo se mira la cabecera de los agregados: si falta alguno se recalculan todos desde el log
+    private void aggregateIfMissing(LocalDate day) {
+        try {
+            long size = Files.size(logFile(day));
+            for (Dimension dimension : Dimension.values()) {
+                if (!hasAggregate(day, dimension, size)) {
+                    aggregates(day, dimension);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo agregar el archivo de vuelos del {}: {}", day, e.getMessage());
+        }
+    }
+
+    private boolean hasAggregate(LocalDate day, Dimension dimension, long logSize) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(aggregateFile(day, dimension))))) {
+            return in.readInt() == AGGREGATE_FORMAT && in.readLong() == logSize;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Puntualidad de un vuelo, ruta (MAD-BCN), aerolínea o aeropuerto entre dos días incluidos
+    public FlightDelayStats stats(Dimension dimension, String value, LocalDate from, LocalDate to) {
+        String key = value.trim().toUpperCase();
+        FlightDelayStats total = new FlightDelayStats();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            FlightDelayStats partial = aggregates(day, dimension).get(key);
+            if (partial != null) {
+                total.merge(partial);
+            }
+        }
+        return total;
+    }
+
+    private Map<String, FlightDelayStats> aggregates(LocalDate day, Dimension dimension) {
+        Path file = logFile(day);
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            return Map.of();
+        }
+        PartitionKey key = new PartitionKey(day, dimension);
+        boolean closed = isClosed(day);
+        synchronized (cache) {
+            Partition cached = cache.get(key);
+            // Un día que se cerró después de calcularse en memoria aún tiene que escribir su agregado
+            if (cached != null && cached.logSize() == size && (cached.stored() || !closed)) {
+                return cached.stats();
+            }
+        }
+
+        Map<String, FlightDelayStats> stats = closed ? readAggregate(day, dimension, size) : null;
+        if (stats != null) {
+            cache(key, new Partition(size, stats, true));
+            return stats;
+        }
+
+        // Sin agregado válido se lee el log una vez y se calculan todas las dimensiones
+        List<Map<String, FlightDelayStats>> all = aggregate(readLog(file));
+        for (Dimension each : Dimension.values()) {
+            boolean stored = closed && writeAggregate(day, each, size, all.get(each.ordinal()));
+            cache(new PartitionKey(day, each), new Partition(size, all.get(each.ordinal()), stored));
+        }
+        return all.get(dimension.ordinal());
+    }
+
+    private void cache(PartitionKey key, Partition partition) {
+        synchronized (cache) {
+            cache.put(key, partition);
+            Iterator<PartitionKey> eldest = cache.keySet().iterator();
+            while (cache.size() > flightProperties.getArchive().getCachedPartitions() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    // Último registro de cada vuelo del día; los que aún no han salido no cuentan.
+    // Devuelve un mapa por dimensión, en el orden de Dimension.
+    private static List<Map<String, FlightDelayStats>> aggregate(List<ArchivedFlight> records) {
+        Map<String, ArchivedFlight> latest = new HashMap<>();
+        for (ArchivedFlight record : records) {
+            latest.merge(record.flightKey(), record,
+                    (current, candidate) -> candidate.archivedAt() >= current.archivedAt() ? candidate : current);
+        }
+        List<Map<String, FlightDelayStats>> stats = new ArrayList<>(DIMENSIONS);
+        for (int i = 0; i < DIMENSIONS; i++) {
+            stats.add(new HashMap<>());
+        }
+        for (ArchivedFlight record : latest.values()) {
+            if (record.status() == FlightStatus.SCHEDULED || record.status() == FlightStatus.UNKNOWN) {
+                continue;
+            }
+            record.forEachKey((dimension, key) -> stats.get(dimension.ordinal())
+                    .computeIfAbsent(key, k -> new FlightDelayStats())
+                    .add(record.status(), record.delayMinutes()));
+        }
+        return stats;
+    }
+
+    private List<ArchivedFlight> readLog(Path file) {
+        List<ArchivedFlight> records = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))))) {
+            int marker;
+            while ((marker = in.read()) == RECORD) {
+                records.add(ArchivedFlight.read(in));
+            }
+        } catch (NoSuchFileException e) {
+            // Día sin vuelos archivados
+        } catch (IOException e) {
+            // Un corte a mitad de escritura deja el último miembro incompleto: vale lo leído hasta ahí
+            log.warn("Archivo de vuelos {} incompleto, se usan {} registros: {}", file, records.size(), e.getMessage());
+        }
+        return records;
+    }
+
+    private Map<String, FlightDelayStats> readAggregate(LocalDate day, Dimension dimension, long logSize) {
+        Path file = aggregateFile(day, dimension);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != AGGREGATE_FORMAT || in.readLong() != logSize) {
+                return null;
+            }
+            int count = in.readInt();
+            Map<String, FlightDelayStats> stats = HashMap.newHashMap(count);
+            for (int i = 0; i < count; i++) {
+                stats.put(in.readUTF(), FlightDelayStats.read(in));
+            }
+            return stats;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Agregado de vuelos {} ilegible, se recalcula: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean writeAggregate(LocalDate day, Dimension dimension, long logSize, Map<String, FlightDelayStats> stats) {
+        Path file = aggregateFile(day, dimension);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        synchronized (fileLock) {
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                    out.writeInt(AGGREGATE_FORMAT);
+                    out.writeLong(logSize);
+                    out.writeInt(stats.size());
+                    for (Map.Entry<String, FlightDelayStats> entry : stats.entrySet()) {
+                        out.writeUTF(entry.getKey());
+                        entry.getValue().write(out);
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.debug("Agregado el archivo de vuelos del {} por {} ({} claves)", day, dimension, stats.size());
+                return true;
+            } catch (IOException e) {
+                log.warn("No se pudo guardar el agregado de vuelos {}: {}", file, e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private void delete(LocalDate day) {
+        synchronized (fileLock) {
+            try {
+                Files.deleteIfExists(logFile(day));
+                for (Dimension dimension : Dimension.values()) {
+                    Files.deleteIfExists(aggregateFile(day, dimension));
+                }
+                log.info("Eliminado el archivo de vuelos del {}", day);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el archivo de vuelos del {}: {}", day, e.getMessage());
+            }
+        }
+        synchronized (cache) {
+            cache.keySet().removeIf(key -> key.day().equals(day));
+        }
+    }
+
+    private List<LocalDate> partitions() {
+        Path directory = directory();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("flights-") && name.endsWith(LOG_SUFFIX))
+                    .map(name -> LocalDate.parse(name.substring("flights-".length(), name.length() - LOG_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo listar el archivo de vuelos {}: {}", directory, e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Un día está cerrado cuando sus vuelos ya no pueden cambiar de estado
+    private boolean isClosed(LocalDate day) {
+        return ChronoUnit.DAYS.between(day, LocalDate.now(ZONE)) >= flightProperties.getArchive().getOpenDays();
+    }
+
+    private Path directory() {
+        return Path.of(flightProperties.getArchive().getDirectory());
+    }
+
+    private Path logFile(LocalDate day) {
+        return directory().resolve("flights-" + day + LOG_SUFFIX);
+    }
+
+    private Path aggregateFile(LocalDate day, Dimension dimension) {
+        return directory().resolve("flights-" + day + "." + dimension.name().toLowerCase() + AGGREGATE_SUFFIX);
+    }
+
+    private record PartitionKey(LocalDate day, Dimension dimension) {
+    }
+
+    // stored: el agregado de este día y dimensión ya está escrito en disco
+    private record Partition(long logSize, Map<String, FlightDelayStats> stats, boolean stored) {
+    }
+
+    // Lo mínimo de un vuelo para la puntualidad: identificación, ruta, estado y retraso
+    private record ArchivedFlight(long epochDay, String flightIata, String airlineIata, String departureIata,
+                                  String arrivalIata, FlightStatus status, int delayMinutes, long archivedAt) {
+
+        static ArchivedFlight of(FlightRecord flight, long archivedAt) {
+            if (flight.getKey() == null) {
+                return null;
+            }
+            long epochDay = flight.getFlightDateEpochDay();
+            if (epochDay == FlightTimes.NONE) {
+                if (flight.getDeparture() == null || flight.getDeparture().getScheduledEpoch() == FlightTimes.NONE) {
+                    return null;
+                }
+                epochDay = Instant.ofEpochSecond(flight.getDeparture().getScheduledEpoch()).atZone(ZONE).toLocalDate().toEpochDay();
+            }
+            return new ArchivedFlight(epochDay, flight.getKey(),
+                    flight.getAirline() != null ? flight.getAirline().getIata() : null,
+                    flight.getDeparture() != null ? flight.getDeparture().getIata() : null,
+                    flight.getArrival() != null ? flight.getArrival().getIata() : null,
+                    flight.getStatus() != null ? flight.getStatus() : FlightStatus.UNKNOWN,
+                    delayMinutes(flight), archivedAt);
+        }
+
+        // Retraso en llegada si se conoce y, si no, en salida
+        private static int delayMinutes(FlightRecord flight) {
+            Integer arrival = delayOf(flight.getArrival());
+            if (arrival != null) {
+                return arrival;
+            }
+            Integer departure = delayOf(flight.getDeparture());
+            return departure != null ? departure : 0;
+        }
+
+        private static Integer delayOf(FlightRecord.Endpoint endpoint) {
+            if (endpoint == null) {
+                return null;
+            }
+            if (endpoint.getDelay() != null) {
+                return endpoint.getDelay();
+            }
+            long observed = endpoint.getActualEpoch() != FlightTimes.NONE ? endpoint.getActualEpoch() : endpoint.getEstimatedEpoch();
+            if (observed == FlightTimes.NONE || endpoint.getScheduledEpoch() == FlightTimes.NONE) {
+                return null;
+            }
+            return (int) ((observed - endpoint.getScheduledEpoch()) / 60);
+        }
+
+        String flightKey() {
+            return flightIata + "/" + departureIata;
+        }
+
+        // Un vuelo cuenta para su número, aerolínea, ruta y los dos aeropuertos
+        void forEachKey(BiConsumer<Dimension, String> action) {
+            action.accept(Dimension.FLIGHT, flightIata);
+            if (airlineIata != null) {
+                action.accept(Dimension.AIRLINE, airlineIata);
+            }
+            if (departureIata != null) {
+                action.accept(Dimension.AIRPORT, departureIata);
+            }
+            if (arrivalIata != null) {
+                action.accept(Dimension.AIRPORT, arrivalIata);
+            }
+            if (departureIata != null && arrivalIata != null) {
+                action.accept(Dimension.ROUTE, departureIata + "-" + arrivalIata);
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(RECORD);
+            out.writeInt((int) epochDay);
+            out.writeUTF(flightIata);
+            out.writeUTF(airlineIata != null ? airlineIata : "");
+            out.writeUTF(departureIata != null ? departureIata : "");
+            out.writeUTF(arrivalIata != null ? arrivalIata : "");
+            out.writeUTF(status.getValue());
+            out.writeInt(delayMinutes);
+            out.writeLong(archivedAt);
+        }
+
+        static ArchivedFlight read(DataInputStream in) throws IOException {
+            return new ArchivedFlight(in.readInt(), in.readUTF(), emptyToNull(in.readUTF()), emptyToNull(in.readUTF()),
+                    emptyToNull(in.readUTF()), FlightStatus.fromValue(in.readUTF()), in.readInt(), in.readLong());
+        }
+
+        private static String emptyToNull(String value) {
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.client.AviationStackClient;
+import com.galacticos.AirportApp.config.ApiProperties;
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.AirportRegistry;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.model.FlightStatus;
+import com.galacticos.AirportApp.model.FlightTimes;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Obtiene un snapshot nuevo de vuelos: AviationStack si hay API key, datos mock si no
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightDataLoader {
+
+    private final AviationStackClient aviationStackClient;
+    private final ApiProperties apiProperties;
+    private final FlightProperties flightProperties;
+
+    // Origen de los snapshots de AviationStack, que después se mantienen al día hub a hub
+    public static final String AVIATIONSTACK_SOURCE = "aviationstack-api";
+
+    // Salidas pedidas por hub, tanto en una carga completa como al mezclar un hub
+    private static final int FLIGHTS_PER_HUB = 15;
+
+    // Hilos virtuales para consultar los hubs de AviationStack en paralelo
+    private final ExecutorService hubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Hora (epoch ms) de la consulta de cada hub cuyos vuelos están en el snapshot, para
+    // priorizar los más desactualizados
+    private final Map<String, Long> hubFetchedAt = new ConcurrentHashMap<>();
+
+    // Rutas de los datos mock: aeropuertos como índice del registro y aerolínea
+    private static final List<MockRoute> MOCK_ROUTES = List.of(
+            MockRoute.of("MAD", "BCN", "Iberia", "IB"),
+            MockRoute.of("LHR", "CDG", "British Airways", "BA"),
+            MockRoute.of("FRA", "AMS", "Lufthansa", "LH"),
+            MockRoute.of("FCO", "MUC", "Alitalia", "AZ"),
+            MockRoute.of("BCN", "LIS", "Vueling", "VY"),
+            MockRoute.of("MAD", "LHR", "Iberia", "IB"),
+            MockRoute.of("CDG", "FCO", "Air France", "AF"),
+            MockRoute.of("AMS", "VIE", "KLM", "KL"),
+            MockRoute.of("MUC", "ZRH", "Lufthansa", "LH"),
+            MockRoute.of("LIS", "MAD", "TAP Portugal", "TP"),
+            MockRoute.of("BCN", "FRA", "Vueling", "VY"),
+            MockRoute.of("LHR", "AMS", "British Airways", "BA"),
+            MockRoute.of("VIE", "PRG", "Austrian", "OS"),
+            MockRoute.of("CPH", "ARN", "SAS", "SK"),
+            MockRoute.of("DUB", "EDI", "Ryanair", "FR"),
+            MockRoute.of("ATH", "FCO", "Aegean", "A3"),
+            MockRoute.of("WAW", "BER", "LOT", "LO"),
+            MockRoute.of("BRU", "GVA", "Brussels Airlines", "SN"),
+            MockRoute.of("HEL", "OSL", "Finnair", "AY"),
+            MockRoute.of("PMI", "DUS", "Eurowings", "EW")
+    );
+
+    public FlightSnapshot load() {
+        // Detectar automáticamente si hay API key de AviationStack
+        if (!apiProperties.hasValidAviationstackKey()) {
+            log.info("⚠️ No hay API key de AviationStack configurada - Usando datos MOCK");
+            return new FlightSnapshot(mockFlights(), "mock-data");
+        }
+
+        // Obtener datos reales de AviationStack. Si falla, FlightSnapshotCache decide el fallback:
+        // el último snapshot bueno si lo hay y, si no, fallback()
+        log.info("✅ API key de AviationStack detectada - Obteniendo vuelos reales");
+        return new FlightSnapshot(fetchFromAviationStack(), AVIATIONSTACK_SOURCE);
+    }
+
+    // Los snapshots de AviationStack no se recargan enteros al caducar: HubPollScheduler los
+    // mantiene al día consultando un hub cada vez
+    public boolean refreshesIncrementally(FlightSnapshot snapshot) {
+        return AVIATIONSTACK_SOURCE.equals(snapshot.getSource()) && apiProperties.hasValidAviationstackKey();
+    }
+
+    public FlightSnapshot fallback() {
+        return new FlightSnapshot(mockFlights(), "mock-fallback");
+    }
+
+    // Consulta los hubs en paralelo (hilos virtuales) con un timeout por hub y un plazo global.
+    // Un hub que falla o agota su tiempo se sustituye por uno de reserva mientras quede plazo,
+    // y en cuanto se alcanza el objetivo de vuelos se cancelan las peticiones pendientes.
+    private List<FlightRecord> fetchFromAviationStack() {
+        ApiProperties.AviationstackConfig config = apiProperties.getAviationstack();
+        Deque<String> hubs = new ArrayDeque<>(rankHubs(Math.max(config.getMaxHubRequests(), config.getHubsPerRefresh())));
+        long hubTimeout = TimeUnit.MILLISECONDS.toNanos(config.getHubTimeoutMs());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getRefreshDeadlineMs());
+
+        CompletionService<List<FlightRecord>> completion = new ExecutorCompletionService<>(hubExecutor);
+        Map<Future<List<FlightRecord>>, HubRequest> inFlight = new HashMap<>();
+        List<FlightRecord> allFlights = new ArrayList<>();
+        Map<String, Long> fetchedAt = new HashMap<>();
+        int failedHubs = 0;
+
+        log.info("Consultando vuelos desde: {}", hubs.stream().limit(config.getHubsPerRefresh()).toList());
+
+        for (int i = 0; i < config.getHubsPerRefresh() && !hubs.isEmpty(); i++) {
+            submitHub(completion, inFlight, hubs.poll(), hubTimeout);
+        }
+
+        try {
+            while (!inFlight.isEmpty() && allFlights.size() < config.getTargetFlights()) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    log.warn("Plazo global agotado con {} hubs pendientes", inFlight.size());
+                    break;
+                }
+
+                // Cancelar los hubs que han superado su timeout y sustituirlos por uno de reserva
+                long nextExpiry = deadline;
+                for (Iterator<Map.Entry<Future<List<FlightRecord>>, HubRequest>> it = inFlight.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<Future<List<FlightRecord>>, HubRequest> entry = it.next();
+                    if (entry.getValue().expiresAt() <= now) {
+                        log.warn("Timeout consultando {}", entry.getValue().hub());
+                        failedHubs++;
+                        entry.getKey().cancel(true);
+                        it.remove();
+                    } else {
+                        nextExpiry = Math.min(nextExpiry, entry.getValue().expiresAt());
+                    }
+                }
+                while (inFlight.size() < config.getHubsPerRefresh() && !hubs.isEmpty()
+                        && deadline - now > hubTimeout / 2) {
+                    submitHub(completion, inFlight, hubs.poll(), hubTimeout);
+                    nextExpiry = Math.min(nextExpiry, now + hubTimeout);
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+
+                Future<List<FlightRecord>> done = completion.poll(nextExpiry - now, TimeUnit.NANOSECONDS);
+                HubRequest request = done != null ? inFlight.remove(done) : null;
+                if (request == null) {
+                    continue;
+                }
+
+                try {
+                    List<FlightRecord> flights = done.get();
+                    allFlights.addAll(flights);
+                    fetchedAt.put(request.hub(), System.currentTimeMillis());
+                    log.info("Obtenidos {} vuelos desde {}", flights.size(), request.hub());
+                } catch (ExecutionException e) {
+                    log.warn("Error consultando {}: {}", request.hub(), e.getCause().getMessage());
+                    failedHubs++;
+                    if (!hubs.isEmpty()) {
+                        submitHub(completion, inFlight, hubs.poll(), hubTimeout);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.keySet().forEach(future -> future.cancel(true));
+        }
+
+        // Sin ningún vuelo y con hubs fallidos es un fallo del proveedor, no un día sin vuelos
+        if (allFlights.isEmpty() && failedHubs > 0) {
+            throw new RestClientException("Ningún hub de AviationStack respondió (" + failedHubs + " fallidos)");
+        }
+
+        // La carga sustituye al snapshot entero: solo cuentan como consultados los hubs que
+        // están en ella. Sin recorte de vuelos, igual que al mezclar un hub (hasta 15 por hub)
+        hubFetchedAt.clear();
+        hubFetchedAt.putAll(fetchedAt);
+        return adaptFlightsToToday(allFlights);
+    }
+
+    private void submitHub(CompletionService<List<FlightRecord>> completion,
+                           Map<Future<List<FlightRecord>>, HubRequest> inFlight,
+                           String hub, long hubTimeout) {
+        Future<List<FlightRecord>> future = completion.submit(() -> fetchHub(hub));
+        inFlight.put(future, new HubRequest(hub, System.nanoTime() + hubTimeout));
+    }
+
+    // Refresco incremental: consulta solo el hub más prioritario (null si no hay API key)
+    public HubFlights fetchNextHub() {
+        if (!apiProperties.hasValidAviationstackKey()) {
+            return null;
+        }
+        String hub = rankHubs(1).getFirst();
+        List<FlightRecord> flights = adaptFlightsToToday(fetchHub(hub));
+        hubFetchedAt.put(hub, System.currentTimeMillis());
+        log.info("Refresco incremental: {} vuelos desde {}", flights.size(), hub);
+        return new HubFlights(hub, flights);
+    }
+
+    private List<FlightRecord> fetchHub(String hub) {
+        // Solo se construyen los vuelos con llegada a un aeropuerto europeo
+        return aviationStackClient.getDepartures(hub, FLIGHTS_PER_HUB, AirportRegistry::isEuropean);
+    }
+
+    // Hubs europeos ordenados por tráfico x antigüedad de sus datos (limitada a hub-max-age-ms):
+    // los grandes se refrescan más a menudo, pero ninguno se queda sin refrescar
+    private List<String> rankHubs(int count) {
+        long now = System.currentTimeMillis();
+        long maxAge = apiProperties.getAviationstack().getHubMaxAgeMs();
+        return AirportRegistry.codesIn(AirportRegistry.Region.EUROPE).stream()
+                .sorted(Comparator.comparingDouble((String hub) -> {
+                    long age = Math.min(maxAge, now - hubFetchedAt.getOrDefault(hub, 0L));
+                    return (double) AirportRegistry.trafficWeight(AirportRegistry.indexOf(hub)) * age;
+                }).reversed())
+                .limit(count)
+                .toList();
+    }
+
+    private List<FlightRecord> mockFlights() {
+        FlightProperties.MockConfig mock = flightProperties.getMock();
+        if (mock.getGenerator() == FlightProperties.MockConfig.Generator.SYNTHETIC) {
+            log.info("Generando {} vuelos sintéticos (semilla {})", mock.getFlights(), mock.getSeed());
+            return MockFlightGenerator.generate(mock.getSeed(), mock.getFlights(), LocalDate.now(),
+                    System.currentTimeMillis() / 1000);
+        }
+        return generateMockFlights();
+    }
+
+    private List<FlightRecord> generateMockFlights() {
+        List<FlightRecord> flights = new ArrayList<>();
+
+        LocalTime now = LocalTime.now();
+        LocalDate today = LocalDate.now();
+        Random random = new Random(); // Sin seed para variación
+
+        // Distribuir vuelos: ~7 aterrizados, ~6 en curso, ~7 programados
+        for (int i = 0; i < MOCK_ROUTES.size(); i++) {
+            MockRoute route = MOCK_ROUTES.get(i);
+            
+            // Calcular horarios RELATIVOS a la hora actual
+            LocalTime depTime;
+            LocalTime arrTime;
+            FlightStatus status;
+            int flightDuration = 1 + (i % 3); // 1-3 horas de duración
+            
+            if (i < 7) {
+                // ATERRIZADOS: Salieron hace 2-5 horas, ya llegaron
+                int hoursAgo = 2 + (i % 4);
+                depTime = now.minusHours(hoursAgo).minusMinutes(random.nextInt(30));
+                arrTime = depTime.plusHours(flightDuration).plusMinutes(random.nextInt(30));
+                status = FlightStatus.LANDED;
+            } else if (i < 13) {
+                // EN CURSO: Salieron hace 0-2 horas, llegarán en 0-2 horas
+                int minutesAgo = 15 + (i - 7) * 20 + random.nextInt(15);
+                depTime = now.minusMinutes(minutesAgo);
+                arrTime = now.plusMinutes(10 + (i - 7) * 15 + random.nextInt(20));
+                status = FlightStatus.ACTIVE;
+            } else {
+                // PROGRAMADOS: Saldrán en 0.5-4 horas
+                int minutesUntil = 30 + (i - 13) * 30 + random.nextInt(20);
+                depTime = now.plusMinutes(minutesUntil);
+                arrTime = depTime.plusHours(flightDuration).plusMinutes(random.nextInt(30));
+                status = FlightStatus.SCHEDULED;
+            }
+            
+            String flightNum = route.airlineIata() + (1000 + i * 11);
+
+            FlightRecord.FlightRecordBuilder flight = FlightRecord.builder()
+                    .flightDateEpochDay(today.toEpochDay())
+                    .status(status)
+                    .flight(FlightRecord.FlightInfo.builder()
+                            .number(String.valueOf(1000 + i * 11))
+                            .iata(FlightRecord.code(flightNum))
+                            .build())
+                    .airline(FlightRecord.Airline.builder()
+                            .name(route.airline())
+                            .iata(route.airlineIata())
+                            .build())
+                    .departure(FlightRecord.Endpoint.builder()
+                            .airport(AirportRegistry.name(route.departure()))
+                            .iata(AirportRegistry.iata(route.departure()))
+                            .scheduledEpoch(FlightTimes.toEpochSecond(today.atTime(depTime.truncatedTo(ChronoUnit.MINUTES))))
+                            .build())
+                    .arrival(FlightRecord.Endpoint.builder()
+                            .airport(AirportRegistry.name(route.arrival()))
+                            .iata(AirportRegistry.iata(route.arrival()))
+                            .scheduledEpoch(FlightTimes.toEpochSecond(today.atTime(arrTime.truncatedTo(ChronoUnit.MINUTES))))
+                            .build());
+
+            // La posición de los vuelos en el aire se calcula al servir cada petición (FlightPositions)
+            flights.add(flight.build());
+        }
+
+        return flights;
+    }
+
+    private List<FlightRecord> adaptFlightsToToday(List<FlightRecord> flights) {
+        long today = LocalDate.now().toEpochDay();
+        return flights.stream()
+                .map(flight -> flight.toBuilder().flightDateEpochDay(today).build())
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hubExecutor.shutdownNow();
+    }
+
+    private record HubRequest(String hub, long expiresAt) {
+    }
+
+    public record HubFlights(String hub, List<FlightRecord> flights) {
+    }
+
+    private record MockRoute(int departure, int arrival, String airline, String airlineIata) {
+        static MockRoute of(String departure, String arrival, String airline, String airlineIata) {
+            return new MockRoute(AirportRegistry.indexOf(departure), AirportRegistry.indexOf(arrival),
+                    FlightRecord.name(airline), FlightRecord.code(airlineIata));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.dto.response.FlightOfferResponse;
+import com.galacticos.AirportApp.dto.response.FlightResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Cache LRU con TTL para búsquedas de ofertas. Las búsquedas idénticas que llegan mientras
+// otra está en curso esperan su resultado en vez de lanzar otra llamada a Amadeus.
+// Las entradas caducadas se guardan hasta cache-max-stale-ms como respaldo si Amadeus falla.
+@Component
+@RequiredArgsConstructor
+public class FlightOfferCache {
+
+    private final FlightProperties flightProperties;
+    private final MeterRegistry meterRegistry;
+
+    // Orden de acceso: el primero es el menos usado recientemente. Protegido por this.
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Key, CompletableFuture<FlightResponse<FlightOfferResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter coalesced;
+    private Counter sizeEvictions;
+    private Counter expirations;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = meterRegistry.counter("flights.offers.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("flights.offers.cache.requests", "result", "miss");
+        coalesced = meterRegistry.counter("flights.offers.cache.requests", "result", "coalesced");
+        sizeEvictions = meterRegistry.counter("flights.offers.cache.evictions", "cause", "size");
+        expirations = meterRegistry.counter("flights.offers.cache.evictions", "cause", "expired");
+        Gauge.builder("flights.offers.cache.size", this, FlightOfferCache::size).register(meterRegistry);
+    }
+
+    public FlightResponse<FlightOfferResponse> get(Key key,
+                                                   Supplier<FlightResponse<FlightOfferResponse>> loader,
+                                                   Predicate<FlightResponse<FlightOfferResponse>> cacheable) {
+        FlightResponse<FlightOfferResponse> cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<FlightResponse<FlightOfferResponse>> mine = new CompletableFuture<>();
+        CompletableFuture<FlightResponse<FlightOfferResponse>> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return join(existing);
+        }
+
+        try {
+            // Otra petición pudo completar la carga entre la consulta y el registro
+            FlightResponse<FlightOfferResponse> value = lookup(key);
+            if (value == null) {
+                misses.increment();
+                value = loader.get();
+                if (cacheable.test(value)) {
+                    store(key, value);
+                }
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized FlightResponse<FlightOfferResponse> lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.expiresAt() <= now) {
+            // Las caducadas se conservan un tiempo como último resultado bueno (lastGood)
+            if (entry.expiresAt() + flightProperties.getOffers().getCacheMaxStaleMs() <= now) {
+                entries.remove(key);
+                expirations.increment();
+            }
+            return null;
+        }
+        return entry.value();
+    }
+
+    // Último resultado bueno de la búsqueda aunque haya caducado, para cuando Amadeus falla
+    public synchronized FlightResponse<FlightOfferResponse> lastGood(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt() + flightProperties.getOffers().getCacheMaxStaleMs() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.value();
+    }
+
+    private synchronized void store(Key key, FlightResponse<FlightOfferResponse> value) {
+        FlightProperties.OffersConfig config = flightProperties.getOffers();
+        entries.put(key, new Entry(value, System.currentTimeMillis() + config.getCacheTtlMs()));
+        Iterator<Key> eldest = entries.keySet().iterator();
+        while (entries.size() > config.getCacheMaxEntries() && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private static FlightResponse<FlightOfferResponse> join(CompletableFuture<FlightResponse<FlightOfferResponse>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public record Key(String origin, String destination, String departureDate, int adults, String cabinClass) {
+
+        public static Key of(String origin, String destination, String departureDate, int adults, String cabinClass) {
+            return new Key(origin.trim().toUpperCase(), destination.trim().toUpperCase(), departureDate.trim(),
+                    adults, cabinClass.trim().toUpperCase());
+        }
+    }
+
+    private record Entry(FlightResponse<FlightOfferResponse> value, long expiresAt) {
+    }
+}
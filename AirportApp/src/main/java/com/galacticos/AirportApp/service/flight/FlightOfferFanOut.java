@@ -0,0 +1,113 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.client.UpstreamUnavailableException;
+import com.galacticos.AirportApp.config.FlightProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Búsquedas de ofertas de varios días en paralelo (hilos virtuales) con un plazo global.
+// Las llamadas reales a Amadeus pasan por throttled(): como mucho flexible-max-concurrent a la
+// vez entre todas las búsquedas flexibles y separadas al menos flexible-min-interval-ms, para no
+// superar el límite de peticiones por segundo. Los días que ya están en cache no esperan turno.
+@Component
+@Slf4j
+public class FlightOfferFanOut {
+
+    private final FlightProperties.OffersConfig config;
+    private final Semaphore permits;
+    // Instante (nanoTime) a partir del cual puede salir la siguiente llamada
+    private final AtomicLong nextStart = new AtomicLong(System.nanoTime());
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FlightOfferFanOut(FlightProperties flightProperties) {
+        this.config = flightProperties.getOffers();
+        this.permits = new Semaphore(config.getFlexibleMaxConcurrent());
+    }
+
+    // Resultado de cada clave en el mismo orden; null si falló o no terminó dentro del plazo
+    public <K, V> List<V> searchAll(List<K> keys, Function<K, V> search) {
+        List<Callable<V>> tasks = keys.stream().<Callable<V>>map(key -> () -> search.apply(key)).toList();
+        List<Future<V>> futures;
+        try {
+            // Al vencer el plazo se cancelan las búsquedas pendientes
+            futures = executor.invokeAll(tasks, config.getFlexibleDeadlineMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamUnavailableException("Búsqueda flexible interrumpida");
+        }
+
+        List<V> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            results.add(result(futures.get(i), keys.get(i)));
+        }
+        return results;
+    }
+
+    public <V> V throttled(Supplier<V> call) {
+        long maxWait = TimeUnit.MILLISECONDS.toNanos(config.getFlexibleDeadlineMs());
+        try {
+            if (!permits.tryAcquire(maxWait, TimeUnit.NANOSECONDS)) {
+                throw new UpstreamUnavailableException("Demasiadas búsquedas flexibles en curso");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamUnavailableException("Búsqueda flexible interrumpida");
+        }
+        try {
+            pace();
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void pace() {
+        long interval = TimeUnit.MILLISECONDS.toNanos(config.getFlexibleMinIntervalMs());
+        long now = System.nanoTime();
+        long start = Math.max(now, nextStart.getAndUpdate(previous -> Math.max(previous, now) + interval));
+        if (start > now) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(start - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UpstreamUnavailableException("Búsqueda flexible interrumpida");
+            }
+        }
+    }
+
+    private static <K, V> V result(Future<V> future, K key) {
+        if (future.isCancelled()) {
+            log.warn("Búsqueda de {} cancelada por el plazo global", key);
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.warn("Búsqueda de {} fallida: {}", key, e.getCause().getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,70 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.dto.response.FlightOfferResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Las k mejores ofertas según el criterio pedido. Con un montículo acotado a k (cuya cima es la
+// peor de las seleccionadas) cuesta O(n log k) y no se ordena ni se copia la lista completa.
+public final class FlightOfferRanker {
+
+    public enum Sort {
+        PRICE, DURATION, DEPARTURE;
+
+        public static Sort from(String value) {
+            if (value == null || value.isBlank()) {
+                return PRICE;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Orden inválido: " + value + ". Use price, duration o departure");
+            }
+        }
+    }
+
+    private static final Comparator<FlightOfferResponse> BY_PRICE =
+            Comparator.comparing(FlightOfferResponse::getPrice, Comparator.nullsLast(Comparator.naturalOrder()));
+    private static final Comparator<FlightOfferResponse> BY_DURATION =
+            Comparator.comparing(FlightOfferResponse::getDurationMinutes, Comparator.nullsLast(Comparator.naturalOrder()));
+    // Las horas ISO-8601 de Amadeus tienen longitud fija, así que el orden de texto es el cronológico
+    private static final Comparator<FlightOfferResponse> BY_DEPARTURE =
+            Comparator.comparing(FlightOfferResponse::getDepartureAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private FlightOfferRanker() {
+    }
+
+    public static List<FlightOfferResponse> top(List<FlightOfferResponse> offers, Sort sort, int limit) {
+        Comparator<FlightOfferResponse> order = comparator(sort);
+        int k = Math.min(limit, offers.size());
+        if (k <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<FlightOfferResponse> heap = new PriorityQueue<>(k, order.reversed());
+        for (FlightOfferResponse offer : offers) {
+            if (heap.size() < k) {
+                heap.add(offer);
+            } else if (order.compare(offer, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(offer);
+            }
+        }
+
+        List<FlightOfferResponse> best = new ArrayList<>(heap);
+        best.sort(order);
+        return best;
+    }
+
+    // Los empates se deshacen por precio y después por duración
+    private static Comparator<FlightOfferResponse> comparator(Sort sort) {
+        return switch (sort) {
+            case PRICE -> BY_PRICE.thenComparing(BY_DURATION);
+            case DURATION -> BY_DURATION.thenComparing(BY_PRICE);
+            case DEPARTURE -> BY_DEPARTURE.thenComparing(BY_PRICE);
+        };
+    }
+}
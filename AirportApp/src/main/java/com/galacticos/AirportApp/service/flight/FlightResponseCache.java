@@ -0,0 +1,126 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.dto.response.ApiResponse;
+import com.galacticos.AirportApp.dto.response.FlightResponse;
+import com.galacticos.AirportApp.model.FlightRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Respuesta completa de GET /api/flights (sin filtros) ya construida y serializada.
+// Mientras no cambien el snapshot, el instante de las posiciones ni los metadatos de la
+// respuesta, todas las peticiones comparten el mismo objeto y los mismos bytes JSON (y su
+// variante gzip), así que Jackson solo recorre la lista de vuelos una vez por versión.
+// Solo se guarda la última respuesta: las consultas con filtros se serializan como siempre.
+@Component
+@RequiredArgsConstructor
+public class FlightResponseCache {
+
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Entry last;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = meterRegistry.counter("flights.response.cache.requests", "result", "hit");
+        misses = meterRegistry.counter("flights.response.cache.requests", "result", "miss");
+    }
+
+    public FlightResponse<FlightRecord> get(Key key, Supplier<FlightResponse<FlightRecord>> builder) {
+        Entry entry = last;
+        if (entry != null && entry.key().equals(key)) {
+            hits.increment();
+            return entry.response();
+        }
+        // Dos peticiones simultáneas pueden construirla a la vez; se queda la última
+        misses.increment();
+        entry = new Entry(key, builder.get());
+        last = entry;
+        return entry.response();
+    }
+
+    // Bytes ya serializados de esta respuesta, o null si no es la que está en cache
+    public Serialized serialized(FlightResponse<?> response) {
+        Entry entry = last;
+        return entry != null && entry.response() == response ? entry.serialized() : null;
+    }
+
+    public record Key(long version, long positionsEpoch, String source, boolean fromStorage, boolean stale) {
+    }
+
+    public static final class Serialized {
+
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        private Serialized(byte[] json) {
+            this.json = json;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        // Se comprime la primera vez que un cliente lo acepta
+        public byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = compress(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+    }
+
+    private final class Entry {
+
+        private final Key key;
+        private final FlightResponse<FlightRecord> response;
+        private volatile Serialized serialized;
+
+        Entry(Key key, FlightResponse<FlightRecord> response) {
+            this.key = key;
+            this.response = response;
+        }
+
+        Key key() {
+            return key;
+        }
+
+        FlightResponse<FlightRecord> response() {
+            return response;
+        }
+
+        Serialized serialized() {
+            Serialized bytes = serialized;
+            if (bytes == null) {
+                bytes = new Serialized(jsonMapper.writeValueAsBytes(ApiResponse.success(response)));
+                serialized = bytes;
+            }
+            return bytes;
+        }
+    }
+
+    private static byte[] compress(byte[] data) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,265 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+// Cache del snapshot de vuelos con stale-while-revalidate: un snapshot caducado se sigue
+// sirviendo mientras una única tarea en segundo plano lo refresca. Las peticiones
+// concurrentes que necesitan esperar (cache vacía o forceRefresh) comparten esa misma carga.
+// Si el refresco falla se mantiene el último snapshot bueno, marcado como caducado hasta el
+// siguiente refresco correcto; solo sin snapshot previo se recurre a los datos mock.
+// Los snapshots de AviationStack no se recargan enteros al caducar: HubPollScheduler los pone al
+// día hub a hub y cada hub mezclado los rejuvenece. Solo hay carga completa en frío (sin
+// snapshot o pasado max-stale) o cuando se fuerza con /refresh.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightSnapshotCache implements SmartInitializingSingleton {
+
+    private final FlightDataLoader loader;
+    private final FlightSnapshotStore snapshotStore;
+    private final FlightProperties flightProperties;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<FlightSnapshot> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<FlightSnapshot>> inFlight = new AtomicReference<>();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile long lastAccess;
+    // El último refresco falló y se está sirviendo el snapshot anterior
+    private volatile boolean degraded;
+
+    private Counter hits;
+    private Counter staleHits;
+    private Counter misses;
+    private Timer refreshSuccess;
+    private Timer refreshError;
+    private Counter fallbacks;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = meterRegistry.counter("flights.cache.requests", "result", "hit");
+        staleHits = meterRegistry.counter("flights.cache.requests", "result", "stale");
+        misses = meterRegistry.counter("flights.cache.requests", "result", "miss");
+        refreshSuccess = meterRegistry.timer("flights.cache.refresh", "outcome", "success");
+        refreshError = meterRegistry.timer("flights.cache.refresh", "outcome", "error");
+        fallbacks = meterRegistry.counter("flights.cache.fallbacks");
+        Gauge.builder("flights.cache.age", this, FlightSnapshotCache::ageSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public Lookup get(boolean forceRefresh) {
+        lastAccess = System.currentTimeMillis();
+        FlightSnapshot snapshot = current.get();
+
+        if (forceRefresh || snapshot == null) {
+            misses.increment();
+            return awaitLookup();
+        }
+
+        FlightProperties.CacheConfig config = flightProperties.getCache();
+        if (!snapshot.isOlderThan(config.getTtlMs())) {
+            hits.increment();
+            return new Lookup(snapshot, true, degraded);
+        }
+        if (!snapshot.isOlderThan(config.getTtlMs() + config.getMaxStaleMs())) {
+            staleHits.increment();
+            if (!loader.refreshesIncrementally(snapshot)) {
+                refreshAsync();
+            }
+            return new Lookup(snapshot, true, true);
+        }
+
+        misses.increment();
+        return awaitLookup();
+    }
+
+    // Con todos los beans (y sus listeners) creados, pero antes de que el servidor web acepte
+    // peticiones: la primera ya encuentra el snapshot restaurado en vez de lanzar una carga
+    @Override
+    public void afterSingletonsInstantiated() {
+        restore();
+    }
+
+    // Arranque en caliente: si hay un snapshot guardado y vigente se sirve sin llamar a AviationStack
+    public void restore() {
+        long start = System.nanoTime();
+        FlightSnapshot restored = snapshotStore.restore();
+        if (restored != null && current.compareAndSet(null, restored)) {
+            eventPublisher.publishEvent(new FlightSnapshotChangedEvent(null, restored, true));
+            log.info("Snapshot de {} vuelos restaurado desde disco en {} ms", restored.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    public FlightSnapshot current() {
+        return current.get();
+    }
+
+    // Aplica una modificación atómica sobre el snapshot actual (p. ej. cambios de estado).
+    // Si la función devuelve la misma instancia no se publica ningún cambio.
+    public FlightSnapshot update(UnaryOperator<FlightSnapshot> change) {
+        while (true) {
+            FlightSnapshot previous = current.get();
+            if (previous == null) {
+                return null;
+            }
+            FlightSnapshot updated = change.apply(previous);
+            if (updated == previous) {
+                return previous;
+            }
+            if (current.compareAndSet(previous, updated)) {
+                eventPublisher.publishEvent(new FlightSnapshotChangedEvent(previous, updated, false));
+                return updated;
+            }
+        }
+    }
+
+    // Sustituye los vuelos que salen de un hub por los recién consultados. Para los listeners es
+    // una actualización (aplican solo el diff), pero el snapshot resultante cuenta como recién
+    // cargado: es el refresco normal de los snapshots de AviationStack
+    public FlightSnapshot mergeHub(String hub, List<FlightRecord> hubFlights) {
+        while (true) {
+            FlightSnapshot previous = current.get();
+            if (previous == null) {
+                return null;
+            }
+            List<FlightRecord> flights = new ArrayList<>(previous.size() + hubFlights.size());
+            for (FlightRecord flight : previous.getFlights()) {
+                if (flight.getDeparture() == null || !hub.equals(flight.getDeparture().getIata())) {
+                    flights.add(flight);
+                }
+            }
+            flights.addAll(hubFlights);
+            FlightSnapshot merged = new FlightSnapshot(flights, previous.getSource());
+            if (current.compareAndSet(previous, merged)) {
+                degraded = false;
+                eventPublisher.publishEvent(new FlightSnapshotChangedEvent(previous, merged, false));
+                return merged;
+            }
+        }
+    }
+
+    public long lastAccess() {
+        return lastAccess;
+    }
+
+    // Hay una carga completa en curso
+    public boolean refreshing() {
+        return inFlight.get() != null;
+    }
+
+    // Lanza un refresco en segundo plano, o devuelve el que ya está en curso
+    public CompletableFuture<FlightSnapshot> refreshAsync() {
+        while (true) {
+            CompletableFuture<FlightSnapshot> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<FlightSnapshot> future = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, future)) {
+                refreshExecutor.execute(() -> runRefresh(future));
+                return future;
+            }
+        }
+    }
+
+    // Refresco anticipado: solo si el snapshot se ha consultado desde la última carga,
+    // para no gastar cuota cuando nadie está mirando, y nunca para los que se refrescan hub a hub
+    @Scheduled(fixedDelayString = "${flights.cache.check-interval-ms:60000}")
+    public void refreshAhead() {
+        FlightSnapshot snapshot = current.get();
+        if (snapshot != null
+                && !loader.refreshesIncrementally(snapshot)
+                && snapshot.isOlderThan(flightProperties.getCache().getRefreshAheadMs())
+                && lastAccess > snapshot.getCreatedAt()) {
+            log.info("Refresco anticipado del snapshot de vuelos");
+            refreshAsync();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void runRefresh(CompletableFuture<FlightSnapshot> future) {
+        long start = System.nanoTime();
+        try {
+            FlightSnapshot loaded;
+            Timer outcome = refreshSuccess;
+            try {
+                loaded = loader.load();
+                degraded = false;
+            } catch (RuntimeException e) {
+                fallbacks.increment();
+                outcome = refreshError;
+                FlightSnapshot last = current.get();
+                if (last != null) {
+                    log.warn("Error refrescando vuelos ({}), se sigue sirviendo el último snapshot", e.getMessage());
+                    degraded = true;
+                    refreshError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    inFlight.compareAndSet(future, null);
+                    future.complete(last);
+                    return;
+                }
+                log.warn("Error refrescando vuelos ({}) sin snapshot previo, usando datos mock", e.getMessage());
+                loaded = loader.fallback();
+            }
+            FlightSnapshot previous = current.getAndSet(loaded);
+            // Los listeners se ejecutan en este hilo, así que al completar ya han ajustado el snapshot
+            eventPublisher.publishEvent(new FlightSnapshotChangedEvent(previous, loaded, true));
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight.compareAndSet(future, null);
+            future.complete(current.get());
+        } catch (RuntimeException e) {
+            log.error("Error refrescando vuelos: {}", e.getMessage());
+            refreshError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight.compareAndSet(future, null);
+            future.completeExceptionally(e);
+        }
+    }
+
+    // Tras un refresco fallido el snapshot devuelto es el anterior: viene de cache y está caducado
+    private Lookup awaitLookup() {
+        try {
+            FlightSnapshot snapshot = refreshAsync().join();
+            boolean fallback = degraded;
+            return new Lookup(snapshot, fallback, fallback);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private double ageSeconds() {
+        FlightSnapshot snapshot = current.get();
+        return snapshot == null ? 0 : (System.currentTimeMillis() - snapshot.getCreatedAt()) / 1000.0;
+    }
+
+    public record Lookup(FlightSnapshot snapshot, boolean fromCache, boolean stale) {
+    }
+}
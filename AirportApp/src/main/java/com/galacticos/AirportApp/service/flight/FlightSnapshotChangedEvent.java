@@ -0,0 +1,8 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.model.FlightSnapshot;
+
+// Se publica cada vez que cambia el snapshot de vuelos. "reloaded" indica que viene de una
+// carga nueva (AviationStack o mock); en caso contrario es una actualización del snapshot actual.
+public record FlightSnapshotChangedEvent(FlightSnapshot previous, FlightSnapshot current, boolean reloaded) {
+}
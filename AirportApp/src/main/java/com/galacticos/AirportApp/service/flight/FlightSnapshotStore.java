@@ -0,0 +1,369 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.model.FlightStatus;
+import com.galacticos.AirportApp.model.FlightTimes;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Copia en disco del último snapshot cargado de AviationStack para arrancar en caliente.
+// Formato binario propio: cabecera, tabla de cadenas sin repetir (aeropuertos, aerolíneas...)
+// y los vuelos con referencias a esa tabla y las horas como diferencia con la hora de carga,
+// todo en varints (casi todos los campos caben en 1-3 bytes), terminado en un CRC32.
+// Se escribe en un temporal y se renombra, así que un corte a mitad nunca deja un fichero a medias.
+// Las cargas completas se guardan al momento; los hubs mezclados y los cambios de estado, como
+// mucho una vez cada snapshot-write-interval-ms (y al parar).
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightSnapshotStore {
+
+    private static final int MAGIC = 0x464C534E; // "FLSN"
+    private static final int FORMAT = 1;
+
+    private final FlightProperties flightProperties;
+
+    // Versión del snapshot que ya está en disco (protegida por this): no se reescribe el
+    // restaurado ni se pisa con uno anterior
+    private long persistedVersion;
+    // Última actualización pendiente de guardar
+    private final AtomicReference<FlightSnapshot> pending = new AtomicReference<>();
+
+    // Solo se guardan los datos reales: los datos mock se regeneran al instante
+    @EventListener
+    @Order(5)
+    public void onSnapshotChanged(FlightSnapshotChangedEvent event) {
+        FlightSnapshot snapshot = event.current();
+        if (file() == null || snapshot.getSource().startsWith("mock")) {
+            pending.set(null);
+            return;
+        }
+        if (event.reloaded()) {
+            pending.set(null);
+            save(snapshot);
+        } else {
+            pending.set(snapshot);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${flights.cache.snapshot-write-interval-ms:60000}")
+    public void flush() {
+        FlightSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot != null) {
+            save(snapshot);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Snapshot guardado si existe, es válido y sigue dentro del TTL; null en otro caso
+    public FlightSnapshot restore() {
+        Path file = file();
+        if (file == null) {
+            return null;
+        }
+        try {
+            FlightSnapshot snapshot = read(file);
+            if (snapshot.isOlderThan(flightProperties.getCache().getTtlMs())) {
+                log.info("Snapshot guardado en {} caducado, se ignora", file);
+                return null;
+            }
+            synchronized (this) {
+                persistedVersion = snapshot.getVersion();
+            }
+            return snapshot;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot guardado en {} ilegible, se ignora: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void save(FlightSnapshot snapshot) {
+        if (snapshot.getVersion() <= persistedVersion) {
+            return;
+        }
+        try {
+            write(snapshot);
+            persistedVersion = snapshot.getVersion();
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el snapshot de vuelos en {}: {}", file(), e.getMessage());
+        }
+    }
+
+    void write(FlightSnapshot snapshot) throws IOException {
+        Path file = file();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        StringTable strings = new StringTable();
+        for (FlightRecord flight : snapshot.getFlights()) {
+            strings.collect(flight);
+        }
+
+        CRC32 crc = new CRC32();
+        try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(raw, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(snapshot.getCreatedAt());
+            out.writeUTF(snapshot.getSource());
+
+            writeVarLong(out, strings.values.size());
+            for (String value : strings.values) {
+                out.writeUTF(value);
+            }
+
+            long base = snapshot.getCreatedAt() / 1000;
+            writeVarLong(out, snapshot.size());
+            for (FlightRecord flight : snapshot.getFlights()) {
+                writeFlight(out, flight, strings, base);
+            }
+            // El CRC cubre todo lo anterior y se escribe fuera del stream que lo calcula
+            new DataOutputStream(raw).writeLong(crc.getValue());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Snapshot de {} vuelos guardado en {}", snapshot.size(), file);
+    }
+
+    static FlightSnapshot read(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file));
+             DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                throw new IOException("formato desconocido");
+            }
+            long createdAt = in.readLong();
+            String source = in.readUTF();
+
+            String[] strings = new String[(int) readVarLong(in)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+
+            long base = createdAt / 1000;
+            int count = (int) readVarLong(in);
+            List<FlightRecord> flights = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                flights.add(readFlight(in, strings, base));
+            }
+
+            long expected = crc.getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                throw new IOException("CRC incorrecto");
+            }
+            return new FlightSnapshot(flights, source, createdAt);
+        }
+    }
+
+    private static void writeFlight(DataOutputStream out, FlightRecord flight, StringTable strings, long base) throws IOException {
+        writeOptionalLong(out, flight.getFlightDateEpochDay(), base / 86400);
+        out.writeByte(flight.getStatus() != null ? flight.getStatus().ordinal() : -1);
+
+        FlightRecord.FlightInfo info = flight.getFlight();
+        out.writeBoolean(info != null);
+        if (info != null) {
+            strings.write(out, info.getNumber(), info.getIata(), info.getIcao());
+        }
+        FlightRecord.Airline airline = flight.getAirline();
+        out.writeBoolean(airline != null);
+        if (airline != null) {
+            strings.write(out, airline.getName(), airline.getIata(), airline.getIcao());
+        }
+        writeEndpoint(out, flight.getDeparture(), strings, base);
+        writeEndpoint(out, flight.getArrival(), strings, base);
+
+        FlightRecord.Live live = flight.getLive();
+        out.writeBoolean(live != null);
+        if (live != null) {
+            writeOptionalLong(out, live.getUpdatedEpoch(), base);
+            out.writeDouble(live.getLatitude());
+            out.writeDouble(live.getLongitude());
+            out.writeDouble(live.getAltitude());
+            out.writeDouble(live.getDirection());
+            out.writeDouble(live.getSpeedHorizontal());
+            out.writeDouble(live.getSpeedVertical());
+            out.writeBoolean(live.isGround());
+        }
+    }
+
+    private static void writeEndpoint(DataOutputStream out, FlightRecord.Endpoint endpoint, StringTable strings,
+                                      long base) throws IOException {
+        out.writeBoolean(endpoint != null);
+        if (endpoint == null) {
+            return;
+        }
+        strings.write(out, endpoint.getAirport(), endpoint.getTimezone(), endpoint.getIata(), endpoint.getIcao(),
+                endpoint.getTerminal(), endpoint.getGate());
+        writeOptionalLong(out, endpoint.getDelay() != null ? endpoint.getDelay() : FlightTimes.NONE, 0);
+        writeOptionalLong(out, endpoint.getScheduledEpoch(), base);
+        writeOptionalLong(out, endpoint.getEstimatedEpoch(), base);
+        writeOptionalLong(out, endpoint.getActualEpoch(), base);
+    }
+
+    private static FlightRecord readFlight(DataInputStream in, String[] strings, long base) throws IOException {
+        FlightRecord.FlightRecordBuilder flight = FlightRecord.builder()
+                .flightDateEpochDay(readOptionalLong(in, base / 86400));
+        int status = in.readByte();
+        flight.status(status >= 0 ? FlightStatus.values()[status] : null);
+
+        if (in.readBoolean()) {
+            flight.flight(FlightRecord.FlightInfo.builder()
+                    .number(string(in, strings))
+                    .iata(string(in, strings))
+                    .icao(string(in, strings))
+                    .build());
+        }
+        if (in.readBoolean()) {
+            flight.airline(FlightRecord.Airline.builder()
+                    .name(string(in, strings))
+                    .iata(string(in, strings))
+                    .icao(string(in, strings))
+                    .build());
+        }
+        flight.departure(readEndpoint(in, strings, base));
+        flight.arrival(readEndpoint(in, strings, base));
+
+        if (in.readBoolean()) {
+            flight.live(FlightRecord.Live.builder()
+                    .updatedEpoch(readOptionalLong(in, base))
+                    .latitude(in.readDouble())
+                    .longitude(in.readDouble())
+                    .altitude(in.readDouble())
+                    .direction(in.readDouble())
+                    .speedHorizontal(in.readDouble())
+                    .speedVertical(in.readDouble())
+                    .ground(in.readBoolean())
+                    .build());
+        }
+        return flight.build();
+    }
+
+    private static FlightRecord.Endpoint readEndpoint(DataInputStream in, String[] strings, long base) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        FlightRecord.Endpoint.EndpointBuilder endpoint = FlightRecord.Endpoint.builder()
+                .airport(string(in, strings))
+                .timezone(string(in, strings))
+                .iata(string(in, strings))
+                .icao(string(in, strings))
+                .terminal(string(in, strings))
+                .gate(string(in, strings));
+        long delay = readOptionalLong(in, 0);
+        return endpoint
+                .delay(delay != FlightTimes.NONE ? (int) delay : null)
+                .scheduledEpoch(readOptionalLong(in, base))
+                .estimatedEpoch(readOptionalLong(in, base))
+                .actualEpoch(readOptionalLong(in, base))
+                .build();
+    }
+
+    private static String string(DataInputStream in, String[] strings) throws IOException {
+        int ref = (int) readVarLong(in);
+        return ref == 0 ? null : strings[ref - 1];
+    }
+
+    // FlightTimes.NONE se guarda como 0; el resto como diferencia con base en zigzag + 1
+    private static void writeOptionalLong(DataOutputStream out, long value, long base) throws IOException {
+        if (value == FlightTimes.NONE) {
+            writeVarLong(out, 0);
+        } else {
+            long delta = value - base;
+            writeVarLong(out, ((delta << 1) ^ (delta >> 63)) + 1);
+        }
+    }
+
+    private static long readOptionalLong(DataInputStream in, long base) throws IOException {
+        long encoded = readVarLong(in);
+        if (encoded == 0) {
+            return FlightTimes.NONE;
+        }
+        long zigzag = encoded - 1;
+        return base + ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint demasiado largo");
+    }
+
+    private Path file() {
+        String path = flightProperties.getCache().getSnapshotFile();
+        return path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    // Cadenas distintas del snapshot en orden de aparición
+    private static final class StringTable {
+
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void collect(FlightRecord flight) {
+            if (flight.getFlight() != null) {
+                add(flight.getFlight().getNumber(), flight.getFlight().getIata(), flight.getFlight().getIcao());
+            }
+            if (flight.getAirline() != null) {
+                add(flight.getAirline().getName(), flight.getAirline().getIata(), flight.getAirline().getIcao());
+            }
+            for (FlightRecord.Endpoint endpoint : new FlightRecord.Endpoint[]{flight.getDeparture(), flight.getArrival()}) {
+                if (endpoint != null) {
+                    add(endpoint.getAirport(), endpoint.getTimezone(), endpoint.getIata(), endpoint.getIcao(),
+                            endpoint.getTerminal(), endpoint.getGate());
+                }
+            }
+        }
+
+        private void add(String... strings) {
+            for (String value : strings) {
+                if (value != null && !refs.containsKey(value)) {
+                    refs.put(value, values.size());
+                    values.add(value);
+                }
+            }
+        }
+
+        void write(DataOutputStream out, String... strings) throws IOException {
+            for (String value : strings) {
+                writeVarLong(out, value == null ? 0 : refs.get(value) + 1);
+            }
+        }
+    }
+}
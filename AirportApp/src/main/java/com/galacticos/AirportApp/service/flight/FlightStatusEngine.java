@@ -0,0 +1,209 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.model.FlightChanges;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.model.FlightStatus;
+import com.galacticos.AirportApp.model.FlightTimes;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Mantiene el estado (scheduled/active/landed) de los vuelos del snapshot. Cada vuelo cambia
+// como mucho dos veces (despegue y aterrizaje), así que en cada carga se encolan esas
+// transiciones en una cola de prioridad y un único hilo las aplica en su momento.
+// La lectura del snapshot ya no tiene que calcular nada.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightStatusEngine {
+
+    // Estados que vienen de la fuente y no se deducen de los horarios
+    private static final Set<FlightStatus> FIXED_STATUSES =
+            EnumSet.of(FlightStatus.CANCELLED, FlightStatus.DIVERTED, FlightStatus.INCIDENT);
+
+    private final FlightSnapshotCache snapshotCache;
+    private final FlightVersionHistory versionHistory;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "flight-status-engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Protegidos por this
+    private final PriorityQueue<Transition> transitions = new PriorityQueue<>();
+    private ScheduledFuture<?> wakeUp;
+
+    // El último: sus cambios de estado publican eventos anidados, que el resto de listeners debe
+    // recibir después del evento que los originó
+    @EventListener
+    @Order(6)
+    public void onSnapshotChanged(FlightSnapshotChangedEvent event) {
+        if (event.reloaded()) {
+            track(event.current());
+        } else {
+            retrack(event);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // Encola las transiciones futuras del snapshot nuevo y ajusta ya los estados actuales
+    private void track(FlightSnapshot snapshot) {
+        long now = nowEpochSecond();
+        synchronized (this) {
+            transitions.clear();
+            schedule(snapshot.getFlights(), now);
+            log.debug("Programadas {} transiciones de estado", transitions.size());
+        }
+
+        snapshotCache.update(current -> applyStatuses(current, null, now));
+        rearm();
+    }
+
+    // Actualización parcial (p. ej. un hub mezclado): solo se programan los vuelos nuevos o con
+    // horas distintas. Los cambios que solo tocan el estado (los del propio motor) no hacen nada.
+    // Las transiciones antiguas de un vuelo cuyo horario cambió se quedan en la cola, pero al
+    // dispararse recalculan el estado con las horas actuales y no cambian nada.
+    private void retrack(FlightSnapshotChangedEvent event) {
+        FlightChanges changes = versionHistory.changesOf(event);
+        List<FlightRecord> retimed = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        for (List<FlightRecord> flights : List.of(changes.added(), changes.updated())) {
+            for (FlightRecord flight : flights) {
+                FlightRecord before = event.previous() != null ? event.previous().find(flight.getKey()) : null;
+                if (isTimeDriven(flight) && (before == null || !sameTimes(before, flight))) {
+                    retimed.add(flight);
+                    keys.add(flight.getKey());
+                }
+            }
+        }
+        if (retimed.isEmpty()) {
+            return;
+        }
+
+        long now = nowEpochSecond();
+        synchronized (this) {
+            schedule(retimed, now);
+        }
+        snapshotCache.update(current -> applyStatuses(current, keys, now));
+        rearm();
+    }
+
+    // Protegido por this
+    private void schedule(List<FlightRecord> flights, long now) {
+        for (FlightRecord flight : flights) {
+            if (!isTimeDriven(flight)) {
+                continue;
+            }
+            long departure = flight.getDeparture().getEffectiveEpoch();
+            long arrival = flight.getArrival().getEffectiveEpoch();
+            if (now < departure) {
+                transitions.add(new Transition(departure, flight.getKey()));
+            }
+            // Se considera aterrizado en cuanto se supera la hora de llegada
+            if (now <= arrival) {
+                transitions.add(new Transition(arrival + 1, flight.getKey()));
+            }
+        }
+    }
+
+    private static boolean sameTimes(FlightRecord a, FlightRecord b) {
+        return a.getDeparture().getEffectiveEpoch() == b.getDeparture().getEffectiveEpoch()
+                && a.getArrival().getEffectiveEpoch() == b.getArrival().getEffectiveEpoch();
+    }
+
+    private void fireDueTransitions() {
+        long now = nowEpochSecond();
+        Set<String> due = new HashSet<>();
+        synchronized (this) {
+            while (!transitions.isEmpty() && transitions.peek().at() <= now) {
+                due.add(transitions.poll().flightKey());
+            }
+        }
+
+        if (!due.isEmpty()) {
+            snapshotCache.update(current -> applyStatuses(current, due, now));
+            log.debug("Actualizado el estado de {} vuelos", due.size());
+        }
+        rearm();
+    }
+
+    private synchronized void rearm() {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+        }
+        Transition next = transitions.peek();
+        if (next == null) {
+            wakeUp = null;
+            return;
+        }
+        long delay = Math.max(0, next.at() - nowEpochSecond());
+        wakeUp = scheduler.schedule(this::fireDueTransitions, delay, TimeUnit.SECONDS);
+    }
+
+    // Recalcula el estado de los vuelos indicados (o de todos si keys es null). Solo se copian
+    // los vuelos que cambian; si ninguno cambia se devuelve el mismo snapshot.
+    private FlightSnapshot applyStatuses(FlightSnapshot snapshot, Set<String> keys, long now) {
+        List<FlightRecord> flights = snapshot.getFlights();
+        List<FlightRecord> updated = null;
+
+        for (int i = 0; i < flights.size(); i++) {
+            FlightRecord flight = flights.get(i);
+            if (!isTimeDriven(flight) || (keys != null && !keys.contains(flight.getKey()))) {
+                continue;
+            }
+            FlightStatus status = statusAt(flight, now);
+            if (status != flight.getStatus()) {
+                if (updated == null) {
+                    updated = new ArrayList<>(flights);
+                }
+                updated.set(i, flight.withStatus(status));
+            }
+        }
+
+        return updated == null ? snapshot : snapshot.withFlights(updated);
+    }
+
+    // Con la hora real si la hay, si no la estimada y si no la programada: un vuelo retrasado
+    // sigue programado hasta su salida estimada
+    static FlightStatus statusAt(FlightRecord flight, long now) {
+        if (now < flight.getDeparture().getEffectiveEpoch()) {
+            return FlightStatus.SCHEDULED;
+        } else if (now > flight.getArrival().getEffectiveEpoch()) {
+            return FlightStatus.LANDED;
+        }
+        return FlightStatus.ACTIVE;
+    }
+
+    private static boolean isTimeDriven(FlightRecord flight) {
+        return flight.getDeparture() != null && flight.getArrival() != null
+                && flight.getDeparture().getScheduledEpoch() != FlightTimes.NONE
+                && flight.getArrival().getScheduledEpoch() != FlightTimes.NONE
+                && !FIXED_STATUSES.contains(flight.getStatus());
+    }
+
+    private static long nowEpochSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private record Transition(long at, String flightKey) implements Comparable<Transition> {
+        @Override
+        public int compareTo(Transition other) {
+            return Long.compare(at, other.at);
+        }
+    }
+}
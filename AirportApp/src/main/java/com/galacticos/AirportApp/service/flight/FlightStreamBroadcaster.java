@@ -0,0 +1,254 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightChanges;
+import com.galacticos.AirportApp.model.FlightPositions;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stream SSE de cambios de vuelos. Cada cambio de snapshot se convierte una sola vez en un
+// evento "delta" (vuelos añadidos, modificados y eliminados) ya serializado, y ese mismo
+// evento se reparte a todos los clientes. Al conectar se envía el snapshot completo y cada
+// position-interval-ms un evento "positions" con los vuelos en el aire.
+// Cada cliente tiene su propia cola y se le escribe desde un hilo virtual, así que un cliente
+// lento no retrasa a los demás; si acumula demasiados eventos se le desconecta y al
+// reconectar recibe de nuevo el snapshot completo.
+// Un cliente nuevo se registra antes de leer el snapshot, así que no pierde ningún cambio; los
+// "delta" que lleguen antes de enviarle el snapshot se descartan si este ya los incluye.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightStreamBroadcaster {
+
+    // Versión de los eventos que no dependen del snapshot (posiciones): nunca se descartan
+    private static final long UNVERSIONED = Long.MAX_VALUE;
+
+    private final FlightSnapshotCache snapshotCache;
+    private final FlightProperties flightProperties;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final FlightVersionHistory versionHistory;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Último snapshot completo serializado: los clientes que conectan a la vez lo comparten
+    private volatile SerializedSnapshot lastFullSnapshot;
+
+    private Counter droppedClients;
+
+    @PostConstruct
+    public void registerMetrics() {
+        droppedClients = meterRegistry.counter("flights.stream.dropped");
+        Gauge.builder("flights.stream.clients", clients, Set::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(Client::close);
+        sender.shutdownNow();
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(flightProperties.getStream().getTimeoutMs());
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(client::close);
+        emitter.onError(error -> client.close());
+        clients.add(client);
+
+        // Si aún no hay snapshot, el primer "delta" traerá todos los vuelos como añadidos
+        FlightSnapshot snapshot = snapshotCache.current();
+        if (snapshot != null) {
+            client.start(fullSnapshot(snapshot), snapshot.getVersion());
+        } else {
+            client.start(null, Long.MIN_VALUE);
+        }
+        log.debug("Cliente SSE conectado ({} en total)", clients.size());
+        return emitter;
+    }
+
+    // Antes que FlightStatusEngine: sus cambios publican eventos anidados que deben salir después
+    @EventListener
+    @Order(2)
+    public void onSnapshotChanged(FlightSnapshotChangedEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        FlightChanges changes = versionHistory.changesOf(event);
+        if (!changes.isEmpty()) {
+            long now = nowEpochSecond();
+            long version = event.current().getVersion();
+            broadcast(event("delta", new FlightDelta(withPositions(changes.added(), now),
+                    withPositions(changes.updated(), now), changes.removed(), version)), version);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${flights.stream.position-interval-ms:5000}")
+    public void publishPositions() {
+        FlightSnapshot snapshot = snapshotCache.current();
+        if (clients.isEmpty() || snapshot == null) {
+            return;
+        }
+        long now = nowEpochSecond();
+        List<PositionUpdate> positions = new ArrayList<>();
+        for (FlightRecord flight : snapshot.getFlights()) {
+            FlightRecord.Live live = FlightPositions.positionAt(flight, now);
+            if (live != null && flight.getKey() != null) {
+                positions.add(new PositionUpdate(flight.getKey(), live));
+            }
+        }
+        broadcast(event("positions", positions), UNVERSIONED);
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> fullSnapshot(FlightSnapshot snapshot) {
+        SerializedSnapshot cached = lastFullSnapshot;
+        if (cached == null || cached.snapshot() != snapshot) {
+            long now = nowEpochSecond();
+            List<FlightRecord> flights = withPositions(snapshot.getIndex().all(), now);
+            cached = new SerializedSnapshot(snapshot, event("snapshot",
+                    new SnapshotPayload(snapshot.getSource(), flights, snapshot.getVersion())));
+            lastFullSnapshot = cached;
+        }
+        return cached.event();
+    }
+
+    private static List<FlightRecord> withPositions(List<FlightRecord> flights, long now) {
+        return flights.stream().map(flight -> FlightPositions.withPosition(flight, now)).toList();
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> event, long version) {
+        for (Client client : clients) {
+            client.offer(new Queued(event, version));
+        }
+    }
+
+    // Serializa el payload una sola vez; el conjunto resultante se comparte entre todos los clientes
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String name, Object payload) {
+        return SseEmitter.event()
+                .name(name)
+                .data(jsonMapper.writeValueAsString(payload), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private static long nowEpochSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    record FlightDelta(List<FlightRecord> added, List<FlightRecord> updated, List<String> removed, long version) {
+    }
+
+    record SnapshotPayload(String source, List<FlightRecord> flights, long version) {
+    }
+
+    record PositionUpdate(String flight, FlightRecord.Live live) {
+    }
+
+    private record Queued(Set<ResponseBodyEmitter.DataWithMediaType> event, long version) {
+    }
+
+    private record SerializedSnapshot(FlightSnapshot snapshot, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+    }
+
+    private final class Client {
+
+        private final SseEmitter emitter;
+        private final Deque<Queued> queue = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // No se envía nada hasta tener el snapshot inicial en cabeza de la cola
+        private volatile boolean started;
+        // Versión del snapshot inicial: los "delta" que no son posteriores ya están en él
+        private volatile long snapshotVersion = Long.MIN_VALUE;
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Queued event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > flightProperties.getStream().getMaxQueuedEvents()) {
+                droppedClients.increment();
+                log.debug("Cliente SSE desconectado por no consumir los eventos");
+                close();
+                return;
+            }
+            queue.add(event);
+            if (started) {
+                drain();
+            }
+        }
+
+        // El snapshot inicial va por delante de los eventos que llegaron mientras se leía
+        void start(Set<ResponseBodyEmitter.DataWithMediaType> snapshot, long version) {
+            snapshotVersion = version;
+            if (snapshot != null) {
+                queued.incrementAndGet();
+                queue.addFirst(new Queued(snapshot, UNVERSIONED));
+            }
+            started = true;
+            drain();
+        }
+
+        private void drain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::sendQueued);
+            }
+        }
+
+        private void sendQueued() {
+            try {
+                Queued event;
+                while (!closed && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (event.version() == UNVERSIONED || event.version() > snapshotVersion) {
+                        emitter.send(event.event());
+                    }
+                }
+            } catch (Exception e) {
+                close();
+            } finally {
+                draining.set(false);
+                // Puede haber llegado un evento entre el último poll y liberar el flag
+                if (!closed && !queue.isEmpty()) {
+                    drain();
+                }
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                queue.clear();
+                clients.remove(this);
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightChanges;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Historial de las últimas versiones del snapshot con los vuelos que cambiaron en cada una.
+// Es el único sitio donde se calcula el diff de cada cambio: lo reutilizan el stream SSE y
+// las consultas ?sinceVersion=. Se ejecuta antes que el resto de listeners del evento.
+@Component
+@RequiredArgsConstructor
+public class FlightVersionHistory {
+
+    private final FlightProperties flightProperties;
+
+    // Versión -> cambio, en orden de llegada. Protegido por this.
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+
+    @EventListener
+    @Order(1)
+    public void onSnapshotChanged(FlightSnapshotChangedEvent event) {
+        FlightSnapshot previous = event.previous();
+        FlightChanges changes = FlightChanges.between(previous, event.current());
+        // Sin snapshot anterior la cadena de versiones empieza aquí
+        long previousVersion = previous != null ? previous.getVersion() : -1;
+        synchronized (this) {
+            entries.put(event.current().getVersion(), new Entry(previousVersion, changes));
+            int maxEntries = flightProperties.getCache().getHistoryVersions();
+            Iterator<Long> eldest = entries.keySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    // Cambios que produjeron esta versión (calculándolos si ya no están en el historial)
+    public FlightChanges changesOf(FlightSnapshotChangedEvent event) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(event.current().getVersion());
+        }
+        return entry != null ? entry.changes() : FlightChanges.between(event.previous(), event.current());
+    }
+
+    // Vuelos que cambiaron desde sinceVersion hasta el snapshot actual, o null si la versión
+    // ya no está en el historial (o no existe) y hay que enviar el snapshot completo
+    public FlightChanges changesSince(long sinceVersion, FlightSnapshot current) {
+        if (sinceVersion == current.getVersion()) {
+            return new FlightChanges(List.of(), List.of(), List.of());
+        }
+
+        Set<String> keys = new HashSet<>();
+        synchronized (this) {
+            long version = current.getVersion();
+            while (version != sinceVersion) {
+                Entry entry = entries.get(version);
+                if (entry == null || version < sinceVersion) {
+                    return null;
+                }
+                entry.changes().added().forEach(flight -> keys.add(flight.getKey()));
+                entry.changes().updated().forEach(flight -> keys.add(flight.getKey()));
+                keys.addAll(entry.changes().removed());
+                version = entry.previousVersion();
+            }
+        }
+
+        // El estado final de cada vuelo se toma del snapshot actual
+        List<FlightRecord> updated = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (String key : keys) {
+            FlightRecord flight = current.find(key);
+            if (flight != null) {
+                updated.add(flight);
+            } else if (key != null) {
+                removed.add(key);
+            }
+        }
+        return new FlightChanges(List.of(), updated, removed);
+    }
+
+    private record Entry(long previousVersion, FlightChanges changes) {
+    }
+}
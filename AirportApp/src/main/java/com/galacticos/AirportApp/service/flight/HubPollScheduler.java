@@ -0,0 +1,47 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.client.AviationStackBudget;
+import com.galacticos.AirportApp.config.ApiProperties;
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Refresco de AviationStack: cada vez que el presupuesto deja una petición libre se consulta un
+// único hub (el de más tráfico x antigüedad) y se mezcla en el snapshot, en vez de recargar
+// todos los hubs de golpe. Es el refresco normal: con el presupuesto repartido a lo largo del
+// mes sale un hub cada pocos minutos. Solo se consulta mientras alguien esté mirando los vuelos
+// y sin tocar las poll-reserve-requests peticiones reservadas para un /refresh.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HubPollScheduler {
+
+    private final FlightDataLoader loader;
+    private final FlightSnapshotCache snapshotCache;
+    private final AviationStackBudget budget;
+    private final ApiProperties apiProperties;
+    private final FlightProperties flightProperties;
+
+    @Scheduled(fixedDelayString = "${api.aviationstack.poll-check-interval-ms:15000}")
+    public void poll() {
+        FlightSnapshot snapshot = snapshotCache.current();
+        if (snapshot == null
+                || !loader.refreshesIncrementally(snapshot)
+                || snapshotCache.refreshing()
+                || System.currentTimeMillis() - snapshotCache.lastAccess() > flightProperties.getCache().getTtlMs()
+                || !budget.available(apiProperties.getAviationstack().getPollReserveRequests())) {
+            return;
+        }
+        try {
+            FlightDataLoader.HubFlights result = loader.fetchNextHub();
+            if (result != null) {
+                snapshotCache.mergeHub(result.hub(), result.flights());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error en el refresco incremental de vuelos: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.model.AirportRegistry;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightStatus;
+import com.galacticos.AirportApp.model.FlightTimes;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Generador determinista de un día de operaciones sobre el registro de aeropuertos, para pruebas
+// de carga y capacidad. Con la misma semilla y el mismo día produce siempre los mismos vuelos
+// (rutas, aerolíneas, horarios y retrasos); solo el estado depende del instante "now", con la
+// misma regla que FlightStatusEngine, y la posición de los vuelos activos la calcula
+// FlightPositions al servirlos.
+// No depende de Spring: los benchmarks pueden llamar a generate() directamente.
+public final class MockFlightGenerator {
+
+    private static final double CRUISE_SPEED_KMH = 780;
+    private static final int TAXI_MINUTES = 25;
+    private static final double DELAY_PROBABILITY = 0.25;
+    private static final double DELAY_MEAN_MINUTES = 20;
+    private static final int MAX_DELAY_MINUTES = 180;
+    private static final double CANCEL_PROBABILITY = 0.015;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Salidas por hora local: casi nada de madrugada, picos a primera hora y a última de la tarde
+    private static final int[] HOURLY_WEIGHTS = {
+            1, 1, 1, 1, 2, 8, 22, 30, 28, 22, 18, 17, 17, 18, 18, 19, 22, 26, 27, 23, 18, 13, 8, 3
+    };
+
+    // Aerolíneas de bandera por país y de bajo coste que operan en cualquier ruta europea
+    private static final List<Carrier> CARRIERS = List.of(
+            Carrier.of("Iberia", "IB", "ES"), Carrier.of("Vueling", "VY", "ES"), Carrier.of("Air Europa", "UX", "ES"),
+            Carrier.of("British Airways", "BA", "GB"), Carrier.of("Air France", "AF", "FR"),
+            Carrier.of("Lufthansa", "LH", "DE"), Carrier.of("Eurowings", "EW", "DE"),
+            Carrier.of("ITA Airways", "AZ", "IT"), Carrier.of("KLM", "KL", "NL"),
+            Carrier.of("Brussels Airlines", "SN", "BE"), Carrier.of("Swiss", "LX", "CH"),
+            Carrier.of("Austrian", "OS", "AT"), Carrier.of("TAP Portugal", "TP", "PT"),
+            Carrier.of("SAS", "SK", "DK"), Carrier.of("SAS", "SK", "SE"), Carrier.of("Norwegian", "DY", "NO"),
+            Carrier.of("Finnair", "AY", "FI"), Carrier.of("LOT", "LO", "PL"), Carrier.of("Aegean", "A3", "GR"),
+            Carrier.of("Aer Lingus", "EI", "IE"), Carrier.of("Turkish Airlines", "TK", "TR"),
+            Carrier.of("Emirates", "EK", "AE"), Carrier.of("Qatar Airways", "QR", "QA"),
+            Carrier.of("Delta", "DL", "US"), Carrier.of("Air Canada", "AC", "CA")
+    );
+    private static final List<Carrier> LOW_COST = List.of(
+            Carrier.of("Ryanair", "FR", null), Carrier.of("easyJet", "U2", null), Carrier.of("Wizz Air", "W6", null)
+    );
+    private static final double LOW_COST_SHARE = 0.35;
+
+    private MockFlightGenerator() {
+    }
+
+    public static List<FlightRecord> generate(long seed, int count, LocalDate day, long nowEpochSecond) {
+        // Mezcla la semilla con el día: cada día tiene su programación, y es siempre la misma
+        SplittableRandom random = new SplittableRandom(seed ^ (day.toEpochDay() * 0x9E3779B97F4A7C15L));
+        long dayStart = FlightTimes.toEpochSecond(day.atStartOfDay());
+        long epochDay = day.toEpochDay();
+
+        double[] airportWeights = cumulativeAirportWeights();
+        double[] hourWeights = cumulative(Arrays.stream(HOURLY_WEIGHTS).asDoubleStream().toArray());
+        Map<String, Integer> nextNumber = new HashMap<>();
+        List<FlightRecord> flights = new ArrayList<>(count);
+
+        while (flights.size() < count) {
+            int from = pick(airportWeights, random);
+            int to = pick(airportWeights, random);
+            // Solo rutas con al menos un extremo europeo, como los datos reales que se cargan
+            if (from == to || (AirportRegistry.region(from) != AirportRegistry.Region.EUROPE
+                    && AirportRegistry.region(to) != AirportRegistry.Region.EUROPE)) {
+                continue;
+            }
+
+            Carrier carrier = carrier(from, to, random);
+            int number = nextNumber.merge(carrier.iata(), 1 + random.nextInt(7), Integer::sum) + 100;
+
+            long departure = dayStart + pick(hourWeights, random) * 3600L + random.nextInt(12) * 300L;
+            long arrival = departure + blockMinutes(from, to, random) * 60L;
+            boolean cancelled = random.nextDouble() < CANCEL_PROBABILITY;
+            int delay = !cancelled && random.nextDouble() < DELAY_PROBABILITY ? delayMinutes(random) : 0;
+
+            flights.add(FlightRecord.builder()
+                    .flightDateEpochDay(epochDay)
+                    .status(cancelled ? FlightStatus.CANCELLED
+                            : statusAt(departure + delay * 60L, arrival + delay * 60L, nowEpochSecond))
+                    .flight(FlightRecord.FlightInfo.builder()
+                            .number(String.valueOf(number))
+                            .iata(carrier.iata() + number)
+                            .build())
+                    .airline(FlightRecord.Airline.builder()
+                            .name(carrier.name())
+                            .iata(carrier.iata())
+                            .build())
+                    .departure(endpoint(from, departure, delay))
+                    .arrival(endpoint(to, arrival, delay))
+                    .build());
+        }
+        return flights;
+    }
+
+    private static FlightRecord.Endpoint endpoint(int airport, long scheduled, int delay) {
+        return FlightRecord.Endpoint.builder()
+                .airport(AirportRegistry.name(airport))
+                .iata(AirportRegistry.iata(airport))
+                .delay(delay > 0 ? delay : null)
+                .scheduledEpoch(scheduled)
+                .estimatedEpoch(delay > 0 ? scheduled + delay * 60L : FlightTimes.NONE)
+                .build();
+    }
+
+    // Misma regla que FlightStatusEngine (sobre las horas estimadas) para que el motor no los
+    // cambie nada más cargarlos
+    private static FlightStatus statusAt(long departure, long arrival, long now) {
+        if (now < departure) {
+            return FlightStatus.SCHEDULED;
+        }
+        return now > arrival ? FlightStatus.LANDED : FlightStatus.ACTIVE;
+    }
+
+    // Tiempo de bloque: rodaje más vuelo a velocidad de crucero, redondeado a 5 minutos
+    private static int blockMinutes(int from, int to, SplittableRandom random) {
+        double minutes = TAXI_MINUTES + distanceKm(from, to) / CRUISE_SPEED_KMH * 60 + random.nextInt(-5, 11);
+        return Math.max(30, (int) Math.round(minutes / 5) * 5);
+    }
+
+    // Retraso con cola exponencial: la mayoría son cortos y unos pocos de horas
+    private static int delayMinutes(SplittableRandom random) {
+        double minutes = 5 - DELAY_MEAN_MINUTES * Math.log(1 - random.nextDouble());
+        return Math.min(MAX_DELAY_MINUTES, (int) Math.round(minutes));
+    }
+
+    private static Carrier carrier(int from, int to, SplittableRandom random) {
+        boolean european = AirportRegistry.region(from) == AirportRegistry.Region.EUROPE
+                && AirportRegistry.region(to) == AirportRegistry.Region.EUROPE;
+        if (european && random.nextDouble() < LOW_COST_SHARE) {
+            return LOW_COST.get(random.nextInt(LOW_COST.size()));
+        }
+        // Aerolínea de bandera del país de salida o de llegada
+        String country = random.nextBoolean() ? AirportRegistry.country(from) : AirportRegistry.country(to);
+        List<Carrier> candidates = CARRIERS.stream().filter(carrier -> carrier.country().equals(country)).toList();
+        if (candidates.isEmpty()) {
+            String other = country.equals(AirportRegistry.country(from)) ? AirportRegistry.country(to) : AirportRegistry.country(from);
+            candidates = CARRIERS.stream().filter(carrier -> carrier.country().equals(other)).toList();
+        }
+        if (candidates.isEmpty()) {
+            return european ? LOW_COST.get(random.nextInt(LOW_COST.size())) : CARRIERS.get(random.nextInt(CARRIERS.size()));
+        }
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    private static double distanceKm(int from, int to) {
+        double lat1 = Math.toRadians(AirportRegistry.latitude(from));
+        double lat2 = Math.toRadians(AirportRegistry.latitude(to));
+        double deltaLat = lat2 - lat1;
+        double deltaLon = Math.toRadians(AirportRegistry.longitude(to) - AirportRegistry.longitude(from));
+        double a = Math.pow(Math.sin(deltaLat / 2), 2) + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(deltaLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static double[] cumulativeAirportWeights() {
+        double[] weights = new double[AirportRegistry.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = AirportRegistry.trafficWeight(i);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    // Índice elegido con probabilidad proporcional a su peso (búsqueda binaria en los acumulados)
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private record Carrier(String name, String iata, String country) {
+        static Carrier of(String name, String iata, String country) {
+            return new Carrier(FlightRecord.name(name), FlightRecord.code(iata), country);
+        }
+    }
+}
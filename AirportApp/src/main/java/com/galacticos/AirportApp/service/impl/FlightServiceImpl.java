@@ -1,361 +1,428 @@
 package com.galacticos.AirportApp.service.impl;
 
+import com.galacticos.AirportApp.client.AmadeusClient;
 import com.galacticos.AirportApp.config.ApiProperties;
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.dto.request.FlightQueryRequest;
+import com.galacticos.AirportApp.dto.response.ConnectionResponse;
+import com.galacticos.AirportApp.dto.response.FlightOfferCalendarResponse;
+import com.galacticos.AirportApp.dto.response.FlightOfferResponse;
 import com.galacticos.AirportApp.dto.response.FlightResponse;
+import com.galacticos.AirportApp.dto.response.FlightStatsResponse;
+import com.galacticos.AirportApp.exception.ResourceNotFoundException;
+import com.galacticos.AirportApp.model.*;
 import com.galacticos.AirportApp.service.FlightService;
+import com.galacticos.AirportApp.service.flight.AirportBoards;
+import com.galacticos.AirportApp.service.flight.AmadeusTokenManager;
+import com.galacticos.AirportApp.service.flight.FlightArchive;
+import com.galacticos.AirportApp.service.flight.FlightOfferCache;
+import com.galacticos.AirportApp.service.flight.FlightOfferFanOut;
+import com.galacticos.AirportApp.service.flight.FlightOfferRanker;
+import com.galacticos.AirportApp.service.flight.FlightResponseCache;
+import com.galacticos.AirportApp.service.flight.FlightSnapshotCache;
+import com.galacticos.AirportApp.service.flight.FlightStreamBroadcaster;
+import com.galacticos.AirportApp.service.flight.FlightVersionHistory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FlightServiceImpl implements FlightService {
 
-    private final RestTemplate restTemplate;
     private final ApiProperties apiProperties;
-
-    // Cache en memoria para vuelos (simula sessionStorage del frontend)
-    private final Map<String, CachedFlights> flightCache = new ConcurrentHashMap<>();
-    private static final String CACHE_KEY = "flight_tracker_data";
-
-    // Amadeus token cache
-    private String amadeusAccessToken;
-    private long amadeusTokenExpiry = 0;
-
-    // Lista de aeropuertos europeos principales
-    private static final List<String> EUROPEAN_AIRPORTS = Arrays.asList(
-            "MAD", "BCN", "AGP", "PMI", "VLC", "SVQ", "BIO", "ALC", "TFS", "LPA",
-            "LHR", "LGW", "MAN", "STN", "LTN", "EDI", "BHX", "GLA", "BRS",
-            "CDG", "ORY", "NCE", "LYS", "MRS", "TLS", "BOD", "NTE",
-            "FRA", "MUC", "TXL", "BER", "DUS", "HAM", "CGN", "STR", "LEJ",
-            "FCO", "MXP", "LIN", "VCE", "NAP", "BGY", "CIA", "BLQ", "PSA", "CTA",
-            "AMS", "RTM", "EIN", "BRU", "CRL", "ZRH", "GVA", "BSL", "VIE",
-            "LIS", "OPO", "FAO", "CPH", "ARN", "OSL", "HEL", "BGO", "GOT",
-            "WAW", "PRG", "BUD", "OTP", "SOF", "BEG", "ATH", "SKG", "HER", "RHO",
-            "DUB", "ORK", "SNN", "ZAG", "LJU", "RIX", "TLL", "VNO", "KRK", "KTW", "GDN", "BTS"
-    );
+    private final FlightProperties flightProperties;
+    private final FlightSnapshotCache snapshotCache;
+    private final FlightOfferCache offerCache;
+    private final FlightOfferFanOut offerFanOut;
+    private final FlightResponseCache responseCache;
+    private final FlightStreamBroadcaster streamBroadcaster;
+    private final FlightVersionHistory versionHistory;
+    private final AmadeusTokenManager amadeusTokenManager;
+    private final AmadeusClient amadeusClient;
+    private final FlightArchive flightArchive;
+    private final AirportBoards airportBoards;
+
+    private static final int MAX_OFFER_LIMIT = 250;
+    private static final int MAX_STATS_DAYS = 366;
+    private static final int DEFAULT_BOARD_ROWS = 50;
+    private static final int MAX_BOARD_ROWS = 500;
 
     @Override
-    public FlightResponse getAllFlights(boolean forceRefresh) {
+    public FlightResponse<FlightRecord> getAllFlights(boolean forceRefresh, FlightQueryRequest query) {
         log.info("Obteniendo vuelos. ForceRefresh: {}", forceRefresh);
 
-        // Verificar cache
-        if (!forceRefresh && flightCache.containsKey(CACHE_KEY)) {
-            CachedFlights cached = flightCache.get(CACHE_KEY);
-            if (!cached.isExpired()) {
-                log.info("Retornando {} vuelos desde cache", cached.getFlights().size());
-                List<Map<String, Object>> updatedFlights = updateFlightStates(cached.getFlights());
-                return buildResponse(updatedFlights, true, "cache");
+        FlightSnapshotCache.Lookup lookup = snapshotCache.get(forceRefresh);
+        FlightSnapshot snapshot = lookup.snapshot();
+        String source = lookup.fromCache() ? "cache" : snapshot.getSource();
+        if (lookup.fromCache()) {
+            log.info("Retornando {} vuelos desde cache{}", snapshot.size(), lookup.stale() ? " (caducada, refrescando)" : "");
+        }
+
+        // Los estados ya los mantiene FlightStatusEngine: la lectura es directa sobre los índices.
+        // La posición de los vuelos en el aire se calcula para el instante de la petición, redondeado
+        // a positions.granularity-ms para que la misma versión dé la misma respuesta (y el mismo ETag).
+        long now = positionsEpoch();
+        FlightQuery flightQuery = toFlightQuery(query, now);
+        FlightResponse<FlightRecord> response;
+        if (query != null && query.getSinceVersion() != null) {
+            if (!flightQuery.isUnfiltered()) {
+                throw new IllegalArgumentException("sinceVersion no se puede combinar con filtros, orden ni paginación");
             }
+            response = buildDeltaResponse(snapshot, query.getSinceVersion(), now, lookup.fromCache(), source);
+        } else if (flightQuery.isUnfiltered()) {
+            // La respuesta completa se comparte (y se serializa una sola vez) mientras no cambie la clave
+            FlightResponseCache.Key key = new FlightResponseCache.Key(snapshot.getVersion(), now, source,
+                    lookup.fromCache(), lookup.stale());
+            return responseCache.get(key, () -> describe(
+                    buildResponse(withPositions(snapshot.getIndex().all(), now), lookup.fromCache(), source),
+                    snapshot, now, lookup.stale()));
+        } else {
+            FlightIndex.Page page = snapshot.getIndex().query(flightQuery);
+            response = FlightResponse.<FlightRecord>builder()
+                    .data(withPositions(page.flights(), now))
+                    .pagination(FlightResponse.Pagination.builder()
+                            .limit(flightQuery.getLimit() > 0 ? flightQuery.getLimit() : page.flights().size())
+                            .offset(page.offset())
+                            .count(page.flights().size())
+                            .total(page.total())
+                            .nextCursor(page.nextCursor())
+                            .build())
+                    .fromStorage(lookup.fromCache())
+                    .source(source)
+                    .build();
         }
+        return describe(response, snapshot, now, lookup.stale());
+    }
 
-        // Detectar automáticamente si hay API key de AviationStack
-        if (!apiProperties.hasValidAviationstackKey()) {
-            log.info("⚠️ No hay API key de AviationStack configurada - Usando datos MOCK");
-            List<Map<String, Object>> mockFlights = generateMockFlights();
-            cacheFlights(mockFlights);
-            return buildResponse(mockFlights, false, "mock-data");
+    private static FlightResponse<FlightRecord> describe(FlightResponse<FlightRecord> response, FlightSnapshot snapshot,
+                                                         long positionsEpoch, boolean stale) {
+        response.setStale(stale);
+        response.setVersion(snapshot.getVersion());
+        response.setPositionsEpoch(positionsEpoch);
+        return response;
+    }
+
+    // Cambios desde sinceVersion; si esa versión ya no está en el historial se envía todo
+    private FlightResponse<FlightRecord> buildDeltaResponse(FlightSnapshot snapshot, long sinceVersion, long now,
+                                                            boolean fromStorage, String source) {
+        FlightChanges changes = versionHistory.changesSince(sinceVersion, snapshot);
+        if (changes == null) {
+            log.info("Versión {} fuera del historial, se devuelven todos los vuelos", sinceVersion);
+            return buildResponse(withPositions(snapshot.getIndex().all(), now), fromStorage, source);
         }
+        FlightResponse<FlightRecord> response = buildResponse(withPositions(changes.updated(), now), fromStorage, source);
+        response.setDelta(true);
+        response.setRemoved(changes.removed());
+        return response;
+    }
 
-        // Obtener datos reales de AviationStack
-        log.info("✅ API key de AviationStack detectada - Obteniendo vuelos reales");
-        try {
-            List<Map<String, Object>> flights = fetchFromAviationStack();
-            cacheFlights(flights);
-            return buildResponse(flights, false, "aviationstack-api");
-        } catch (Exception e) {
-            log.error("Error obteniendo vuelos de AviationStack: {}", e.getMessage());
-            // Fallback a mock data
-            List<Map<String, Object>> mockFlights = generateMockFlights();
-            cacheFlights(mockFlights);
-            return buildResponse(mockFlights, false, "mock-fallback");
+    private long positionsEpoch() {
+        long granularityMs = Math.max(1000, flightProperties.getPositions().getGranularityMs());
+        return System.currentTimeMillis() / granularityMs * granularityMs / 1000;
+    }
+
+    @Override
+    public FlightRecord getFlight(String iata) {
+        String key = FlightRecord.code(iata);
+        FlightRecord flight = snapshotCache.get(false).snapshot().find(key);
+        if (flight == null) {
+            throw new ResourceNotFoundException("Vuelo no encontrado: " + iata);
         }
+        return FlightPositions.withPosition(flight, System.currentTimeMillis() / 1000);
     }
 
     @Override
-    public FlightResponse searchFlightOffers(String origin, String destination, String departureDate, int adults, String cabinClass) {
-        log.info("Buscando ofertas: {} -> {} en {}", origin, destination, departureDate);
+    public SseEmitter streamFlights() {
+        return streamBroadcaster.subscribe();
+    }
 
-        // Detectar automáticamente si hay credenciales de Amadeus
-        if (!apiProperties.hasValidAmadeusCredentials()) {
-            log.info("⚠️ No hay credenciales de Amadeus configuradas - Usando ofertas MOCK");
-            return buildResponse(generateMockOffers(origin, destination, departureDate), false, "mock-offers");
-        }
+    @Override
+    public FlightResponse<FlightRecord> getDepartures(String iata, String from, String to, Integer limit, String cursor) {
+        return getBoard(iata, AirportBoards.Direction.DEPARTURES, from, to, limit, cursor);
+    }
 
-        log.info("✅ Credenciales de Amadeus detectadas - Buscando ofertas reales");
-        try {
-            String token = getAmadeusAccessToken();
-            return fetchFlightOffersFromAmadeus(token, origin, destination, departureDate, adults, cabinClass);
-        } catch (Exception e) {
-            log.error("Error buscando ofertas en Amadeus: {}", e.getMessage());
-            return buildResponse(generateMockOffers(origin, destination, departureDate), false, "mock-fallback");
-        }
+    @Override
+    public FlightResponse<FlightRecord> getArrivals(String iata, String from, String to, Integer limit, String cursor) {
+        return getBoard(iata, AirportBoards.Direction.ARRIVALS, from, to, limit, cursor);
     }
 
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> fetchFromAviationStack() {
-        List<Map<String, Object>> allFlights = new ArrayList<>();
-        List<String> selectedHubs = selectRandomAirports(7);
+    private FlightResponse<FlightRecord> getBoard(String iata, AirportBoards.Direction direction, String from, String to,
+                                                  Integer limit, String cursor) {
+        String airport = requireIata(iata);
+        int rows = limit != null ? limit : DEFAULT_BOARD_ROWS;
+        if (rows < 1 || rows > MAX_BOARD_ROWS) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_BOARD_ROWS);
+        }
+        // Sin ventana: desde hace una hora (hora local, como los vuelos) y sin final
+        long fromEpoch = from != null && !from.isBlank()
+                ? parseWindowBound(from)
+                : FlightTimes.toEpochSecond(LocalDateTime.now().minusHours(1));
+        long toEpoch = to != null && !to.isBlank() ? parseWindowBound(to) : Long.MAX_VALUE;
+
+        // Asegura que hay snapshot (y lo refresca si ha caducado); los paneles se actualizan con él
+        FlightSnapshotCache.Lookup lookup = snapshotCache.get(false);
+        AirportBoards.Page page = airportBoards.board(airport, direction, fromEpoch, toEpoch, rows,
+                cursor != null && !cursor.isBlank() ? cursor : null);
+
+        // El total de la ventana no se calcula: obligaría a recorrerla entera
+        FlightResponse<FlightRecord> response = FlightResponse.<FlightRecord>builder()
+                .data(page.flights())
+                .pagination(FlightResponse.Pagination.builder()
+                        .limit(rows)
+                        .offset(0)
+                        .count(page.flights().size())
+                        .total(page.flights().size())
+                        .nextCursor(page.nextCursor())
+                        .build())
+                .fromStorage(lookup.fromCache())
+                .source(lookup.fromCache() ? "cache" : lookup.snapshot().getSource())
+                .stale(lookup.stale())
+                .version(lookup.snapshot().getVersion())
+                .build();
+        log.info("Panel de {} de {}: {} vuelos", direction.name().toLowerCase(), airport, page.flights().size());
+        return response;
+    }
 
-        log.info("Consultando vuelos desde: {}", selectedHubs);
+    @Override
+    public FlightResponse<ConnectionResponse> searchConnections(String origin, String destination, String departAfter, Integer maxLegs) {
+        log.info("Buscando conexiones: {} -> {} desde {}", origin, destination, departAfter);
+        FlightProperties.ConnectionsConfig config = flightProperties.getConnections();
+        String from = requireIata(origin);
+        String to = requireIata(destination);
+        int legs = maxLegs != null ? maxLegs : config.getMaxLegs();
+        if (legs < 1 || legs > config.getMaxLegs()) {
+            throw new IllegalArgumentException("maxLegs debe estar entre 1 y " + config.getMaxLegs());
+        }
+        // Sin hora se buscan salidas a partir de ahora (misma convención de hora local que los vuelos)
+        long after = departAfter == null || departAfter.isBlank()
+                ? FlightTimes.toEpochSecond(LocalDateTime.now())
+                : parseWindowBound(departAfter);
+
+        FlightSnapshotCache.Lookup lookup = snapshotCache.get(false);
+        FlightSnapshot snapshot = lookup.snapshot();
+        List<ConnectionResponse> itineraries = snapshot.getNetwork()
+                .earliestArrivals(from, to, after, legs, config.getMinConnectionMinutes() * 60L)
+                .stream()
+                .map(ConnectionResponse::fromItinerary)
+                .toList();
 
-        for (String hub : selectedHubs) {
-            if (allFlights.size() >= 40) break;
+        FlightResponse<ConnectionResponse> response = buildResponse(itineraries, lookup.fromCache(),
+                lookup.fromCache() ? "cache" : snapshot.getSource());
+        response.setStale(lookup.stale());
+        response.setVersion(snapshot.getVersion());
+        return response;
+    }
 
-            try {
-                String url = String.format("%s/flights?access_key=%s&dep_iata=%s&limit=15",
-                        apiProperties.getAviationstack().getBaseUrl(),
-                        apiProperties.getAviationstack().getApiKey(),
-                        hub);
+    @Override
+    public FlightStatsResponse getFlightStats(String flight, String route, String airline, String airport, String from, String to) {
+        Map<FlightArchive.Dimension, String> given = new EnumMap<>(FlightArchive.Dimension.class);
+        putIfPresent(given, FlightArchive.Dimension.FLIGHT, flight);
+        putIfPresent(given, FlightArchive.Dimension.ROUTE, route);
+        putIfPresent(given, FlightArchive.Dimension.AIRLINE, airline);
+        putIfPresent(given, FlightArchive.Dimension.AIRPORT, airport);
+        if (given.size() != 1) {
+            throw new IllegalArgumentException("Indique uno (y solo uno) de flight, route, airline o airport");
+        }
+        Map.Entry<FlightArchive.Dimension, String> query = given.entrySet().iterator().next();
+        if (query.getKey() == FlightArchive.Dimension.ROUTE && !query.getValue().matches("[A-Za-z]{3}-[A-Za-z]{3}")) {
+            throw new IllegalArgumentException("Ruta inválida: " + query.getValue() + ". Use ORIGEN-DESTINO (MAD-BCN)");
+        }
 
-                ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+        // Por defecto los últimos 30 días
+        LocalDate end = to != null && !to.isBlank() ? parseDay(to) : LocalDate.now();
+        LocalDate start = from != null && !from.isBlank() ? parseDay(from) : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_STATS_DAYS) {
+            throw new IllegalArgumentException("El rango no puede superar " + MAX_STATS_DAYS + " días");
+        }
 
-                if (response.getBody() != null && response.getBody().containsKey("data")) {
-                    List<Map<String, Object>> flights = (List<Map<String, Object>>) response.getBody().get("data");
+        log.info("Estadísticas de puntualidad: {} {} del {} al {}", query.getKey(), query.getValue(), start, end);
+        FlightDelayStats stats = flightArchive.stats(query.getKey(), query.getValue(), start, end);
+        return FlightStatsResponse.of(query.getKey().name().toLowerCase(), query.getValue().trim().toUpperCase(),
+                start.toString(), end.toString(), stats);
+    }
 
-                    // Filtrar vuelos europeos
-                    flights.stream()
-                            .filter(this::isValidEuropeanFlight)
-                            .forEach(allFlights::add);
+    private static void putIfPresent(Map<FlightArchive.Dimension, String> given, FlightArchive.Dimension dimension, String value) {
+        if (value != null && !value.isBlank()) {
+            given.put(dimension, value);
+        }
+    }
 
-                    log.info("Obtenidos {} vuelos desde {}", flights.size(), hub);
-                }
-            } catch (Exception e) {
-                log.warn("Error consultando {}: {}", hub, e.getMessage());
-            }
+    private static LocalDate parseDay(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida: " + value + ". Use YYYY-MM-DD");
         }
+    }
 
-        // Adaptar vuelos para hoy
-        return adaptFlightsToToday(allFlights.stream().limit(20).toList());
+    private static String requireIata(String iata) {
+        if (iata == null || !iata.trim().matches("[A-Za-z]{3}")) {
+            throw new IllegalArgumentException("Código IATA inválido: " + iata + ". Debe tener 3 letras");
+        }
+        return iata.trim().toUpperCase();
     }
 
-    private String getAmadeusAccessToken() {
-        if (amadeusAccessToken != null && System.currentTimeMillis() < amadeusTokenExpiry) {
-            return amadeusAccessToken;
+    @Override
+    public FlightResponse<FlightOfferResponse> searchFlightOffers(String origin, String destination, String departureDate,
+                                                                 int adults, String cabinClass, String sort, Integer limit) {
+        log.info("Buscando ofertas: {} -> {} en {}", origin, destination, departureDate);
+        FlightOfferRanker.Sort order = FlightOfferRanker.Sort.from(sort);
+        if (limit != null && (limit < 1 || limit > MAX_OFFER_LIMIT)) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_OFFER_LIMIT);
         }
 
-        log.info("Obteniendo token de Amadeus...");
+        // Las búsquedas idénticas se sirven desde cache o esperan a la que ya está en curso.
+        // La cache guarda todas las ofertas: el orden y el límite se aplican a cada petición.
+        FlightOfferCache.Key key = FlightOfferCache.Key.of(origin, destination, departureDate, adults, cabinClass);
+        FlightResponse<FlightOfferResponse> offers = offerCache.get(key, () -> loadFlightOffers(key),
+                FlightServiceImpl::isCacheableOffers);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        List<FlightOfferResponse> best = FlightOfferRanker.top(offers.getData(), order,
+                limit != null ? limit : offers.getData().size());
+        return offers.toBuilder()
+                .data(best)
+                .pagination(FlightResponse.Pagination.builder()
+                        .limit(limit != null ? limit : best.size())
+                        .offset(0)
+                        .count(best.size())
+                        .total(offers.getData().size())
+                        .build())
+                .build();
+    }
 
-        MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
-        body.add("grant_type", "client_credentials");
-        body.add("client_id", apiProperties.getAmadeus().getClientId());
-        body.add("client_secret", apiProperties.getAmadeus().getClientSecret());
+    @Override
+    public FlightOfferCalendarResponse searchFlexibleOffers(String origin, String destination, String departureDate,
+                                                           int flexDays, int adults, String cabinClass) {
+        int maxDays = flightProperties.getOffers().getFlexibleMaxDays();
+        if (flexDays < 0 || flexDays > maxDays) {
+            throw new IllegalArgumentException("Los días de flexibilidad deben estar entre 0 y " + maxDays);
+        }
+        String from = requireIata(origin);
+        String to = requireIata(destination);
+        LocalDate center = parseDay(departureDate);
+        // Amadeus no busca fechas pasadas: la ventana empieza como pronto hoy
+        LocalDate start = center.minusDays(flexDays);
+        LocalDate today = LocalDate.now();
+        if (start.isBefore(today)) {
+            start = today;
+        }
+        LocalDate end = center.plusDays(flexDays);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("La fecha de salida no puede ser anterior a hoy");
+        }
 
-        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
+        List<FlightOfferCache.Key> keys = start.datesUntil(end.plusDays(1))
+                .map(day -> FlightOfferCache.Key.of(from, to, day.toString(), adults, cabinClass))
+                .toList();
+        log.info("Búsqueda flexible de ofertas: {} -> {} del {} al {}", from, to, start, end);
+
+        // Cada día pasa por la cache de ofertas (los ya buscados no vuelven a Amadeus) y solo las
+        // llamadas reales esperan turno en el limitador de la búsqueda flexible
+        boolean upstream = apiProperties.hasValidAmadeusCredentials();
+        List<FlightResponse<FlightOfferResponse>> results = offerFanOut.searchAll(keys, key -> offerCache.get(key,
+                () -> upstream ? offerFanOut.throttled(() -> loadFlightOffers(key)) : loadFlightOffers(key),
+                FlightServiceImpl::isCacheableOffers));
+
+        List<FlightOfferCalendarResponse.Day> days = new ArrayList<>(keys.size());
+        FlightOfferCalendarResponse.Day cheapest = null;
+        for (int i = 0; i < keys.size(); i++) {
+            FlightOfferCalendarResponse.Day day = calendarDay(keys.get(i).departureDate(), results.get(i));
+            days.add(day);
+            // Los precios de un fallback mock no son reales y no compiten por el más barato
+            if (day.getMinPrice() != null && !"mock-fallback".equals(day.getSource())
+                    && (cheapest == null || day.getMinPrice().compareTo(cheapest.getMinPrice()) < 0)) {
+                cheapest = day;
+            }
+        }
 
-        ResponseEntity<Map> response = restTemplate.postForEntity(
-                apiProperties.getAmadeus().getAuthUrl(),
-                request,
-                Map.class
-        );
+        return FlightOfferCalendarResponse.builder()
+                .origin(from)
+                .destination(to)
+                .adults(adults)
+                .cabinClass(cabinClass.trim().toUpperCase())
+                .from(start.toString())
+                .to(end.toString())
+                .cheapestDate(cheapest != null ? cheapest.getDate() : null)
+                .cheapestPrice(cheapest != null ? cheapest.getMinPrice() : null)
+                .currency(cheapest != null ? cheapest.getCurrency() : null)
+                .days(days)
+                .build();
+    }
 
-        if (response.getBody() != null) {
-            amadeusAccessToken = (String) response.getBody().get("access_token");
-            int expiresIn = (Integer) response.getBody().get("expires_in");
-            amadeusTokenExpiry = System.currentTimeMillis() + (expiresIn - 300) * 1000L;
-            log.info("Token de Amadeus obtenido");
+    private static FlightOfferCalendarResponse.Day calendarDay(String date, FlightResponse<FlightOfferResponse> offers) {
+        if (offers == null) {
+            return FlightOfferCalendarResponse.Day.builder().date(date).available(false).build();
         }
+        List<FlightOfferResponse> best = FlightOfferRanker.top(offers.getData(), FlightOfferRanker.Sort.PRICE, 1);
+        FlightOfferResponse cheapest = best.isEmpty() ? null : best.getFirst();
+        return FlightOfferCalendarResponse.Day.builder()
+                .date(date)
+                .minPrice(cheapest != null ? cheapest.getPrice() : null)
+                .currency(cheapest != null ? cheapest.getCurrency() : null)
+                .offers(offers.getData().size())
+                .available(true)
+                .source(offers.getSource())
+                .stale(offers.isStale())
+                .build();
+    }
 
-        return amadeusAccessToken;
+    // Los fallbacks no se guardan para reintentar Amadeus en la siguiente búsqueda
+    private static boolean isCacheableOffers(FlightResponse<FlightOfferResponse> response) {
+        return !response.isStale() && !"mock-fallback".equals(response.getSource());
     }
 
-    @SuppressWarnings("unchecked")
-    private FlightResponse fetchFlightOffersFromAmadeus(String token, String origin, String destination,
-                                                         String departureDate, int adults, String cabinClass) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(token);
+    private FlightResponse<FlightOfferResponse> loadFlightOffers(FlightOfferCache.Key key) {
+        String origin = key.origin();
+        String destination = key.destination();
+        String departureDate = key.departureDate();
+        int adults = key.adults();
+        String cabinClass = key.cabinClass();
 
-        String url = String.format("%s/shopping/flight-offers?originLocationCode=%s&destinationLocationCode=%s" +
-                        "&departureDate=%s&adults=%d&travelClass=%s&max=10",
-                apiProperties.getAmadeus().getBaseUrl(),
-                origin, destination, departureDate, adults, cabinClass.toUpperCase());
+        // Detectar automáticamente si hay credenciales de Amadeus
+        if (!apiProperties.hasValidAmadeusCredentials()) {
+            log.info("⚠️ No hay credenciales de Amadeus configuradas - Usando ofertas MOCK");
+            return buildResponse(toOffers(generateMockOffers(origin, destination, departureDate)), false, "mock-offers");
+        }
 
-        HttpEntity<?> request = new HttpEntity<>(headers);
-        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, request, Map.class);
+        log.info("✅ Credenciales de Amadeus detectadas - Buscando ofertas reales");
+        try {
+            return amadeusTokenManager.execute(token ->
+                    fetchFlightOffersFromAmadeus(token, origin, destination, departureDate, adults, cabinClass));
+        } catch (Exception e) {
+            log.error("Error buscando ofertas en Amadeus: {}", e.getMessage());
+            // Primero el último resultado bueno de esta búsqueda (caducado) y, si no hay, mock
+            FlightResponse<FlightOfferResponse> lastGood = offerCache.lastGood(key);
+            if (lastGood != null) {
+                return lastGood.toBuilder().fromStorage(true).stale(true).build();
+            }
+            return buildResponse(toOffers(generateMockOffers(origin, destination, departureDate)), false, "mock-fallback");
+        }
+    }
 
-        if (response.getBody() != null && response.getBody().containsKey("data")) {
-            List<Map<String, Object>> offers = (List<Map<String, Object>>) response.getBody().get("data");
-            return buildResponse(offers, false, "amadeus-api");
+    private FlightResponse<FlightOfferResponse> fetchFlightOffersFromAmadeus(String token, String origin, String destination,
+                                                         String departureDate, int adults, String cabinClass) {
+        List<Map<String, Object>> offers = amadeusClient.searchOffers(token, origin, destination, departureDate, adults, cabinClass);
+        if (offers != null) {
+            return buildResponse(toOffers(offers), false, "amadeus-api");
         }
 
         return buildResponse(Collections.emptyList(), false, "amadeus-empty");
     }
 
-    private List<Map<String, Object>> generateMockFlights() {
-        List<Map<String, Object>> flights = new ArrayList<>();
-
-        String[][] routes = {
-                {"MAD", "BCN", "Madrid-Barajas", "Barcelona-El Prat", "Iberia", "IB"},
-                {"LHR", "CDG", "London Heathrow", "Paris CDG", "British Airways", "BA"},
-                {"FRA", "AMS", "Frankfurt", "Amsterdam Schiphol", "Lufthansa", "LH"},
-                {"FCO", "MUC", "Rome Fiumicino", "Munich", "Alitalia", "AZ"},
-                {"BCN", "LIS", "Barcelona-El Prat", "Lisbon", "Vueling", "VY"},
-                {"MAD", "LHR", "Madrid-Barajas", "London Heathrow", "Iberia", "IB"},
-                {"CDG", "FCO", "Paris CDG", "Rome Fiumicino", "Air France", "AF"},
-                {"AMS", "VIE", "Amsterdam Schiphol", "Vienna", "KLM", "KL"},
-                {"MUC", "ZRH", "Munich", "Zurich", "Lufthansa", "LH"},
-                {"LIS", "MAD", "Lisbon", "Madrid-Barajas", "TAP Portugal", "TP"},
-                {"BCN", "FRA", "Barcelona-El Prat", "Frankfurt", "Vueling", "VY"},
-                {"LHR", "AMS", "London Heathrow", "Amsterdam Schiphol", "British Airways", "BA"},
-                {"VIE", "PRG", "Vienna", "Prague", "Austrian", "OS"},
-                {"CPH", "ARN", "Copenhagen", "Stockholm Arlanda", "SAS", "SK"},
-                {"DUB", "EDI", "Dublin", "Edinburgh", "Ryanair", "FR"},
-                {"ATH", "FCO", "Athens", "Rome Fiumicino", "Aegean", "A3"},
-                {"WAW", "BER", "Warsaw", "Berlin Brandenburg", "LOT", "LO"},
-                {"BRU", "GVA", "Brussels", "Geneva", "Brussels Airlines", "SN"},
-                {"HEL", "OSL", "Helsinki", "Oslo", "Finnair", "AY"},
-                {"PMI", "DUS", "Palma de Mallorca", "Dusseldorf", "Eurowings", "EW"}
-        };
-
-        LocalTime now = LocalTime.now();
-        LocalDate today = LocalDate.now();
-        Random random = new Random(); // Sin seed para variación
-
-        // Distribuir vuelos: ~7 aterrizados, ~6 en curso, ~7 programados
-        for (int i = 0; i < routes.length; i++) {
-            String[] route = routes[i];
-            
-            // Calcular horarios RELATIVOS a la hora actual
-            LocalTime depTime;
-            LocalTime arrTime;
-            String status;
-            int flightDuration = 1 + (i % 3); // 1-3 horas de duración
-            
-            if (i < 7) {
-                // ATERRIZADOS: Salieron hace 2-5 horas, ya llegaron
-                int hoursAgo = 2 + (i % 4);
-                depTime = now.minusHours(hoursAgo).minusMinutes(random.nextInt(30));
-                arrTime = depTime.plusHours(flightDuration).plusMinutes(random.nextInt(30));
-                status = "landed";
-            } else if (i < 13) {
-                // EN CURSO: Salieron hace 0-2 horas, llegarán en 0-2 horas
-                int minutesAgo = 15 + (i - 7) * 20 + random.nextInt(15);
-                depTime = now.minusMinutes(minutesAgo);
-                arrTime = now.plusMinutes(10 + (i - 7) * 15 + random.nextInt(20));
-                status = "active";
-            } else {
-                // PROGRAMADOS: Saldrán en 0.5-4 horas
-                int minutesUntil = 30 + (i - 13) * 30 + random.nextInt(20);
-                depTime = now.plusMinutes(minutesUntil);
-                arrTime = depTime.plusHours(flightDuration).plusMinutes(random.nextInt(30));
-                status = "scheduled";
-            }
-            
-            String flightNum = route[5] + (1000 + i * 11);
-
-            Map<String, Object> flight = new LinkedHashMap<>();
-            flight.put("flight_date", today.toString());
-            flight.put("flight_status", status);
-
-            Map<String, Object> flightInfo = new LinkedHashMap<>();
-            flightInfo.put("number", String.valueOf(1000 + i * 11));
-            flightInfo.put("iata", flightNum);
-            flight.put("flight", flightInfo);
-
-            Map<String, Object> airline = new LinkedHashMap<>();
-            airline.put("name", route[4]);
-            airline.put("iata", route[5]);
-            flight.put("airline", airline);
-
-            Map<String, Object> departure = new LinkedHashMap<>();
-            departure.put("airport", route[2]);
-            departure.put("iata", route[0]);
-            departure.put("scheduled", today + "T" + depTime.withSecond(0).withNano(0) + ":00");
-            flight.put("departure", departure);
-
-            Map<String, Object> arrival = new LinkedHashMap<>();
-            arrival.put("airport", route[3]);
-            arrival.put("iata", route[1]);
-            arrival.put("scheduled", today + "T" + arrTime.withSecond(0).withNano(0) + ":00");
-            flight.put("arrival", arrival);
-
-            // Añadir datos live para vuelos ACTIVOS (necesario para el mapa)
-            if ("active".equals(status)) {
-                Map<String, Object> live = new LinkedHashMap<>();
-                
-                // Coordenadas de aeropuertos europeos para calcular posición
-                double[][] airportCoords = {
-                    {40.4168, -3.7038},   // MAD
-                    {41.2974, 2.0833},    // BCN
-                    {51.4700, -0.4543},   // LHR
-                    {49.0097, 2.5479},    // CDG
-                    {50.0379, 8.5622},    // FRA
-                    {52.3105, 4.7683},    // AMS
-                    {41.8003, 12.2389},   // FCO
-                    {48.3538, 11.7861},   // MUC
-                    {38.7742, -9.1342},   // LIS
-                    {48.1103, 16.5697},   // VIE
-                    {50.1008, 14.2600},   // PRG
-                    {55.6180, 12.6508},   // CPH
-                    {59.6519, 17.9186},   // ARN
-                    {53.4264, -6.2499},   // DUB
-                    {55.9500, -3.3725},   // EDI
-                    {37.9364, 23.9445},   // ATH
-                    {52.1657, 20.9671},   // WAW
-                    {52.3667, 13.5033},   // BER
-                    {50.9014, 4.4844},    // BRU
-                    {46.2370, 6.1092},    // GVA
-                    {60.3172, 24.9633},   // HEL
-                    {60.1939, 11.1004},   // OSL
-                    {39.5517, 2.7388},    // PMI
-                    {51.2895, 6.7668}     // DUS
-                };
-                
-                // Calcular progreso del vuelo (0.1 a 0.9)
-                double progress = 0.3 + (random.nextDouble() * 0.4);
-                
-                // Buscar coordenadas de origen y destino
-                String[] airports = {"MAD", "BCN", "LHR", "CDG", "FRA", "AMS", "FCO", "MUC", "LIS", "VIE", 
-                                    "PRG", "CPH", "ARN", "DUB", "EDI", "ATH", "WAW", "BER", "BRU", "GVA", 
-                                    "HEL", "OSL", "PMI", "DUS"};
-                
-                int depIdx = java.util.Arrays.asList(airports).indexOf(route[0]);
-                int arrIdx = java.util.Arrays.asList(airports).indexOf(route[1]);
-                
-                if (depIdx == -1) depIdx = 0;
-                if (arrIdx == -1) arrIdx = 1;
-                
-                double depLat = airportCoords[depIdx][0];
-                double depLng = airportCoords[depIdx][1];
-                double arrLat = airportCoords[arrIdx][0];
-                double arrLng = airportCoords[arrIdx][1];
-                
-                // Interpolar posición actual
-                double currentLat = depLat + (arrLat - depLat) * progress;
-                double currentLng = depLng + (arrLng - depLng) * progress;
-                
-                // Calcular dirección (heading)
-                double direction = Math.toDegrees(Math.atan2(arrLng - depLng, arrLat - depLat));
-                if (direction < 0) direction += 360;
-                
-                live.put("latitude", currentLat);
-                live.put("longitude", currentLng);
-                live.put("altitude", 35000 + random.nextInt(5000));
-                live.put("speed", 450 + random.nextInt(100));
-                live.put("direction", direction);
-                live.put("is_ground", false);
-                
-                flight.put("live", live);
-            }
-
-            flights.add(flight);
-        }
-
-        return flights;
+    private static List<FlightOfferResponse> toOffers(List<Map<String, Object>> offers) {
+        return offers.stream().map(FlightOfferResponse::fromAmadeus).toList();
     }
 
     private List<Map<String, Object>> generateMockOffers(String origin, String destination, String departureDate) {
@@ -370,7 +437,7 @@ public class FlightServiceImpl implements FlightService {
             offer.put("id", String.valueOf(i + 1));
 
             Map<String, Object> price = new LinkedHashMap<>();
-            price.put("total", String.format("%.2f", 50 + random.nextDouble() * 200));
+            price.put("total", String.format(Locale.ROOT, "%.2f", 50 + random.nextDouble() * 200));
             price.put("currency", "EUR");
             offer.put("price", price);
 
@@ -407,80 +474,84 @@ public class FlightServiceImpl implements FlightService {
         return offers;
     }
 
-    private List<String> selectRandomAirports(int count) {
-        List<String> shuffled = new ArrayList<>(EUROPEAN_AIRPORTS);
-        Collections.shuffle(shuffled);
-        return shuffled.subList(0, Math.min(count, shuffled.size()));
+    private List<FlightRecord> withPositions(List<FlightRecord> flights, long now) {
+        List<FlightRecord> positioned = null;
+        for (int i = 0; i < flights.size(); i++) {
+            FlightRecord flight = flights.get(i);
+            FlightRecord withPosition = FlightPositions.withPosition(flight, now);
+            if (withPosition != flight) {
+                if (positioned == null) {
+                    positioned = new ArrayList<>(flights);
+                }
+                positioned.set(i, withPosition);
+            }
+        }
+        return positioned != null ? positioned : flights;
     }
 
-    @SuppressWarnings("unchecked")
-    private boolean isValidEuropeanFlight(Map<String, Object> flight) {
-        try {
-            Map<String, Object> departure = (Map<String, Object>) flight.get("departure");
-            Map<String, Object> arrival = (Map<String, Object>) flight.get("arrival");
-            Map<String, Object> flightInfo = (Map<String, Object>) flight.get("flight");
+    private FlightQuery toFlightQuery(FlightQueryRequest request, long now) {
+        if (request == null) {
+            return FlightQuery.builder().build();
+        }
 
-            return departure != null && arrival != null && flightInfo != null
-                    && departure.get("iata") != null && arrival.get("iata") != null
-                    && EUROPEAN_AIRPORTS.contains(arrival.get("iata").toString().toUpperCase());
-        } catch (Exception e) {
-            return false;
+        String sort = request.getSort() != null ? request.getSort() : "departure";
+        boolean descending = sort.startsWith("-");
+        FlightStatus status = null;
+        if (request.getStatus() != null && !request.getStatus().isBlank()) {
+            status = FlightStatus.fromValue(request.getStatus());
+            if (status == FlightStatus.UNKNOWN && !"unknown".equalsIgnoreCase(request.getStatus())) {
+                throw new IllegalArgumentException("Estado de vuelo inválido: " + request.getStatus());
+            }
         }
-    }
 
-    private List<Map<String, Object>> adaptFlightsToToday(List<Map<String, Object>> flights) {
-        LocalDate today = LocalDate.now();
-        return flights.stream()
-                .map(flight -> {
-                    Map<String, Object> adapted = new LinkedHashMap<>(flight);
-                    adapted.put("flight_date", today.toString());
-                    return adapted;
-                })
-                .toList();
+        return FlightQuery.builder()
+                .departureIata(FlightRecord.code(request.getDepIata()))
+                .arrivalIata(FlightRecord.code(request.getArrIata()))
+                .airlineIata(FlightRecord.code(request.getAirline()))
+                .status(status)
+                .fromEpoch(parseWindowBound(request.getFrom()))
+                .toEpoch(parseWindowBound(request.getTo()))
+                .sortField(FlightQuery.SortField.valueOf(sort.substring(descending ? 1 : 0).toUpperCase()))
+                .descending(descending)
+                .limit(request.getLimit() != null ? request.getLimit() : 0)
+                .cursor(request.getCursor() != null && !request.getCursor().isBlank() ? request.getCursor() : null)
+                .countTotal(Boolean.TRUE.equals(request.getTotal()))
+                .bbox(parseBoundingBox(request.getBbox()))
+                .atEpoch(now)
+                .build();
     }
 
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> updateFlightStates(List<Map<String, Object>> flights) {
-        LocalDateTime now = LocalDateTime.now();
-
-        return flights.stream()
-                .map(flight -> {
-                    Map<String, Object> updated = new LinkedHashMap<>(flight);
-                    try {
-                        Map<String, Object> departure = (Map<String, Object>) flight.get("departure");
-                        Map<String, Object> arrival = (Map<String, Object>) flight.get("arrival");
-
-                        if (departure != null && arrival != null) {
-                            String depScheduled = (String) departure.get("scheduled");
-                            String arrScheduled = (String) arrival.get("scheduled");
-
-                            if (depScheduled != null && arrScheduled != null) {
-                                LocalDateTime depTime = LocalDateTime.parse(depScheduled.substring(0, 19));
-                                LocalDateTime arrTime = LocalDateTime.parse(arrScheduled.substring(0, 19));
-
-                                if (now.isBefore(depTime)) {
-                                    updated.put("flight_status", "scheduled");
-                                } else if (now.isAfter(arrTime)) {
-                                    updated.put("flight_status", "landed");
-                                } else {
-                                    updated.put("flight_status", "active");
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        log.warn("Error actualizando estado de vuelo: {}", e.getMessage());
-                    }
-                    return updated;
-                })
-                .toList();
+    // oeste,sur,este,norte (mismo orden que GeoJSON); oeste > este cruza el antimeridiano
+    private GeoBox parseBoundingBox(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox inválido: " + value + ". Use oeste,sur,este,norte");
+        }
+        try {
+            return new GeoBox(Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[0].trim()),
+                    Double.parseDouble(parts[3].trim()), Double.parseDouble(parts[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox inválido: " + value + ". Use oeste,sur,este,norte");
+        }
     }
 
-    private void cacheFlights(List<Map<String, Object>> flights) {
-        flightCache.put(CACHE_KEY, new CachedFlights(flights));
+    private long parseWindowBound(String value) {
+        if (value == null || value.isBlank()) {
+            return FlightTimes.NONE;
+        }
+        String normalized = value.length() == 16 ? value + ":00" : value;
+        long epoch = FlightTimes.toEpochSecond(normalized);
+        if (epoch == FlightTimes.NONE) {
+            throw new IllegalArgumentException("Fecha inválida: " + value + ". Use YYYY-MM-DDTHH:mm");
+        }
+        return epoch;
     }
 
-    private FlightResponse buildResponse(List<Map<String, Object>> data, boolean fromStorage, String source) {
-        return FlightResponse.builder()
+    private <T> FlightResponse<T> buildResponse(List<T> data, boolean fromStorage, String source) {
+        return FlightResponse.<T>builder()
                 .data(data)
                 .pagination(FlightResponse.Pagination.builder()
                         .limit(data.size())
@@ -493,23 +564,4 @@ public class FlightServiceImpl implements FlightService {
                 .build();
     }
 
-    // Clase interna para cache
-    private static class CachedFlights {
-        private final List<Map<String, Object>> flights;
-        private final long timestamp;
-        private static final long CACHE_DURATION_MS = 30 * 60 * 1000; // 30 minutos
-
-        public CachedFlights(List<Map<String, Object>> flights) {
-            this.flights = flights;
-            this.timestamp = System.currentTimeMillis();
-        }
-
-        public List<Map<String, Object>> getFlights() {
-            return flights;
-        }
-
-        public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_DURATION_MS;
-        }
-    }
 }
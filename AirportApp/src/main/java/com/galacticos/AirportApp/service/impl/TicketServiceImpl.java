@@ -2,21 +2,32 @@ package com.galacticos.AirportApp.service.impl;
 
 import com.galacticos.AirportApp.dto.request.CreateTicketRequest;
 import com.galacticos.AirportApp.dto.request.UpdateTicketRequest;
+import com.galacticos.AirportApp.dto.response.TicketPageResponse;
 import com.galacticos.AirportApp.dto.response.TicketResponse;
 import com.galacticos.AirportApp.entity.Ticket;
 import com.galacticos.AirportApp.entity.TicketStatus;
 import com.galacticos.AirportApp.exception.ResourceNotFoundException;
+import com.galacticos.AirportApp.model.FlightPositions;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
 import com.galacticos.AirportApp.repository.TicketRepository;
 import com.galacticos.AirportApp.service.TicketService;
+import com.galacticos.AirportApp.service.flight.FlightSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,8 +37,11 @@ import java.util.stream.Collectors;
 public class TicketServiceImpl implements TicketService {
 
     private final TicketRepository ticketRepository;
+    private final FlightSnapshotCache snapshotCache;
     private static final String BOOKING_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final SecureRandom random = new SecureRandom();
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
 
     @Override
     public TicketResponse createTicket(CreateTicketRequest request) {
@@ -82,40 +96,77 @@ public class TicketServiceImpl implements TicketService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<TicketResponse> getTicketsByUser(String ownerUserId) {
+    public TicketPageResponse getTicketsByUser(String ownerUserId, Integer limit, String cursor) {
         log.info("Obteniendo tickets del usuario: {}", ownerUserId);
-        return ticketRepository.findByOwnerUserIdOrderByPurchaseDateDesc(ownerUserId)
-                .stream()
-                .map(TicketResponse::fromEntity)
-                .collect(Collectors.toList());
+        return page(limit, cursor, (after, rows) ->
+                ticketRepository.findPageByOwnerUserId(ownerUserId, after.purchaseDate(), after.id(), rows));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<TicketResponse> getTicketsByUserAndStatus(String ownerUserId, String status) {
+    public TicketPageResponse getTicketsByUserAndStatus(String ownerUserId, String status, Integer limit, String cursor) {
         TicketStatus ticketStatus = TicketStatus.valueOf(status.toUpperCase());
-        return ticketRepository.findByOwnerUserIdAndTicketStatusOrderByPurchaseDateDesc(ownerUserId, ticketStatus)
-                .stream()
-                .map(TicketResponse::fromEntity)
-                .collect(Collectors.toList());
+        return page(limit, cursor, (after, rows) -> ticketRepository.findPageByOwnerUserIdAndTicketStatus(
+                ownerUserId, ticketStatus, after.purchaseDate(), after.id(), rows));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<TicketResponse> getTicketsByFlight(String flightIATA) {
-        return ticketRepository.findByFlightIATAOrderByPurchaseDateDesc(flightIATA)
-                .stream()
-                .map(TicketResponse::fromEntity)
-                .collect(Collectors.toList());
+    public TicketPageResponse getTicketsByFlight(String flightIATA, Integer limit, String cursor) {
+        return page(limit, cursor, (after, rows) ->
+                ticketRepository.findPageByFlightIATA(flightIATA, after.purchaseDate(), after.id(), rows));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<TicketResponse> getTicketsByUserAndFlight(String ownerUserId, String flightIATA) {
-        return ticketRepository.findByOwnerUserIdAndFlightIATAOrderByPurchaseDateDesc(ownerUserId, flightIATA)
-                .stream()
-                .map(TicketResponse::fromEntity)
-                .collect(Collectors.toList());
+    public TicketPageResponse getTicketsByUserAndFlight(String ownerUserId, String flightIATA, Integer limit, String cursor) {
+        return page(limit, cursor, (after, rows) -> ticketRepository.findPageByOwnerUserIdAndFlightIATA(
+                ownerUserId, flightIATA, after.purchaseDate(), after.id(), rows));
+    }
+
+    // Pide una fila de más para saber si hay página siguiente sin contar el total
+    private TicketPageResponse page(Integer limit, String cursor, BiFunction<Cursor, Limit, List<Ticket>> query) {
+        int rows = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (rows < 1 || rows > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        Cursor after = cursor != null && !cursor.isBlank() ? Cursor.decode(cursor) : Cursor.FIRST;
+
+        List<Ticket> tickets = query.apply(after, Limit.of(rows + 1));
+        boolean more = tickets.size() > rows;
+        List<Ticket> page = more ? tickets.subList(0, rows) : tickets;
+        String next = more ? Cursor.of(page.getLast()).encode() : null;
+
+        return TicketPageResponse.builder()
+                .tickets(page.stream().map(TicketResponse::fromEntity).collect(Collectors.toList()))
+                .limit(rows)
+                .count(page.size())
+                .nextCursor(next)
+                .build();
+    }
+
+    @Override
+    public List<TicketResponse> withLiveStatus(List<TicketResponse> tickets) {
+        // Solo el snapshot ya cargado: si aún no hay ninguno los tickets se devuelven tal cual
+        FlightSnapshot snapshot = snapshotCache.current();
+        if (snapshot == null) {
+            return tickets;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        for (TicketResponse ticket : tickets) {
+            FlightRecord flight = snapshot.find(FlightRecord.code(ticket.getFlightIATA()));
+            // Mismo número de vuelo pero otro día no es este vuelo
+            if (flight == null || !Objects.equals(flight.getFlightDate(), ticket.getDepartureDate())) {
+                continue;
+            }
+            flight = FlightPositions.withPosition(flight, now);
+            ticket.setLiveStatus(flight.getStatus() != null ? flight.getStatus().getValue() : null);
+            ticket.setEstimatedDeparture(flight.getDeparture() != null ? flight.getDeparture().getEstimated() : null);
+            ticket.setEstimatedArrival(flight.getArrival() != null ? flight.getArrival().getEstimated() : null);
+            ticket.setDepartureGate(flight.getDeparture() != null ? flight.getDeparture().getGate() : null);
+            ticket.setLivePosition(flight.getLive());
+        }
+        return tickets;
     }
 
     @Override
@@ -176,4 +227,30 @@ public class TicketServiceImpl implements TicketService {
         }
         return sb.toString();
     }
+
+    // Último ticket de la página (purchaseDate, id), opaco para el cliente
+    private record Cursor(LocalDateTime purchaseDate, long id) {
+
+        // Antes de la primera página: posterior a cualquier compra (DATETIME llega hasta el año 9999)
+        static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+        static Cursor of(Ticket ticket) {
+            return new Cursor(ticket.getPurchaseDate(), ticket.getId());
+        }
+
+        String encode() {
+            String raw = purchaseDate + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String encoded) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + encoded);
+            }
+        }
+    }
 }
@@ -79,7 +79,13 @@ CREATE TABLE IF NOT EXISTS tickets (
     INDEX idx_flight_iata (flight_iata),
     INDEX idx_booking_reference (booking_reference),
     INDEX idx_ticket_status (ticket_status),
-    INDEX idx_departure_date (departure_date)
+    INDEX idx_departure_date (departure_date),
+
+    -- Listados paginados por keyset (ORDER BY purchase_date DESC, id DESC)
+    INDEX idx_tickets_owner_purchase (owner_user_id, purchase_date, id),
+    INDEX idx_tickets_owner_status_purchase (owner_user_id, ticket_status, purchase_date, id),
+    INDEX idx_tickets_flight_purchase (flight_iata, purchase_date, id),
+    INDEX idx_tickets_owner_flight_purchase (owner_user_id, flight_iata, purchase_date, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ===================================
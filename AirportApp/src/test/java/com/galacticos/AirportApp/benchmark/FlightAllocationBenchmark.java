@@ -0,0 +1,70 @@
+package com.galacticos.AirportApp.benchmark;
+
+import com.galacticos.AirportApp.dto.request.FlightQueryRequest;
+import com.galacticos.AirportApp.dto.response.ApiResponse;
+import com.galacticos.AirportApp.dto.response.FlightResponse;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.service.flight.FlightResponseCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Memoria asignada y tiempo por petición de GET /api/flights (servicio + serialización JSON)
+// con los datos mock. Mide con ThreadMXBean los bytes asignados por el hilo, así que no depende
+// del GC. Se ejecuta con: mvn test -Pbenchmark -Dtest=FlightAllocationBenchmark
+@Tag("benchmark")
+class FlightAllocationBenchmark {
+
+    private static final int WARMUP = 10_000;
+    private static final int ITERATIONS = 50_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void unfilteredList() {
+        measure("sin filtros", new FlightQueryRequest());
+    }
+
+    @Test
+    void filteredList() {
+        // Con filtro u orden distinto del de salida no se usa la respuesta ya serializada: se
+        // construye y se serializa cada vez (sort=departure es el listado completo y sí la usa)
+        FlightQueryRequest query = new FlightQueryRequest();
+        query.setSort("-departure");
+        measure("con orden descendente", query);
+    }
+
+    private void measure(String name, FlightQueryRequest query) {
+        FlightServiceFixture fixture = FlightServiceFixture.mockRoutes();
+        long bytes = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            bytes += request(fixture, query);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes += request(fixture, query);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("GET /api/flights %s (%d vuelos): %.1f KB/peticion, %.1f us/peticion%n",
+                name, fixture.snapshot.size(), allocated / 1024.0 / ITERATIONS, elapsed / 1000.0 / ITERATIONS);
+        assertThat(bytes).isPositive();
+    }
+
+    // Lo mismo que FlightController.getAllFlights: bytes en cache si los hay y si no Jackson
+    private static int request(FlightServiceFixture fixture, FlightQueryRequest query) {
+        FlightResponse<FlightRecord> response = fixture.service.getAllFlights(false, query);
+        FlightResponseCache.Serialized serialized = fixture.responseCache.serialized(response);
+        return serialized != null
+                ? serialized.json().length
+                : fixture.jsonMapper.writeValueAsBytes(ApiResponse.success(response)).length;
+    }
+}
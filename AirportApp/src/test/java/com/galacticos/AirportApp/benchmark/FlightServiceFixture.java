@@ -0,0 +1,52 @@
+package com.galacticos.AirportApp.benchmark;
+
+import com.galacticos.AirportApp.client.AmadeusClient;
+import com.galacticos.AirportApp.config.ApiProperties;
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.service.flight.*;
+import com.galacticos.AirportApp.service.impl.FlightServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// FlightServiceImpl sobre un snapshot fijo, sin Spring ni base de datos: la cache de snapshots
+// siempre acierta y el resto de colaboradores que GET /api/flights no usa son mocks
+final class FlightServiceFixture {
+
+    final FlightSnapshot snapshot;
+    final JsonMapper jsonMapper = JsonMapper.builder().build();
+    final FlightResponseCache responseCache;
+    final FlightServiceImpl service;
+
+    private FlightServiceFixture(List<FlightRecord> flights) {
+        snapshot = new FlightSnapshot(flights, "benchmark");
+        FlightSnapshotCache snapshotCache = mock(FlightSnapshotCache.class);
+        when(snapshotCache.get(false)).thenReturn(new FlightSnapshotCache.Lookup(snapshot, true, false));
+        when(snapshotCache.current()).thenReturn(snapshot);
+
+        responseCache = new FlightResponseCache(jsonMapper, new SimpleMeterRegistry());
+        responseCache.registerMetrics();
+
+        service = new FlightServiceImpl(new ApiProperties(), new FlightProperties(), snapshotCache,
+                mock(FlightOfferCache.class), mock(FlightOfferFanOut.class), responseCache,
+                mock(FlightStreamBroadcaster.class), mock(FlightVersionHistory.class),
+                mock(AmadeusTokenManager.class), mock(AmadeusClient.class), mock(FlightArchive.class),
+                mock(AirportBoards.class));
+    }
+
+    // Los datos mock de FlightDataLoader (rutas fijas), los mismos que sirve la app sin API key
+    static FlightServiceFixture mockRoutes() {
+        FlightDataLoader loader = new FlightDataLoader(null, new ApiProperties(), new FlightProperties());
+        return new FlightServiceFixture(loader.load().getFlights());
+    }
+
+    static FlightServiceFixture of(List<FlightRecord> flights) {
+        return new FlightServiceFixture(flights);
+    }
+}
@@ -0,0 +1,160 @@
+package com.galacticos.AirportApp.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.galacticos.AirportApp.controller.FlightController;
+import com.galacticos.AirportApp.service.flight.FlightResponseCache;
+import com.galacticos.AirportApp.service.flight.MockFlightGenerator;
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+// Peticiones por segundo de GET /api/flights sin filtros a través de Tomcat embebido y
+// DispatcherServlet, serializando cada vez (como antes de FlightResponseCache) frente a los
+// bytes ya serializados. En la variante gzip, sin cache comprime Tomcat en cada respuesta.
+// Se ejecuta con: mvn test -Pbenchmark -Dtest=FlightThroughputBenchmark
+@Tag("benchmark")
+class FlightThroughputBenchmark {
+
+    private static final int FLIGHTS = 3000;
+    private static final int CLIENTS = 8;
+    private static final long WARMUP_MS = 2000;
+    private static final long RUN_MS = 5000;
+
+    @BeforeAll
+    static void quietLogs() {
+        // El log por petición del controlador y del servicio no debe entrar en la medida
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    @Test
+    void identity() throws Exception {
+        compare(false);
+    }
+
+    @Test
+    void gzip() throws Exception {
+        compare(true);
+    }
+
+    private void compare(boolean gzip) throws Exception {
+        long now = Instant.now().getEpochSecond();
+        FlightServiceFixture fixture = FlightServiceFixture.of(
+                MockFlightGenerator.generate(42, FLIGHTS, LocalDate.now(ZoneOffset.UTC), now));
+
+        // Sin bytes en cache el controlador cae en la serialización normal de Jackson
+        FlightResponseCache uncached = spy(fixture.responseCache);
+        doReturn(null).when(uncached).serialized(any());
+
+        Result serializing = run(new FlightController(fixture.service, uncached), gzip);
+        Result cached = run(new FlightController(fixture.service, fixture.responseCache), gzip);
+
+        System.out.printf("GET /api/flights %s (%d vuelos, %d clientes): serializando %.0f req/s (%.1f KB), "
+                        + "en cache %.0f req/s (%.1f KB)%n",
+                gzip ? "gzip" : "identity", fixture.snapshot.size(), CLIENTS,
+                serializing.perSecond(), serializing.bodyBytes() / 1024.0,
+                cached.perSecond(), cached.bodyBytes() / 1024.0);
+        assertThat(cached.bodyBytes()).isPositive();
+    }
+
+    private Result run(FlightController controller, boolean gzip) throws Exception {
+        Tomcat tomcat = start(controller);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            int port = tomcat.getConnector().getLocalPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/flights"))
+                    .header("Accept-Encoding", gzip ? "gzip" : "identity")
+                    .build();
+
+            load(clients, httpClient, request, WARMUP_MS);
+            long bodyBytes = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+            long requests = load(clients, httpClient, request, RUN_MS);
+            return new Result(requests * 1000.0 / RUN_MS, bodyBytes);
+        } finally {
+            clients.shutdownNow();
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    // CLIENTS hilos pidiendo sin pausa durante durationMs; devuelve las respuestas 200 completadas
+    private static long load(ExecutorService clients, HttpClient httpClient, HttpRequest request, long durationMs)
+            throws Exception {
+        long deadline = System.currentTimeMillis() + durationMs;
+        AtomicLong completed = new AtomicLong();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            workers.add(clients.submit(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    if (response.statusCode() == 200) {
+                        completed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return completed.get();
+    }
+
+    private static Tomcat start(FlightController controller) throws Exception {
+        GenericWebApplicationContext context = new GenericWebApplicationContext();
+        AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+        context.registerBean(WebConfig.class);
+        context.registerBean(FlightController.class, () -> controller);
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat-benchmark").toString());
+        tomcat.setPort(0);
+        Connector connector = tomcat.getConnector();
+        // La misma compresión que daría server.compression.enabled para las respuestas sin cache
+        connector.setProperty("compression", "on");
+        connector.setProperty("compressibleMimeType", "application/json");
+
+        Context servletContext = tomcat.addContext("", null);
+        Wrapper dispatcher = Tomcat.addServlet(servletContext, "dispatcher", new DispatcherServlet(context));
+        dispatcher.setLoadOnStartup(1);
+        servletContext.addServletMappingDecoded("/", "dispatcher");
+        tomcat.start();
+        return tomcat;
+    }
+
+    @EnableWebMvc
+    static class WebConfig {
+    }
+
+    private record Result(double perSecond, long bodyBytes) {
+    }
+}
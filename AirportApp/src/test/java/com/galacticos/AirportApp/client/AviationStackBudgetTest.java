@@ -0,0 +1,68 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.config.ApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AviationStackBudgetTest {
+
+    @Test
+    void reserveIsLeftForFullLoads() {
+        AviationStackBudget budget = budget(10, 10_000);
+
+        // Las 3 primeras peticiones salen de la parte no reservada del cubo
+        for (int i = 0; i < 3; i++) {
+            assertThat(budget.available(7)).isTrue();
+            assertThat(budget.tryAcquire()).isTrue();
+        }
+
+        assertThat(budget.available(7)).isFalse();
+        assertThat(budget.available()).isTrue();
+    }
+
+    @Test
+    void reserveAlsoAppliesToTheMonthlyTotal() {
+        AviationStackBudget budget = budget(10, 8);
+
+        assertThat(budget.available(7)).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+
+        // Queda ráfaga de sobra, pero solo 7 peticiones en el mes
+        assertThat(budget.available(7)).isFalse();
+        assertThat(budget.available()).isTrue();
+    }
+
+    @Test
+    void usageIsWrittenOnFlushAndReadBackOnStart(@TempDir Path directory) {
+        Path file = directory.resolve("usage.properties");
+        AviationStackBudget budget = budget(10, 10_000, file.toString());
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        // Las peticiones no escriben en disco: solo el flush periódico y el de parada
+        assertThat(file).doesNotExist();
+
+        budget.shutdown();
+        assertThat(file).exists();
+        assertThat(budget(10, 10_000, file.toString()).remaining()).isEqualTo(10_000 - 2);
+    }
+
+    private static AviationStackBudget budget(int burst, int monthly) {
+        return budget(burst, monthly, "");
+    }
+
+    private static AviationStackBudget budget(int burst, int monthly, String usageFile) {
+        ApiProperties apiProperties = new ApiProperties();
+        apiProperties.getAviationstack().setRequestBurst(burst);
+        apiProperties.getAviationstack().setMonthlyRequestBudget(monthly);
+        apiProperties.getAviationstack().setUsageFile(usageFile);
+        AviationStackBudget budget = new AviationStackBudget(apiProperties, new SimpleMeterRegistry());
+        budget.init();
+        return budget;
+    }
+}
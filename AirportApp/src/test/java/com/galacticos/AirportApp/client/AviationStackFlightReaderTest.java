@@ -0,0 +1,171 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightStatus;
+import com.galacticos.AirportApp.model.FlightTimes;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Respuestas de /flights con la forma de AviationStack. Cada una termina en un vuelo válido
+// (IB9999) para comprobar que el parser sigue bien colocado después de saltar lo anterior.
+class AviationStackFlightReaderTest {
+
+    private static final Set<String> EUROPEAN = Set.of("MAD", "BCN", "LHR");
+
+    private static final String LAST = """
+            {"flight":{"number":"9999","iata":"IB9999"},"departure":{"iata":"MAD"},"arrival":{"iata":"BCN"}}
+            """;
+
+    @Test
+    void readsEveryField() {
+        List<FlightRecord> flights = read("""
+                {"pagination":{"limit":15,"offset":0,"count":1,"total":1},"data":[
+                 {"flight_date":"2026-10-20","flight_status":"active",
+                  "flight":{"number":"3100","iata":"IB3100","icao":"IBE3100","codeshared":null},
+                  "airline":{"name":"Iberia","iata":"IB","icao":"IBE"},
+                  "departure":{"airport":"Barajas","timezone":"Europe/Madrid","iata":"MAD","icao":"LEMD",
+                   "terminal":"4S","gate":"J52","delay":12,"scheduled":"2026-10-20T08:00:00+00:00",
+                   "estimated":"2026-10-20T08:12:00+00:00","actual":null},
+                  "arrival":{"airport":"Heathrow","iata":"LHR","scheduled":"2026-10-20T09:10:00+00:00"},
+                  "live":{"updated":"2026-10-20T08:40:00+00:00","latitude":45.5,"longitude":-1.25,
+                   "altitude":11000,"direction":350,"speed_horizontal":830.5,"speed_vertical":0,"is_ground":false}}
+                ]}
+                """);
+
+        assertThat(flights).hasSize(1);
+        FlightRecord flight = flights.getFirst();
+        assertThat(flight.getFlightDate()).isEqualTo("2026-10-20");
+        assertThat(flight.getStatus()).isEqualTo(FlightStatus.ACTIVE);
+        assertThat(flight.getFlight().getIcao()).isEqualTo("IBE3100");
+        assertThat(flight.getAirline().getName()).isEqualTo("Iberia");
+        assertThat(flight.getDeparture().getDelay()).isEqualTo(12);
+        assertThat(flight.getDeparture().getGate()).isEqualTo("J52");
+        assertThat(flight.getDeparture().getEstimated()).isEqualTo("2026-10-20T08:12:00");
+        assertThat(flight.getDeparture().getActualEpoch()).isEqualTo(FlightTimes.NONE);
+        assertThat(flight.getArrival().getIata()).isEqualTo("LHR");
+        assertThat(flight.getLive().getSpeedHorizontal()).isEqualTo(830.5);
+    }
+
+    @Test
+    void rejectedArrivalBeforeOtherFieldsSkipsTheFlight() {
+        List<FlightRecord> flights = read(data("""
+                {"arrival":{"iata":"JFK","scheduled":"2026-10-20T09:10:00+00:00","codeshared":{"iata":"X"}},
+                 "flight":{"iata":"IB6251"},"departure":{"iata":"MAD"},"live":{"latitude":1}}
+                """));
+
+        assertThat(keys(flights)).containsExactly("IB9999");
+    }
+
+    @Test
+    void rejectedArrivalAfterOtherFieldsSkipsTheFlight() {
+        List<FlightRecord> flights = read(data("""
+                {"flight":{"iata":"IB6251"},"departure":{"iata":"MAD"},
+                 "arrival":{"airport":"JFK","iata":"JFK","gate":{"unexpected":[1,2]}},
+                 "live":{"latitude":1,"longitude":2},"aircraft":{"registration":"EC-MIG"}}
+                """));
+
+        assertThat(keys(flights)).containsExactly("IB9999");
+    }
+
+    @Test
+    void nullOrNonObjectArrivalSkipsTheFlight() {
+        List<FlightRecord> flights = read(data(
+                """
+                {"flight":{"iata":"IB0001"},"arrival":null,"departure":{"iata":"MAD"}}
+                """,
+                """
+                {"flight":{"iata":"IB0002"},"departure":{"iata":"MAD"},"arrival":"BCN"}
+                """,
+                """
+                {"flight":{"iata":"IB0003"},"arrival":[{"iata":"BCN"}],"departure":{"iata":"MAD"}}
+                """));
+
+        assertThat(keys(flights)).containsExactly("IB9999");
+    }
+
+    @Test
+    void missingIataSkipsTheFlight() {
+        List<FlightRecord> flights = read(data(
+                // Llegada sin IATA
+                """
+                {"flight":{"iata":"IB0001"},"departure":{"iata":"MAD"},"arrival":{"airport":"Barcelona","iata":null}}
+                """,
+                """
+                {"flight":{"iata":"IB0002"},"departure":{"iata":"MAD"},"arrival":{"airport":"Barcelona"}}
+                """,
+                // Vuelo y salida sin IATA
+                """
+                {"flight":{"number":"3"},"departure":{"iata":"MAD"},"arrival":{"iata":"BCN"}}
+                """,
+                """
+                {"flight":{"iata":"IB0004"},"departure":{"airport":"Barajas"},"arrival":{"iata":"BCN"}}
+                """,
+                """
+                {"flight":{"iata":"IB0005"},"arrival":{"iata":"BCN"}}
+                """));
+
+        assertThat(keys(flights)).containsExactly("IB9999");
+    }
+
+    @Test
+    void unexpectedNestedValuesAreIgnored() {
+        List<FlightRecord> flights = read("""
+                {"meta":{"nested":[{"data":[1]}]},"data":[
+                 {"flight":{"codeshared":{"airline_name":"x","flight":{"iata":"ZZ1"}},"iata":"IB3100","number":[3100]},
+                  "airline":["Iberia"],
+                  "departure":{"iata":"MAD","delay":{"minutes":12},"scheduled":{"time":"08:00"},"extra":[[],{}]},
+                  "arrival":{"extra":{"iata":"JFK"},"iata":"BCN","estimated":42},
+                  "live":{"latitude":"45.5","longitude":[1],"is_ground":{"value":true},"altitude":{"ft":[1]}},
+                  "aircraft":[1,{"a":[{"b":null}]}]},
+                 %s]}
+                """.formatted(LAST));
+
+        assertThat(keys(flights)).containsExactly("IB3100", "IB9999");
+        FlightRecord flight = flights.getFirst();
+        // Los valores con otro tipo se tratan como ausentes
+        assertThat(flight.getFlight().getNumber()).isNull();
+        assertThat(flight.getAirline()).isNull();
+        assertThat(flight.getDeparture().getDelay()).isNull();
+        assertThat(flight.getDeparture().getScheduledEpoch()).isEqualTo(FlightTimes.NONE);
+        assertThat(flight.getArrival().getIata()).isEqualTo("BCN");
+        assertThat(flight.getLive()).isNull();
+    }
+
+    @Test
+    void errorBodyIsAProviderFailure() {
+        assertThatThrownBy(() -> read("""
+                {"error":{"code":"usage_limit_reached","message":"Your monthly usage limit has been reached.",
+                 "context":{"plan":["free"]}}}
+                """))
+                .isInstanceOf(RestClientException.class)
+                .hasMessageContaining("usage_limit_reached");
+    }
+
+    @Test
+    void bodyWithoutDataIsEmpty() {
+        assertThat(read("[]")).isEmpty();
+        assertThat(read("{\"pagination\":{\"total\":0}}")).isEmpty();
+        assertThat(read("{\"data\":null}")).isEmpty();
+    }
+
+    private static String data(String... flights) {
+        return "{\"data\":[" + String.join(",", flights) + "," + LAST + "]}";
+    }
+
+    private static List<FlightRecord> read(String json) {
+        return AviationStackFlightReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                EUROPEAN::contains);
+    }
+
+    private static List<String> keys(List<FlightRecord> flights) {
+        return flights.stream().map(FlightRecord::getKey).toList();
+    }
+}
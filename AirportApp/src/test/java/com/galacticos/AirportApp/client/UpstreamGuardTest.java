@@ -0,0 +1,142 @@
+package com.galacticos.AirportApp.client;
+
+import com.galacticos.AirportApp.config.ApiProperties;
+import com.galacticos.AirportApp.support.StubHttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamGuardTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MS = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboundHttpClients clients = new OutboundHttpClients(meterRegistry);
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int status = 503;
+
+    private StubHttpServer server;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = StubHttpServer.start().handle("/flights", exchange -> {
+            hits.incrementAndGet();
+            StubHttpServer.respond(exchange, status, "{}");
+        });
+        restTemplate = clients.create("test", 1000, 1000,
+                new ApiProperties.ResilienceConfig(FAILURE_THRESHOLD, OPEN_MS, 1, 50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        clients.shutdown();
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsWithoutCallingTheProvider() {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(this::call).isInstanceOf(HttpServerErrorException.class);
+        }
+
+        assertThatThrownBy(this::call).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(hits).hasValue(FAILURE_THRESHOLD);
+        assertThat(circuitState()).isEqualTo(2);
+        assertThat(rejections("circuit_open")).isEqualTo(1);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        status = 404;
+        for (int i = 0; i < FAILURE_THRESHOLD + 2; i++) {
+            assertThatThrownBy(this::call).isInstanceOf(HttpClientErrorException.class);
+        }
+
+        assertThat(hits).hasValue(FAILURE_THRESHOLD + 2);
+        assertThat(circuitState()).isZero();
+    }
+
+    @Test
+    void successfulProbeClosesTheCircuit() throws InterruptedException {
+        openCircuit();
+        Thread.sleep(OPEN_MS + 50);
+        status = 200;
+
+        assertThat(call()).isEqualTo("{}");
+        assertThat(circuitState()).isZero();
+        // Cerrado de nuevo: hace falta otra racha completa de fallos para abrirlo
+        status = 503;
+        assertThatThrownBy(this::call).isInstanceOf(HttpServerErrorException.class);
+        assertThat(circuitState()).isZero();
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() throws InterruptedException {
+        openCircuit();
+        Thread.sleep(OPEN_MS + 50);
+
+        // Un solo fallo en semiabierto basta para volver a abrirlo
+        assertThatThrownBy(this::call).isInstanceOf(HttpServerErrorException.class);
+        assertThat(circuitState()).isEqualTo(2);
+        assertThatThrownBy(this::call).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(hits).hasValue(FAILURE_THRESHOLD + 1);
+    }
+
+    @Test
+    void bulkheadRejectsCallsOverTheLimitUntilTheResponseIsClosed() throws Exception {
+        CountDownLatch arrived = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.handle("/slow", exchange -> {
+            arrived.countDown();
+            release.await();
+            StubHttpServer.respond(exchange, 200, "{}");
+        });
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(
+                () -> restTemplate.getForObject(server.url() + "/slow", String.class));
+        assertThat(arrived.await(2, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(this::call).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(rejections("bulkhead_full")).isEqualTo(1);
+        // El rechazo del bulkhead no cuenta como fallo del proveedor
+        assertThat(circuitState()).isZero();
+
+        release.countDown();
+        assertThat(slow.get(2, TimeUnit.SECONDS)).isEqualTo("{}");
+        status = 200;
+        assertThat(call()).isEqualTo("{}");
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(this::call).isInstanceOf(HttpServerErrorException.class);
+        }
+        assertThat(circuitState()).isEqualTo(2);
+    }
+
+    private String call() {
+        return restTemplate.getForObject(server.url() + "/flights", String.class);
+    }
+
+    private double circuitState() {
+        return meterRegistry.get("flights.upstream.circuit").tag("provider", "test").gauge().value();
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("flights.upstream.rejected").tag("provider", "test").tag("reason", reason)
+                .counter().count();
+    }
+}
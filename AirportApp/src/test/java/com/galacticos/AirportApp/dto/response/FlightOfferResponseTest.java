@@ -0,0 +1,99 @@
+package com.galacticos.AirportApp.dto.response;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightOfferResponseTest {
+
+    @Test
+    void parsesPriceDurationAndSegments() {
+        FlightOfferResponse offer = FlightOfferResponse.fromAmadeus(offer("PT2H10M", "89.90",
+                segment(Map.of("carrierCode", "IB", "number", "3100"), "MAD", "2026-10-20T08:00:00", "LHR", "2026-10-20T09:10:00"),
+                segment(Map.of("carrierCode", "BA", "number", "120"), "LHR", "2026-10-20T10:00:00", "JFK", "2026-10-20T12:10:00")));
+
+        assertThat(offer.getPrice()).isEqualByComparingTo("89.90");
+        assertThat(offer.getCurrency()).isEqualTo("EUR");
+        assertThat(offer.getDurationMinutes()).isEqualTo(130);
+        assertThat(offer.getStops()).isEqualTo(1);
+        assertThat(offer.getOrigin()).isEqualTo("MAD");
+        assertThat(offer.getDestination()).isEqualTo("JFK");
+        assertThat(offer.getDepartureAt()).isEqualTo("2026-10-20T08:00:00");
+        assertThat(offer.getArrivalAt()).isEqualTo("2026-10-20T12:10:00");
+        assertThat(offer.getCarrierCode()).isEqualTo("IB");
+    }
+
+    @Test
+    void missingDurationIsTakenFromTheSegmentTimes() {
+        FlightOfferResponse offer = FlightOfferResponse.fromAmadeus(offer(null, "50",
+                segment(Map.of("carrierCode", "VY"), "BCN", "2026-10-20T07:30:00", "MAD", "2026-10-20T08:45:00")));
+
+        assertThat(offer.getDurationMinutes()).isEqualTo(75);
+    }
+
+    @Test
+    void missingDurationWithoutTimesIsNull() {
+        FlightOfferResponse offer = FlightOfferResponse.fromAmadeus(offer(null, "50",
+                segment(Map.of("carrierCode", "VY"), "BCN", null, "MAD", null)));
+
+        assertThat(offer.getDurationMinutes()).isNull();
+    }
+
+    @Test
+    void unparsablePriceIsNull() {
+        FlightOfferResponse offer = FlightOfferResponse.fromAmadeus(offer("PT1H", "N/A",
+                segment(Map.of("carrierCode", "IB"), "MAD", "2026-10-20T08:00:00", "BCN", "2026-10-20T09:00:00")));
+
+        assertThat(offer.getPrice()).isNull();
+        assertThat(offer.getDurationMinutes()).isEqualTo(60);
+    }
+
+    @Test
+    void carrierFallsBackToTheOperatingCarrier() {
+        FlightOfferResponse offer = FlightOfferResponse.fromAmadeus(offer("PT1H", "50",
+                segment(Map.of("number", "2001", "operating", Map.of("carrierCode", "UX", "carrierName", "Air Europa")),
+                        "MAD", "2026-10-20T08:00:00", "PMI", "2026-10-20T09:00:00")));
+
+        assertThat(offer.getCarrierCode()).isEqualTo("UX");
+        assertThat(offer.getCarrierName()).isEqualTo("Air Europa");
+        assertThat(offer.getSegments().getFirst().getNumber()).isEqualTo("2001");
+    }
+
+    @Test
+    void offerWithoutItinerariesHasNoSegments() {
+        FlightOfferResponse offer = FlightOfferResponse.fromAmadeus(Map.of("id", "1", "price", Map.of("total", "10")));
+
+        assertThat(offer.getSegments()).isEmpty();
+        assertThat(offer.getStops()).isZero();
+        assertThat(offer.getPrice()).isEqualByComparingTo(BigDecimal.TEN);
+        assertThat(offer.getOrigin()).isNull();
+    }
+
+    @SafeVarargs
+    private static Map<String, Object> offer(String duration, String total, Map<String, Object>... segments) {
+        Map<String, Object> itinerary = duration != null
+                ? Map.of("duration", duration, "segments", List.of(segments))
+                : Map.of("segments", List.of(segments));
+        return Map.of(
+                "id", "1",
+                "price", Map.of("total", total, "currency", "EUR"),
+                "itineraries", List.of(itinerary));
+    }
+
+    private static Map<String, Object> segment(Map<String, Object> carrier, String from, String departureAt,
+                                               String to, String arrivalAt) {
+        Map<String, Object> segment = new HashMap<>(carrier);
+        segment.put("departure", endpoint(from, departureAt));
+        segment.put("arrival", endpoint(to, arrivalAt));
+        return segment;
+    }
+
+    private static Map<String, Object> endpoint(String iata, String at) {
+        return at != null ? Map.of("iataCode", iata, "at", at) : Map.of("iataCode", iata);
+    }
+}
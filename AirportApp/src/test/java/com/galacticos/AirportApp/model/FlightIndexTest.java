@@ -0,0 +1,140 @@
+package com.galacticos.AirportApp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightIndexTest {
+
+    private static final long BASE = 1_760_000_000L;
+    private static final String[] AIRPORTS = {"MAD", "BCN", "LHR"};
+    private static final String[] AIRLINES = {"IB", "VY"};
+
+    private final List<FlightRecord> flights = flights(600);
+    private final FlightIndex index = new FlightIndex(flights);
+
+    @Test
+    void pagesByDepartureWithoutGapsOrDuplicates() {
+        for (boolean descending : new boolean[]{false, true}) {
+            assertPagesMatch(query().descending(descending), 25);
+            assertPagesMatch(query().departureIata("MAD").descending(descending), 7);
+            assertPagesMatch(query().departureIata("MAD").airlineIata("IB").descending(descending), 7);
+            assertPagesMatch(query().arrivalIata("BCN").status(FlightStatus.ACTIVE).descending(descending), 3);
+            assertPagesMatch(query().fromEpoch(BASE + 3_600).toEpoch(BASE + 7_200).descending(descending), 10);
+        }
+    }
+
+    @Test
+    void pagesByArrivalWithoutGapsOrDuplicates() {
+        for (boolean descending : new boolean[]{false, true}) {
+            FlightQuery.FlightQueryBuilder byArrival = query().sortField(FlightQuery.SortField.ARRIVAL);
+            assertPagesMatch(byArrival.descending(descending), 25);
+            assertPagesMatch(byArrival.departureIata("LHR").airlineIata("VY").descending(descending), 4);
+        }
+    }
+
+    @Test
+    void totalIsExactWhenCandidatesNeedNoFilter() {
+        FlightIndex.Page page = index.query(query().departureIata("MAD").limit(5).build());
+
+        assertThat(page.total()).isEqualTo(expected(query().departureIata("MAD").build()).size());
+        assertThat(page.offset()).isZero();
+    }
+
+    @Test
+    void totalWithSeveralFiltersIsOnlyCountedOnRequest() {
+        FlightQuery.FlightQueryBuilder filtered = query().departureIata("MAD").airlineIata("IB").limit(5);
+        int expectedTotal = expected(filtered.build()).size();
+
+        FlightIndex.Page first = index.query(filtered.build());
+        assertThat(first.total()).isNull();
+        assertThat(first.nextCursor()).isNotNull();
+
+        FlightIndex.Page counted = index.query(filtered.countTotal(true).cursor(first.nextCursor()).build());
+        assertThat(counted.total()).isEqualTo(expectedTotal);
+        assertThat(counted.offset()).isEqualTo(5);
+    }
+
+    @Test
+    void rejectsCursorFromAnotherSortOrder() {
+        String cursor = index.query(query().limit(1).build()).nextCursor();
+
+        assertThatThrownBy(() -> index.query(query().sortField(FlightQuery.SortField.ARRIVAL).cursor(cursor).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.query(query().cursor("no-es-un-cursor").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertPagesMatch(FlightQuery.FlightQueryBuilder builder, int limit) {
+        FlightQuery base = builder.limit(limit).cursor(null).build();
+        List<String> expected = expected(base);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            FlightIndex.Page page = index.query(builder.cursor(cursor).build());
+            assertThat(page.flights()).hasSizeLessThanOrEqualTo(limit);
+            if (page.offset() != null) {
+                assertThat(page.offset()).isEqualTo(seen.size());
+            }
+            if (page.total() != null) {
+                assertThat(page.total()).isEqualTo(expected.size());
+            }
+            page.flights().forEach(flight -> seen.add(flight.getKey()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    // Resultado de referencia: filtrar todo y ordenar por (hora, clave)
+    private List<String> expected(FlightQuery query) {
+        ToLongFunction<FlightRecord> time = query.getSortField() == FlightQuery.SortField.ARRIVAL
+                ? flight -> flight.getArrival().getScheduledEpoch()
+                : flight -> flight.getDeparture().getScheduledEpoch();
+        Comparator<FlightRecord> order = Comparator.comparingLong(time).thenComparing(FlightRecord::getKey);
+        return flights.stream()
+                .filter(flight -> query.getDepartureIata() == null || query.getDepartureIata().equals(flight.getDeparture().getIata()))
+                .filter(flight -> query.getArrivalIata() == null || query.getArrivalIata().equals(flight.getArrival().getIata()))
+                .filter(flight -> query.getAirlineIata() == null || query.getAirlineIata().equals(flight.getAirline().getIata()))
+                .filter(flight -> query.getStatus() == null || query.getStatus() == flight.getStatus())
+                .filter(flight -> query.getFromEpoch() == FlightTimes.NONE || flight.getDeparture().getScheduledEpoch() >= query.getFromEpoch())
+                .filter(flight -> query.getToEpoch() == FlightTimes.NONE || flight.getDeparture().getScheduledEpoch() <= query.getToEpoch())
+                .sorted(query.isDescending() ? order.reversed() : order)
+                .map(FlightRecord::getKey)
+                .toList();
+    }
+
+    private static FlightQuery.FlightQueryBuilder query() {
+        return FlightQuery.builder();
+    }
+
+    // Horas repetidas a propósito para que el desempate por clave importe
+    private static List<FlightRecord> flights(int count) {
+        Random random = new Random(42);
+        FlightStatus[] statuses = {FlightStatus.SCHEDULED, FlightStatus.ACTIVE, FlightStatus.LANDED};
+        List<FlightRecord> flights = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long departure = BASE + random.nextInt(24) * 600L;
+            long arrival = departure + (1 + random.nextInt(6)) * 1_800L;
+            String airline = AIRLINES[random.nextInt(AIRLINES.length)];
+            flights.add(FlightRecord.builder()
+                    .status(statuses[random.nextInt(statuses.length)])
+                    .flight(FlightRecord.FlightInfo.builder().number(String.valueOf(i)).iata(airline + i).build())
+                    .airline(FlightRecord.Airline.builder().iata(airline).build())
+                    .departure(FlightRecord.Endpoint.builder().iata(AIRPORTS[random.nextInt(AIRPORTS.length)])
+                            .scheduledEpoch(departure).build())
+                    .arrival(FlightRecord.Endpoint.builder().iata(AIRPORTS[random.nextInt(AIRPORTS.length)])
+                            .scheduledEpoch(arrival).build())
+                    .build());
+        }
+        return flights;
+    }
+}
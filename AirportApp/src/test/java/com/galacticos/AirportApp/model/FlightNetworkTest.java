@@ -0,0 +1,151 @@
+package com.galacticos.AirportApp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightNetworkTest {
+
+    private static final long BASE = 1_760_000_000L;
+    private static final long MCT = 45 * 60;
+
+    @Test
+    void connectionNeedsTheMinimumConnectionTime() {
+        FlightNetwork network = new FlightNetwork(List.of(
+                flight("IB1", "MAD", "BCN", 0, 60),
+                flight("VY2", "BCN", "LHR", 80, 200),
+                flight("VY3", "BCN", "LHR", 110, 230)));
+
+        // 20 min en BCN no bastan con 45 de mínimo; 50 sí
+        assertThat(legs(network.earliestArrivals("MAD", "LHR", at(0), 2, MCT))).containsExactly(List.of("IB1", "VY3"));
+        assertThat(legs(network.earliestArrivals("MAD", "LHR", at(0), 2, 15 * 60))).containsExactly(List.of("IB1", "VY2"));
+    }
+
+    @Test
+    void itinerariesDoNotStopAtTheDestination() {
+        // Horas locales: hacia el oeste un vuelo puede "llegar antes de salir". Seguir desde BCN
+        // y volver llegaría antes que el directo, pero el destino no es una escala.
+        FlightNetwork network = new FlightNetwork(List.of(
+                flight("IB1", "MAD", "BCN", 0, 120),
+                flight("TP2", "BCN", "LIS", 170, 130),
+                flight("TP3", "LIS", "BCN", 180, 110)));
+
+        List<FlightNetwork.Itinerary> itineraries = network.earliestArrivals("MAD", "BCN", at(0), 3, MCT);
+
+        assertThat(legs(itineraries)).containsExactly(List.of("IB1"));
+    }
+
+    @Test
+    void itinerariesDoNotReturnToTheOrigin() {
+        // Con horas incoherentes volver a MAD "antes" de salir permitiría coger IB0, que sale
+        // antes de departAfter
+        FlightNetwork network = new FlightNetwork(List.of(
+                flight("TP1", "MAD", "LIS", 0, -60),
+                flight("TP2", "LIS", "MAD", -10, -100),
+                flight("IB0", "MAD", "BCN", -40, 20),
+                flight("IB3", "MAD", "BCN", 180, 240),
+                flight("TP4", "LIS", "BCN", 60, 300)));
+
+        List<FlightNetwork.Itinerary> itineraries = network.earliestArrivals("MAD", "BCN", at(0), 3, MCT);
+
+        assertThat(legs(itineraries)).containsExactly(List.of("IB3"));
+        assertThat(itineraries).allSatisfy(itinerary -> assertThat(itinerary.legs())
+                .noneMatch(leg -> leg.getArrival().getIata().equals("MAD")));
+    }
+
+    @Test
+    void twoLegsAreListedOnlyWhenTheyArriveEarlier() {
+        FlightNetwork network = new FlightNetwork(List.of(
+                flight("IB1", "MAD", "LHR", 60, 300),
+                flight("VY2", "MAD", "BCN", 0, 60),
+                flight("VY3", "BCN", "LHR", 120, 240),
+                flight("VY4", "BCN", "LHR", 180, 360)));
+
+        List<FlightNetwork.Itinerary> itineraries = network.earliestArrivals("MAD", "LHR", at(0), 3, MCT);
+
+        // De menos a más tramos y de llegada más tardía a más temprana; el de 3 no mejora y no sale
+        assertThat(legs(itineraries)).containsExactly(List.of("IB1"), List.of("VY2", "VY3"));
+        assertThat(itineraries.get(1).arrival()).isLessThan(itineraries.get(0).arrival());
+
+        // Saliendo más tarde ya no se coge VY2 y solo queda el directo
+        assertThat(legs(network.earliestArrivals("MAD", "LHR", at(30), 3, MCT))).containsExactly(List.of("IB1"));
+    }
+
+    @Test
+    void itineraryIsRebuiltLegByLeg() {
+        FlightNetwork network = new FlightNetwork(List.of(
+                flight("UX4", "PMI", "LHR", 330, 450),
+                flight("IB1", "MAD", "BCN", 0, 70),
+                cancelled(flight("VY9", "BCN", "PMI", 90, 140)),
+                flight("VY2", "BCN", "PMI", 130, 180),
+                flight("VY3", "BCN", "PMI", 150, 200),
+                flight("UX5", "PMI", "LHR", 240, 360),
+                flight("XX6", "BCN", "BCN", 100, 160)));
+
+        List<FlightNetwork.Itinerary> itineraries = network.earliestArrivals("MAD", "LHR", at(0), 4, MCT);
+
+        // El cancelado y el que sale y llega al mismo aeropuerto no forman parte de la red
+        assertThat(network.size()).isEqualTo(5);
+        assertThat(itineraries).hasSize(1);
+        FlightNetwork.Itinerary itinerary = itineraries.getFirst();
+        assertThat(itinerary.legs()).extracting(FlightRecord::getKey).containsExactly("IB1", "VY2", "UX5");
+        assertThat(itinerary.departure()).isEqualTo(at(0));
+        assertThat(itinerary.arrival()).isEqualTo(at(360));
+    }
+
+    @Test
+    void effectiveTimesAreUsed() {
+        // El retraso de IB1 hace perder la conexión programada
+        FlightRecord delayed = FlightRecord.builder()
+                .flight(FlightRecord.FlightInfo.builder().iata("IB1").build())
+                .departure(FlightRecord.Endpoint.builder().iata("MAD").scheduledEpoch(at(0)).estimatedEpoch(at(60)).build())
+                .arrival(FlightRecord.Endpoint.builder().iata("BCN").scheduledEpoch(at(60)).estimatedEpoch(at(120)).build())
+                .build();
+        FlightNetwork network = new FlightNetwork(List.of(delayed,
+                flight("VY2", "BCN", "LHR", 120, 240),
+                flight("VY3", "BCN", "LHR", 180, 300)));
+
+        FlightNetwork.Itinerary itinerary = network.earliestArrivals("MAD", "LHR", at(0), 2, MCT).getFirst();
+
+        assertThat(itinerary.legs()).extracting(FlightRecord::getKey).containsExactly("IB1", "VY3");
+        assertThat(itinerary.departure()).isEqualTo(at(60));
+    }
+
+    @Test
+    void unknownOrSameAirportsHaveNoItineraries() {
+        FlightNetwork network = new FlightNetwork(List.of(flight("IB1", "MAD", "BCN", 0, 60)));
+
+        assertThat(network.earliestArrivals("MAD", "JFK", at(0), 2, MCT)).isEmpty();
+        assertThat(network.earliestArrivals("MAD", "MAD", at(0), 2, MCT)).isEmpty();
+        assertThat(network.earliestArrivals("MAD", "BCN", at(0), 0, MCT)).isEmpty();
+    }
+
+    private static List<List<String>> legs(List<FlightNetwork.Itinerary> itineraries) {
+        return itineraries.stream()
+                .map(itinerary -> itinerary.legs().stream().map(FlightRecord::getKey).toList())
+                .toList();
+    }
+
+    private static long at(int minutes) {
+        return BASE + minutes * 60L;
+    }
+
+    private static FlightRecord flight(String iata, String from, String to, int departureMinute, int arrivalMinute) {
+        return FlightRecord.builder()
+                .status(FlightStatus.SCHEDULED)
+                .flight(FlightRecord.FlightInfo.builder().iata(iata).build())
+                .departure(endpoint(from, departureMinute))
+                .arrival(endpoint(to, arrivalMinute))
+                .build();
+    }
+
+    private static FlightRecord cancelled(FlightRecord flight) {
+        return flight.toBuilder().status(FlightStatus.CANCELLED).build();
+    }
+
+    private static FlightRecord.Endpoint endpoint(String iata, int minute) {
+        return FlightRecord.Endpoint.builder().iata(iata).scheduledEpoch(at(minute)).build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.galacticos.AirportApp.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FlightPositionsTest {
+
+    private static final long DEPARTURE = 1_760_000_000L;
+    private static final int BCN = AirportRegistry.indexOf("BCN");
+
+    @Test
+    void progressUsesTheActualArrivalLikeTheStatusEngine() {
+        // Aterriza a los 50 min aunque la estimada diga 66: en ese momento ya está en destino
+        FlightRecord flight = flight(FlightRecord.Endpoint.builder().iata("BCN")
+                .scheduledEpoch(DEPARTURE + 3_600).estimatedEpoch(DEPARTURE + 4_000).actualEpoch(DEPARTURE + 3_000)
+                .build());
+
+        FlightRecord.Live live = FlightPositions.positionAt(flight, DEPARTURE + 3_000);
+
+        assertThat(live.getLatitude()).isCloseTo(AirportRegistry.latitude(BCN), within(1e-6));
+        assertThat(live.getLongitude()).isCloseTo(AirportRegistry.longitude(BCN), within(1e-6));
+    }
+
+    @Test
+    void progressUsesTheEstimatedArrivalWithoutActual() {
+        FlightRecord flight = flight(FlightRecord.Endpoint.builder().iata("BCN")
+                .scheduledEpoch(DEPARTURE + 3_600).estimatedEpoch(DEPARTURE + 4_000)
+                .build());
+
+        FlightRecord.Live halfway = FlightPositions.positionAt(flight, DEPARTURE + 2_000);
+        FlightRecord.Live scheduledArrival = FlightPositions.positionAt(flight, DEPARTURE + 3_600);
+
+        assertThat(halfway.getAltitude()).isPositive();
+        // A la hora programada aún le faltan 400 s de vuelo
+        assertThat(scheduledArrival.getLatitude()).isNotCloseTo(AirportRegistry.latitude(BCN), within(1e-3));
+        assertThat(scheduledArrival.getAltitude()).isPositive();
+    }
+
+    private static FlightRecord flight(FlightRecord.Endpoint arrival) {
+        return FlightRecord.builder()
+                .status(FlightStatus.ACTIVE)
+                .flight(FlightRecord.FlightInfo.builder().iata("IB3100").build())
+                .departure(FlightRecord.Endpoint.builder().iata("MAD")
+                        .scheduledEpoch(DEPARTURE - 600).actualEpoch(DEPARTURE).build())
+                .arrival(arrival)
+                .build();
+    }
+}
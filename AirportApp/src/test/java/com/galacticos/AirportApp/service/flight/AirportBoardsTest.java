@@ -0,0 +1,76 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.model.FlightStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AirportBoardsTest {
+
+    private static final long NOW = 1_760_000_000L;
+
+    private final FlightVersionHistory versionHistory = new FlightVersionHistory(new FlightProperties());
+    private final AirportBoards boards = new AirportBoards(versionHistory);
+
+    private final FlightSnapshot loaded = new FlightSnapshot(List.of(
+            flight("IB1", NOW + 600, FlightStatus.SCHEDULED),
+            flight("IB2", NOW + 1200, FlightStatus.SCHEDULED)), "test");
+    // Lo que publica FlightStatusEngine dentro de la carga: IB1 ya ha despegado
+    private final FlightSnapshot updated = loaded.withFlights(List.of(
+            flight("IB1", NOW + 600, FlightStatus.ACTIVE),
+            flight("IB2", NOW + 1200, FlightStatus.SCHEDULED)));
+
+    @Test
+    void appliesUpdatesAfterTheLoad() {
+        publish(new FlightSnapshotChangedEvent(null, loaded, true));
+        publish(new FlightSnapshotChangedEvent(loaded, updated, false));
+
+        assertThat(statuses()).containsExactly(FlightStatus.ACTIVE, FlightStatus.SCHEDULED);
+    }
+
+    @Test
+    void loadDeliveredAfterItsNestedUpdateDoesNotRollItBack() {
+        // Orden en que llegarían si el motor de estados se ejecutara antes que los paneles
+        publish(new FlightSnapshotChangedEvent(loaded, updated, false));
+        publish(new FlightSnapshotChangedEvent(null, loaded, true));
+
+        assertThat(statuses()).containsExactly(FlightStatus.ACTIVE, FlightStatus.SCHEDULED);
+    }
+
+    @Test
+    void replacedFlightsMoveToTheirNewSlot() {
+        publish(new FlightSnapshotChangedEvent(null, loaded, true));
+        FlightSnapshot delayed = loaded.withFlights(List.of(
+                flight("IB1", NOW + 1800, FlightStatus.SCHEDULED),
+                flight("IB2", NOW + 1200, FlightStatus.SCHEDULED)));
+        publish(new FlightSnapshotChangedEvent(loaded, delayed, false));
+
+        List<FlightRecord> rows = boards.board("MAD", AirportBoards.Direction.DEPARTURES, NOW, NOW + 3600, 10, null).flights();
+        assertThat(rows).extracting(FlightRecord::getKey).containsExactly("IB2", "IB1");
+    }
+
+    private void publish(FlightSnapshotChangedEvent event) {
+        versionHistory.onSnapshotChanged(event);
+        boards.onSnapshotChanged(event);
+    }
+
+    private List<FlightStatus> statuses() {
+        return boards.board("MAD", AirportBoards.Direction.DEPARTURES, NOW, NOW + 3600, 10, null).flights().stream()
+                .map(FlightRecord::getStatus)
+                .toList();
+    }
+
+    private static FlightRecord flight(String iata, long departure, FlightStatus status) {
+        return FlightRecord.builder()
+                .status(status)
+                .flight(FlightRecord.FlightInfo.builder().iata(iata).build())
+                .departure(FlightRecord.Endpoint.builder().iata("MAD").scheduledEpoch(departure).build())
+                .arrival(FlightRecord.Endpoint.builder().iata("BCN").scheduledEpoch(departure + 4800).build())
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightDelayStats;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.model.FlightStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightArchiveTest {
+
+    private static final LocalDate DAY = LocalDate.now().minusDays(5);
+
+    @TempDir
+    Path directory;
+
+    private FlightProperties properties;
+    private FlightVersionHistory history;
+    private FlightArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FlightProperties();
+        properties.getArchive().setDirectory(directory.toString());
+        // El día de prueba sigue abierto hasta que cada test lo cierre
+        properties.getArchive().setOpenDays(10);
+        history = new FlightVersionHistory(properties);
+        archive = newArchive();
+    }
+
+    @Test
+    void flushAppendsAndStatsUseTheLastRecordOfEachFlight() {
+        FlightSnapshot loaded = new FlightSnapshot(List.of(
+                flight("IB3100", "BCN", FlightStatus.LANDED, 40),
+                flight("VY1000", "LHR", FlightStatus.CANCELLED, null),
+                flight("UX7000", "BCN", FlightStatus.SCHEDULED, null)), "aviationstack-api");
+        publish(null, loaded);
+        archive.flush();
+        assertThat(directory.resolve("flights-" + DAY + ".log.gz")).exists();
+
+        // El retraso se corrige en un cambio posterior: se añade al mismo log
+        FlightSnapshot updated = loaded.withFlights(List.of(
+                flight("IB3100", "BCN", FlightStatus.LANDED, 5),
+                loaded.getFlights().get(1), loaded.getFlights().get(2)));
+        publish(loaded, updated);
+        archive.flush();
+
+        FlightDelayStats flight = archive.stats(FlightArchive.Dimension.FLIGHT, " ib3100 ", DAY, DAY);
+        assertThat(flight.getOperated()).isEqualTo(1);
+        assertThat(flight.getOnTime()).isEqualTo(1);
+        assertThat(flight.getMaxDelayMinutes()).isEqualTo(5);
+
+        // Los programados no cuentan; los cancelados sí, aparte de los operados
+        FlightDelayStats madrid = archive.stats(FlightArchive.Dimension.AIRPORT, "MAD", DAY.minusDays(1), DAY);
+        assertThat(madrid.getOperated()).isEqualTo(1);
+        assertThat(madrid.getCancelled()).isEqualTo(1);
+        assertThat(archive.stats(FlightArchive.Dimension.ROUTE, "MAD-BCN", DAY, DAY).getOperated()).isEqualTo(1);
+        assertThat(archive.stats(FlightArchive.Dimension.AIRLINE, "UX", DAY, DAY).getOperated()).isZero();
+    }
+
+    @Test
+    void dayQueriedWhileOpenIsAggregatedOnceClosed() {
+        publish(null, new FlightSnapshot(List.of(flight("IB3100", "BCN", FlightStatus.LANDED, 40)), "aviationstack-api"));
+        archive.flush();
+
+        // Consultado abierto: se calcula en memoria sin escribir agregados
+        assertThat(archive.stats(FlightArchive.Dimension.ROUTE, "MAD-BCN", DAY, DAY).getDelayed()).isEqualTo(1);
+        assertThat(aggregateFile(FlightArchive.Dimension.ROUTE)).doesNotExist();
+
+        properties.getArchive().setOpenDays(1);
+        archive.maintain();
+
+        for (FlightArchive.Dimension dimension : FlightArchive.Dimension.values()) {
+            assertThat(aggregateFile(dimension)).exists();
+        }
+        // Sin caché en memoria se responde desde el agregado
+        FlightDelayStats route = newArchive().stats(FlightArchive.Dimension.ROUTE, "MAD-BCN", DAY, DAY);
+        assertThat(route.getDelayed()).isEqualTo(1);
+        assertThat(route.getTotalDelayMinutes()).isEqualTo(40);
+    }
+
+    @Test
+    void mockSnapshotsAreNotArchived() {
+        publish(null, new FlightSnapshot(List.of(flight("IB3100", "BCN", FlightStatus.LANDED, 0)), "mock-data"));
+        archive.flush();
+
+        assertThat(directory.resolve("flights-" + DAY + ".log.gz")).doesNotExist();
+        assertThat(archive.stats(FlightArchive.Dimension.FLIGHT, "IB3100", DAY, DAY).getOperated()).isZero();
+    }
+
+    private FlightArchive newArchive() {
+        FlightArchive created = new FlightArchive(properties, history, new SimpleMeterRegistry());
+        created.registerMetrics();
+        return created;
+    }
+
+    private void publish(FlightSnapshot previous, FlightSnapshot current) {
+        FlightSnapshotChangedEvent event = new FlightSnapshotChangedEvent(previous, current, previous == null);
+        history.onSnapshotChanged(event);
+        archive.onSnapshotChanged(event);
+    }
+
+    private Path aggregateFile(FlightArchive.Dimension dimension) {
+        return directory.resolve("flights-" + DAY + "." + dimension.name().toLowerCase() + ".agg.gz");
+    }
+
+    private static FlightRecord flight(String iata, String arrival, FlightStatus status, Integer arrivalDelay) {
+        return FlightRecord.builder()
+                .flightDateEpochDay(DAY.toEpochDay())
+                .status(status)
+                .flight(FlightRecord.FlightInfo.builder().iata(iata).build())
+                .airline(FlightRecord.Airline.builder().iata(iata.substring(0, 2)).build())
+                .departure(FlightRecord.Endpoint.builder().iata("MAD").build())
+                .arrival(FlightRecord.Endpoint.builder().iata(arrival).delay(arrivalDelay).build())
+                .build();
+    }
+}
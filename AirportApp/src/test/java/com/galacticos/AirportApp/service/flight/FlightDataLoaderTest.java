@@ -0,0 +1,149 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.client.AviationStackBudget;
+import com.galacticos.AirportApp.client.AviationStackClient;
+import com.galacticos.AirportApp.client.OutboundHttpClients;
+import com.galacticos.AirportApp.config.ApiProperties;
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.support.StubHttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Fan-out de hubs contra un AviationStack simulado: cada hub tarda HUB_LATENCY_MS y algunos se cuelgan
+class FlightDataLoaderTest {
+
+    private static final long HUB_LATENCY_MS = 300;
+
+    private StubHttpServer server;
+    private ApiProperties apiProperties;
+    private FlightDataLoader loader;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<String> requestedHubs = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        server = StubHttpServer.start();
+        apiProperties = new ApiProperties();
+        ApiProperties.AviationstackConfig config = apiProperties.getAviationstack();
+        config.setApiKey("test-key");
+        config.setBaseUrl(server.url());
+        config.setUsageFile("");
+        config.setRequestBurst(100);
+        config.setHubTimeoutMs(1000);
+        config.setRefreshDeadlineMs(2500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+        server.close();
+    }
+
+    @Test
+    void queriesHubsConcurrently() {
+        serveFlights(7, Set.of());
+
+        long start = System.nanoTime();
+        FlightSnapshot snapshot = loader.load();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Uno detrás de otro serían al menos 7 x 300 ms. Los hubs que terminan se reponen con
+        // hubs de reserva hasta alcanzar el objetivo, así que puede haber alguno más
+        ApiProperties.AviationstackConfig config = apiProperties.getAviationstack();
+        assertThat(requests.get()).isEqualTo(requestedHubs.size())
+                .isBetween(config.getHubsPerRefresh(), config.getMaxHubRequests());
+        // Sin recorte: se deja de esperar al pasar de target-flights, como mucho un hub de más
+        assertThat(snapshot.size()).isBetween(config.getTargetFlights(), config.getTargetFlights() + 7);
+        assertThat(elapsedMs).isBetween(HUB_LATENCY_MS, config.getHubsPerRefresh() * HUB_LATENCY_MS - 1);
+    }
+
+    @Test
+    void returnsPartialResultsWhenHubsHang() {
+        // Pocos vuelos por hub: el objetivo no se alcanza y se espera a los hubs de reserva
+        serveFlights(3, Set.of("LHR", "CDG", "AMS"));
+
+        long start = System.nanoTime();
+        FlightSnapshot snapshot = loader.load();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        ApiProperties.AviationstackConfig config = apiProperties.getAviationstack();
+        assertThat(snapshot.size()).isPositive();
+        // Los colgados se cortan a su timeout y el total no pasa del plazo global
+        assertThat(elapsedMs).isBetween(config.getHubTimeoutMs(), config.getRefreshDeadlineMs() + 500);
+        // Cada hub colgado se sustituye por uno de reserva, sin pasar de max-hub-requests
+        assertThat(requests.get()).isEqualTo(requestedHubs.size())
+                .isGreaterThan(config.getHubsPerRefresh())
+                .isLessThanOrEqualTo(config.getMaxHubRequests());
+    }
+
+    @Test
+    void hubsMissingFromTheLoadArePolledFirst() {
+        Set<String> hanging = ConcurrentHashMap.newKeySet();
+        hanging.addAll(Set.of("LHR", "CDG", "AMS"));
+        serveFlights(3, hanging);
+        FlightSnapshot snapshot = loader.load();
+        hanging.clear();
+
+        // Los hubs colgados no están en el snapshot, así que siguen contando como desactualizados
+        FlightDataLoader.HubFlights next = loader.fetchNextHub();
+
+        assertThat(next.hub()).isIn("LHR", "CDG", "AMS");
+        assertThat(snapshot.getFlights()).noneMatch(flight -> flight.getDeparture().getIata().equals(next.hub()));
+        assertThat(next.flights()).hasSize(3);
+    }
+
+    @Test
+    void failsWhenNoHubResponds() {
+        server.handle("/flights", exchange -> StubHttpServer.respond(exchange, 500, "{}"));
+        loader = newLoader();
+
+        assertThatThrownBy(loader::load).isInstanceOf(RestClientException.class);
+    }
+
+    private void serveFlights(int flightsPerHub, Set<String> hangingHubs) {
+        server.handle("/flights", exchange -> {
+            requests.incrementAndGet();
+            String hub = StubHttpServer.query(exchange, "dep_iata");
+            requestedHubs.add(hub);
+            Thread.sleep(hangingHubs.contains(hub) ? 10_000 : HUB_LATENCY_MS);
+            StubHttpServer.respond(exchange, 200, departures(hub, flightsPerHub));
+        });
+        loader = newLoader();
+    }
+
+    private FlightDataLoader newLoader() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AviationStackBudget budget = new AviationStackBudget(apiProperties, meterRegistry);
+        budget.init();
+        AviationStackClient client = new AviationStackClient(apiProperties, new OutboundHttpClients(meterRegistry), budget);
+        return new FlightDataLoader(client, apiProperties, new FlightProperties());
+    }
+
+    private static String departures(String hub, int count) {
+        StringJoiner data = new StringJoiner(",", "{\"data\":[", "]}");
+        for (int i = 0; i < count; i++) {
+            String arrival = "MAD".equals(hub) ? "BCN" : "MAD";
+            data.add("""
+                    {"flight_date":"2026-01-01","flight_status":"scheduled",
+                     "flight":{"number":"%1$d","iata":"XX%1$d"},
+                     "airline":{"name":"Test","iata":"XX"},
+                     "departure":{"airport":"%2$s","iata":"%2$s","scheduled":"2026-01-01T10:00:00+00:00"},
+                     "arrival":{"airport":"%3$s","iata":"%3$s","scheduled":"2026-01-01T12:00:00+00:00"}}
+                    """.formatted(Math.abs(hub.hashCode() % 1000) * 10 + i, hub, arrival));
+        }
+        return data.toString();
+    }
+}
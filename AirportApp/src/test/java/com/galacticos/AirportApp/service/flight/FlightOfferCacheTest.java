@@ -0,0 +1,207 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.dto.response.FlightOfferResponse;
+import com.galacticos.AirportApp.dto.response.FlightResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightOfferCacheTest {
+
+    private static final FlightOfferCache.Key MAD_BCN = FlightOfferCache.Key.of("mad", "bcn", "2026-11-02", 1, "economy");
+    private static final FlightOfferCache.Key MAD_LHR = FlightOfferCache.Key.of("MAD", "LHR", "2026-11-02", 1, "ECONOMY");
+    private static final FlightOfferCache.Key MAD_CDG = FlightOfferCache.Key.of("MAD", "CDG", "2026-11-02", 1, "ECONOMY");
+
+    private final FlightProperties properties = new FlightProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FlightOfferCache cache = new FlightOfferCache(properties, meterRegistry);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache.registerMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalSearchesShareOneLoad() throws Exception {
+        int callers = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<FlightResponse<FlightOfferResponse>> blockingLoader = () -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response("amadeus");
+        };
+
+        List<Future<FlightResponse<FlightOfferResponse>>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            // Las claves se normalizan: mayúsculas y espacios no cuentan
+            FlightOfferCache.Key key = FlightOfferCache.Key.of(" Mad ", "BCN", "2026-11-02", 1, "Economy");
+            results.add(executor.submit(() -> cache.get(key, blockingLoader, value -> true)));
+        }
+        // Todos menos el que carga esperan su resultado antes de soltar la carga
+        awaitCount("coalesced", callers - 1);
+        release.countDown();
+
+        FlightResponse<FlightOfferResponse> first = results.getFirst().get(5, TimeUnit.SECONDS);
+        for (Future<FlightResponse<FlightOfferResponse>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("miss")).isEqualTo(1);
+        // Ya en cache: la siguiente es un acierto sin cargar
+        assertThat(cache.get(MAD_BCN, this::load, value -> true)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void failedLoadReachesEveryWaiterAndIsNotCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<FlightResponse<FlightOfferResponse>> failingLoader = () -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Amadeus no responde");
+        };
+
+        Future<?> loading = executor.submit(() -> cache.get(MAD_BCN, failingLoader, value -> true));
+        Future<?> waiting = executor.submit(() -> cache.get(MAD_BCN, failingLoader, value -> true));
+        awaitCount("coalesced", 1);
+        release.countDown();
+
+        for (Future<?> result : List.of(loading, waiting)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .cause().isInstanceOf(IllegalStateException.class).hasMessage("Amadeus no responde");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void responsesThatAreNotCacheableAreLoadedAgain() {
+        cache.get(MAD_BCN, this::load, value -> false);
+        cache.get(MAD_BCN, this::load, value -> false);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedSearchIsEvicted() {
+        properties.getOffers().setCacheMaxEntries(2);
+
+        cache.get(MAD_BCN, this::load, value -> true);
+        cache.get(MAD_LHR, this::load, value -> true);
+        // Usar MAD-BCN lo deja como el más reciente: sale MAD-LHR al entrar MAD-CDG
+        cache.get(MAD_BCN, this::load, value -> true);
+        cache.get(MAD_CDG, this::load, value -> true);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.counter("flights.offers.cache.evictions", "cause", "size").count()).isEqualTo(1);
+
+        cache.get(MAD_BCN, this::load, value -> true);
+        assertThat(loads).hasValue(3);
+        cache.get(MAD_LHR, this::load, value -> true);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void expiredSearchIsReloadedAndKeptAsLastGoodUntilMaxStale() throws InterruptedException {
+        properties.getOffers().setCacheTtlMs(0);
+        properties.getOffers().setCacheMaxStaleMs(200);
+
+        FlightResponse<FlightOfferResponse> first = cache.get(MAD_BCN, this::load, value -> true);
+        // Caducada al momento: no es un acierto, pero sigue disponible como respaldo
+        assertThat(cache.lastGood(MAD_BCN)).isSameAs(first);
+        FlightResponse<FlightOfferResponse> second = cache.get(MAD_BCN, this::load, value -> true);
+        assertThat(second).isNotSameAs(first);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.lastGood(MAD_BCN)).isSameAs(second);
+
+        Thread.sleep(250);
+
+        // Pasado max-stale ya no hay respaldo aunque Amadeus falle
+        assertThat(cache.lastGood(MAD_BCN)).isNull();
+        assertThatThrownBy(() -> cache.get(MAD_BCN, () -> {
+            throw new IllegalStateException("Amadeus no responde");
+        }, value -> true)).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.lastGood(MAD_BCN)).isNull();
+    }
+
+    @Test
+    void searchPastMaxStaleIsRemovedOnLookup() throws InterruptedException {
+        properties.getOffers().setCacheTtlMs(0);
+        properties.getOffers().setCacheMaxStaleMs(50);
+
+        cache.get(MAD_BCN, this::load, value -> true);
+        assertThat(cache.size()).isEqualTo(1);
+        Thread.sleep(100);
+
+        cache.get(MAD_BCN, () -> null, value -> false);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.lastGood(MAD_BCN)).isNull();
+        assertThat(meterRegistry.counter("flights.offers.cache.evictions", "cause", "expired").count()).isEqualTo(1);
+    }
+
+    @Test
+    void searchWithinTtlIsServedFromCache() {
+        properties.getOffers().setCacheTtlMs(60_000);
+
+        FlightResponse<FlightOfferResponse> first = cache.get(MAD_BCN, this::load, value -> true);
+
+        assertThat(cache.get(MAD_BCN, this::load, value -> true)).isSameAs(first);
+        assertThat(cache.get(MAD_LHR, this::load, value -> true)).isNotSameAs(first);
+        assertThat(loads).hasValue(2);
+    }
+
+    private FlightResponse<FlightOfferResponse> load() {
+        loads.incrementAndGet();
+        return response("amadeus");
+    }
+
+    private static FlightResponse<FlightOfferResponse> response(String source) {
+        return FlightResponse.<FlightOfferResponse>builder().data(List.of()).source(source).build();
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("flights.offers.cache.requests", "result", result).count();
+    }
+
+    private void awaitCount(String result, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(result) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(count(result)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,88 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.dto.response.FlightOfferResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightOfferRankerTest {
+
+    private final List<FlightOfferResponse> offers = List.of(
+            offer("a", "120.00", 95L, "2026-10-20T10:00:00"),
+            offer("b", null, 60L, "2026-10-20T07:00:00"),
+            offer("c", "80.00", null, "2026-10-20T12:00:00"),
+            offer("d", "80.00", 70L, null),
+            offer("e", "45.50", 180L, "2026-10-20T06:00:00"));
+
+    @Test
+    void byPriceWithTiesBrokenByDurationAndNullsLast() {
+        assertThat(ids(FlightOfferRanker.top(offers, FlightOfferRanker.Sort.PRICE, 10))).containsExactly("e", "d", "c", "a", "b");
+    }
+
+    @Test
+    void byDurationWithNullsLast() {
+        assertThat(ids(FlightOfferRanker.top(offers, FlightOfferRanker.Sort.DURATION, 10))).containsExactly("b", "d", "a", "e", "c");
+    }
+
+    @Test
+    void byDepartureWithNullsLast() {
+        assertThat(ids(FlightOfferRanker.top(offers, FlightOfferRanker.Sort.DEPARTURE, 10))).containsExactly("e", "b", "a", "c", "d");
+    }
+
+    @Test
+    void topKMatchesAFullSort() {
+        Random random = new Random(7);
+        List<FlightOfferResponse> many = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String price = random.nextInt(10) == 0 ? null : String.valueOf(random.nextInt(300));
+            many.add(offer(String.valueOf(i), price, (long) random.nextInt(600), null));
+        }
+        List<FlightOfferResponse> shuffled = new ArrayList<>(many);
+        Collections.shuffle(shuffled, random);
+
+        List<FlightOfferResponse> all = FlightOfferRanker.top(shuffled, FlightOfferRanker.Sort.PRICE, many.size());
+        List<FlightOfferResponse> top = FlightOfferRanker.top(shuffled, FlightOfferRanker.Sort.PRICE, 20);
+
+        // Entre empates completos el orden no está definido: se comparan (precio, duración)
+        assertThat(sortKeys(top)).containsExactlyElementsOf(sortKeys(all.subList(0, 20)));
+        // Las ofertas sin precio van al final
+        assertThat(all.getLast().getPrice()).isNull();
+    }
+
+    @Test
+    void emptyOrZeroLimitGivesNoOffers() {
+        assertThat(FlightOfferRanker.top(List.of(), FlightOfferRanker.Sort.PRICE, 10)).isEmpty();
+        assertThat(FlightOfferRanker.top(offers, FlightOfferRanker.Sort.PRICE, 0)).isEmpty();
+    }
+
+    @Test
+    void unknownSortIsRejected() {
+        assertThat(FlightOfferRanker.Sort.from(null)).isEqualTo(FlightOfferRanker.Sort.PRICE);
+        assertThat(FlightOfferRanker.Sort.from(" duration ")).isEqualTo(FlightOfferRanker.Sort.DURATION);
+        assertThatThrownBy(() -> FlightOfferRanker.Sort.from("cheapest")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> ids(List<FlightOfferResponse> offers) {
+        return offers.stream().map(FlightOfferResponse::getId).toList();
+    }
+
+    private static List<String> sortKeys(List<FlightOfferResponse> offers) {
+        return offers.stream().map(offer -> offer.getPrice() + "/" + offer.getDurationMinutes()).toList();
+    }
+
+    private static FlightOfferResponse offer(String id, String price, Long durationMinutes, String departureAt) {
+        return FlightOfferResponse.builder()
+                .id(id)
+                .price(price != null ? new BigDecimal(price) : null)
+                .durationMinutes(durationMinutes)
+                .departureAt(departureAt)
+                .build();
+    }
+}
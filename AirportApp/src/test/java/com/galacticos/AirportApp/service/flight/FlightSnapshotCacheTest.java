@@ -0,0 +1,199 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlightSnapshotCacheTest {
+
+    private static final long TTL_MS = 60_000;
+    private static final long MAX_STALE_MS = 120_000;
+
+    private final FlightDataLoader loader = mock(FlightDataLoader.class);
+    private final FlightSnapshotStore store = mock(FlightSnapshotStore.class);
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    // Las cargas esperan a este latch para que las peticiones concurrentes coincidan con ellas
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private FlightSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        FlightProperties properties = new FlightProperties();
+        properties.getCache().setTtlMs(TTL_MS);
+        properties.getCache().setMaxStaleMs(MAX_STALE_MS);
+        cache = new FlightSnapshotCache(loader, store, properties, new SimpleMeterRegistry(), events::add);
+        cache.registerMetrics();
+
+        when(loader.load()).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return snapshot("api", System.currentTimeMillis());
+        });
+        when(loader.fallback()).thenReturn(snapshot("mock-fallback", System.currentTimeMillis()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<FlightSnapshotCache.Lookup>> lookups = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            lookups.add(callers.submit(() -> cache.get(false)));
+        }
+        awaitLoads(1);
+        release.countDown();
+
+        FlightSnapshot first = lookups.getFirst().get(5, TimeUnit.SECONDS).snapshot();
+        for (Future<FlightSnapshotCache.Lookup> lookup : lookups) {
+            assertThat(lookup.get(5, TimeUnit.SECONDS).snapshot()).isSameAs(first);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        callers.shutdown();
+    }
+
+    @Test
+    void freshSnapshotIsServedWithoutLoading() {
+        FlightSnapshot fresh = restore(System.currentTimeMillis());
+
+        FlightSnapshotCache.Lookup lookup = cache.get(false);
+
+        assertThat(lookup.snapshot()).isSameAs(fresh);
+        assertThat(lookup.fromCache()).isTrue();
+        assertThat(lookup.stale()).isFalse();
+        assertThat(loads.get()).isZero();
+    }
+
+    @Test
+    void staleSnapshotIsServedWhileOneRefreshRuns() throws Exception {
+        FlightSnapshot old = restore(System.currentTimeMillis() - TTL_MS - 1000);
+
+        // Todas vuelven al momento con el snapshot caducado; solo se lanza un refresco
+        for (int i = 0; i < 5; i++) {
+            FlightSnapshotCache.Lookup lookup = cache.get(false);
+            assertThat(lookup.snapshot()).isSameAs(old);
+            assertThat(lookup.stale()).isTrue();
+        }
+        awaitLoads(1);
+        // Mientras sigue en curso, refreshAsync devuelve el mismo refresco
+        CompletableFuture<FlightSnapshot> refresh = cache.refreshAsync();
+        release.countDown();
+
+        FlightSnapshot refreshed = refresh.get(5, TimeUnit.SECONDS);
+        assertThat(refreshed).isNotSameAs(old);
+        assertThat(cache.get(false).snapshot()).isSameAs(refreshed);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void staleSnapshotRefreshedHubByHubIsNotReloaded() throws Exception {
+        FlightSnapshot old = restore(System.currentTimeMillis() - TTL_MS - 1000);
+        when(loader.refreshesIncrementally(old)).thenReturn(true);
+
+        FlightSnapshotCache.Lookup lookup = cache.get(false);
+        cache.refreshAhead();
+
+        // Se sirve caducado hasta que HubPollScheduler mezcle el siguiente hub
+        assertThat(lookup.snapshot()).isSameAs(old);
+        assertThat(lookup.stale()).isTrue();
+        Thread.sleep(100);
+        assertThat(loads.get()).isZero();
+        assertThat(cache.refreshing()).isFalse();
+    }
+
+    @Test
+    void snapshotPastMaxStaleWaitsForTheLoad() {
+        restore(System.currentTimeMillis() - TTL_MS - MAX_STALE_MS - 1000);
+        release.countDown();
+
+        FlightSnapshotCache.Lookup lookup = cache.get(false);
+
+        assertThat(lookup.snapshot().getSource()).isEqualTo("api");
+        assertThat(lookup.stale()).isFalse();
+    }
+
+    @Test
+    void failedRefreshKeepsLastGoodSnapshot() {
+        FlightSnapshot old = restore(System.currentTimeMillis() - TTL_MS - 1000);
+        doThrow(new IllegalStateException("AviationStack caído")).when(loader).load();
+
+        FlightSnapshotCache.Lookup lookup = cache.get(true);
+
+        assertThat(lookup.snapshot()).isSameAs(old);
+        assertThat(lookup.stale()).isTrue();
+        // Marcado como caducado hasta el siguiente refresco correcto
+        assertThat(cache.get(false).stale()).isTrue();
+    }
+
+    @Test
+    void failedFirstLoadFallsBackToMock() {
+        doThrow(new IllegalStateException("AviationStack caído")).when(loader).load();
+
+        FlightSnapshotCache.Lookup lookup = cache.get(false);
+
+        assertThat(lookup.snapshot().getSource()).isEqualTo("mock-fallback");
+    }
+
+    @Test
+    void mergedHubRenewsTheSnapshotAndPublishesAnUpdate() {
+        FlightSnapshot old = restore(System.currentTimeMillis() - TTL_MS + 1000);
+        FlightRecord fromMadrid = FlightRecord.builder()
+                .flight(FlightRecord.FlightInfo.builder().iata("IB1000").build())
+                .departure(FlightRecord.Endpoint.builder().iata("MAD").build())
+                .build();
+
+        FlightSnapshot merged = cache.mergeHub("MAD", List.of(fromMadrid));
+
+        assertThat(merged.getFlights()).containsExactly(fromMadrid);
+        assertThat(merged.getSource()).isEqualTo(old.getSource());
+        // Mezclar un hub es el refresco normal: el TTL vuelve a contar desde ahora
+        assertThat(merged.isOlderThan(1000)).isFalse();
+        assertThat(cache.get(false).stale()).isFalse();
+        assertThat(events.getLast()).isEqualTo(new FlightSnapshotChangedEvent(old, merged, false));
+    }
+
+    private FlightSnapshot restore(long createdAt) {
+        FlightSnapshot snapshot = snapshot("restored", createdAt);
+        when(store.restore()).thenReturn(snapshot);
+        cache.restore();
+        return snapshot;
+    }
+
+    private static FlightSnapshot snapshot(String source, long createdAt) {
+        return new FlightSnapshot(List.of(), source, createdAt);
+    }
+
+    private void awaitLoads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // Margen para que las peticiones rezagadas lleguen mientras la carga sigue en curso
+        Thread.sleep(100);
+    }
+}
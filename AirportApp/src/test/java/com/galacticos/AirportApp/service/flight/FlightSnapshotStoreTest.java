@@ -0,0 +1,144 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.model.FlightStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightSnapshotStoreTest {
+
+    private static final long TTL_MS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private FlightSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("snapshot.bin");
+        FlightProperties properties = new FlightProperties();
+        properties.getCache().setTtlMs(TTL_MS);
+        properties.getCache().setSnapshotFile(file.toString());
+        store = new FlightSnapshotStore(properties);
+    }
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        FlightSnapshot snapshot = new FlightSnapshot(flights(), "aviationstack-api", System.currentTimeMillis());
+
+        store.write(snapshot);
+        FlightSnapshot restored = store.restore();
+
+        assertThat(restored.getSource()).isEqualTo(snapshot.getSource());
+        assertThat(restored.getCreatedAt()).isEqualTo(snapshot.getCreatedAt());
+        assertThat(restored.getFlights()).isEqualTo(snapshot.getFlights());
+    }
+
+    @Test
+    void truncatedOrCorruptFileIsIgnored() throws IOException {
+        store.write(new FlightSnapshot(flights(), "aviationstack-api", System.currentTimeMillis()));
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Cortado a mitad: se acaba el fichero antes del CRC
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThatThrownBy(() -> FlightSnapshotStore.read(file)).isInstanceOf(IOException.class);
+        assertThat(store.restore()).isNull();
+
+        // Un byte cambiado en los vuelos: lo detecta el CRC
+        byte[] corrupt = bytes.clone();
+        corrupt[bytes.length - 20] ^= 0x01;
+        Files.write(file, corrupt);
+        assertThatThrownBy(() -> FlightSnapshotStore.read(file)).hasMessageContaining("CRC");
+        assertThat(store.restore()).isNull();
+
+        Files.writeString(file, "no es un snapshot");
+        assertThat(store.restore()).isNull();
+    }
+
+    @Test
+    void snapshotPastTtlIsNotRestored() throws IOException {
+        store.write(new FlightSnapshot(flights(), "aviationstack-api", System.currentTimeMillis() - TTL_MS - 1000));
+
+        assertThat(FlightSnapshotStore.read(file).size()).isEqualTo(2);
+        assertThat(store.restore()).isNull();
+    }
+
+    @Test
+    void reloadsAreWrittenAtOnceAndUpdatesOnFlush() throws IOException {
+        FlightSnapshot loaded = new FlightSnapshot(flights(), "aviationstack-api");
+        store.onSnapshotChanged(new FlightSnapshotChangedEvent(null, loaded, true));
+        assertThat(FlightSnapshotStore.read(file).getFlights()).hasSize(2);
+
+        // Un hub mezclado espera al siguiente flush
+        FlightSnapshot merged = new FlightSnapshot(flights().subList(0, 1), "aviationstack-api");
+        store.onSnapshotChanged(new FlightSnapshotChangedEvent(loaded, merged, false));
+        assertThat(FlightSnapshotStore.read(file).getFlights()).hasSize(2);
+
+        store.flush();
+        assertThat(FlightSnapshotStore.read(file).getFlights()).hasSize(1);
+        assertThat(FlightSnapshotStore.read(file).getCreatedAt()).isEqualTo(merged.getCreatedAt());
+    }
+
+    @Test
+    void mockSnapshotsAreNotWritten() {
+        FlightSnapshot mock = new FlightSnapshot(flights(), "mock-data");
+        store.onSnapshotChanged(new FlightSnapshotChangedEvent(null, mock, true));
+        store.flush();
+
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void restoredSnapshotIsNotRewritten() throws IOException {
+        store.write(new FlightSnapshot(flights(), "aviationstack-api", System.currentTimeMillis()));
+        FlightSnapshot restored = store.restore();
+        Files.delete(file);
+
+        store.onSnapshotChanged(new FlightSnapshotChangedEvent(null, restored, true));
+
+        assertThat(file).doesNotExist();
+    }
+
+    // Un vuelo con todos los campos y otro casi vacío (nulos y horas sin valor)
+    private static List<FlightRecord> flights() {
+        long now = System.currentTimeMillis() / 1000;
+        FlightRecord complete = FlightRecord.builder()
+                .flightDateEpochDay(now / 86400)
+                .status(FlightStatus.ACTIVE)
+                .flight(FlightRecord.FlightInfo.builder().number("3100").iata("IB3100").icao("IBE3100").build())
+                .airline(FlightRecord.Airline.builder().name("Iberia").iata("IB").icao("IBE").build())
+                .departure(FlightRecord.Endpoint.builder()
+                        .airport("Adolfo Suárez Madrid-Barajas").timezone("Europe/Madrid").iata("MAD").icao("LEMD")
+                        .terminal("4S").gate("J52").delay(12)
+                        .scheduledEpoch(now - 3_600).estimatedEpoch(now - 3_000).actualEpoch(now - 2_880)
+                        .build())
+                .arrival(FlightRecord.Endpoint.builder()
+                        .airport("Heathrow").timezone("Europe/London").iata("LHR").icao("EGLL")
+                        .scheduledEpoch(now + 3_600).estimatedEpoch(now + 4_000)
+                        .build())
+                .live(FlightRecord.Live.builder()
+                        .updatedEpoch(now - 60).latitude(45.5).longitude(-1.25).altitude(11_000)
+                        .direction(350).speedHorizontal(830.5).speedVertical(-1.5).ground(false)
+                        .build())
+                .build();
+        FlightRecord sparse = FlightRecord.builder()
+                .flight(FlightRecord.FlightInfo.builder().iata("VY1000").build())
+                .departure(FlightRecord.Endpoint.builder().iata("MAD").build())
+                .build();
+        return List.of(complete, sparse);
+    }
+}
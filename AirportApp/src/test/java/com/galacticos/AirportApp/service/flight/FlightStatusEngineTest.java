@@ -0,0 +1,122 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import com.galacticos.AirportApp.model.FlightStatus;
+import com.galacticos.AirportApp.model.FlightTimes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FlightStatusEngineTest {
+
+    private static final long NOW = 1_760_000_000L;
+    private static final long MINUTE = 60;
+
+    private final FlightSnapshotCache snapshotCache = mock(FlightSnapshotCache.class);
+    private final FlightStatusEngine engine =
+            new FlightStatusEngine(snapshotCache, new FlightVersionHistory(new FlightProperties()));
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void delayedFlightStaysScheduledUntilEstimatedDeparture() {
+        // Programado hace 10 minutos, sale con 30 de retraso
+        FlightRecord delayed = flight(NOW - 10 * MINUTE, NOW + 20 * MINUTE, FlightTimes.NONE,
+                NOW + 80 * MINUTE, NOW + 110 * MINUTE, FlightTimes.NONE);
+
+        assertThat(FlightStatusEngine.statusAt(delayed, NOW)).isEqualTo(FlightStatus.SCHEDULED);
+        assertThat(FlightStatusEngine.statusAt(delayed, NOW + 21 * MINUTE)).isEqualTo(FlightStatus.ACTIVE);
+        // A la hora programada de llegada sigue en el aire
+        assertThat(FlightStatusEngine.statusAt(delayed, NOW + 90 * MINUTE)).isEqualTo(FlightStatus.ACTIVE);
+        assertThat(FlightStatusEngine.statusAt(delayed, NOW + 111 * MINUTE)).isEqualTo(FlightStatus.LANDED);
+    }
+
+    @Test
+    void actualTimesWinOverEstimatedAndScheduled() {
+        // Despegó antes de la hora estimada y aterrizó antes de la programada
+        FlightRecord early = flight(NOW - 60 * MINUTE, NOW - 30 * MINUTE, NOW - 45 * MINUTE,
+                NOW + 10 * MINUTE, NOW + 5 * MINUTE, NOW - MINUTE);
+
+        assertThat(FlightStatusEngine.statusAt(early, NOW)).isEqualTo(FlightStatus.LANDED);
+    }
+
+    @Test
+    void withoutEstimatesTheScheduleIsUsed() {
+        FlightRecord onTime = flight(NOW + MINUTE, FlightTimes.NONE, FlightTimes.NONE,
+                NOW + 60 * MINUTE, FlightTimes.NONE, FlightTimes.NONE);
+
+        assertThat(FlightStatusEngine.statusAt(onTime, NOW)).isEqualTo(FlightStatus.SCHEDULED);
+        assertThat(FlightStatusEngine.statusAt(onTime, NOW + 2 * MINUTE)).isEqualTo(FlightStatus.ACTIVE);
+    }
+
+    @Test
+    void reloadAppliesStatusesFromEstimatedTimes() {
+        long now = System.currentTimeMillis() / 1000;
+        // La fuente lo da como activo a su hora programada, pero sale con retraso
+        FlightRecord delayed = flight(now - 10 * MINUTE, now + 20 * MINUTE, FlightTimes.NONE,
+                now + 80 * MINUTE, now + 110 * MINUTE, FlightTimes.NONE).withStatus(FlightStatus.ACTIVE);
+        FlightSnapshot snapshot = new FlightSnapshot(List.of(delayed), "test");
+        AtomicReference<FlightSnapshot> current = new AtomicReference<>(snapshot);
+        when(snapshotCache.update(any())).thenAnswer(invocation -> {
+            UnaryOperator<FlightSnapshot> change = invocation.getArgument(0);
+            return current.updateAndGet(change);
+        });
+
+        engine.onSnapshotChanged(new FlightSnapshotChangedEvent(null, snapshot, true));
+
+        assertThat(current.get().getFlights().getFirst().getStatus()).isEqualTo(FlightStatus.SCHEDULED);
+    }
+
+    @Test
+    void mergedHubUpdatesOnlyRetimedFlights() {
+        long now = System.currentTimeMillis() / 1000;
+        FlightRecord onTime = flight(now - 10 * MINUTE, FlightTimes.NONE, FlightTimes.NONE,
+                now + 80 * MINUTE, FlightTimes.NONE, FlightTimes.NONE).withStatus(FlightStatus.ACTIVE);
+        FlightSnapshot previous = new FlightSnapshot(List.of(onTime), "test");
+        // El hub trae el mismo vuelo con una salida estimada posterior
+        FlightRecord delayed = flight(now - 10 * MINUTE, now + 20 * MINUTE, FlightTimes.NONE,
+                now + 80 * MINUTE, now + 110 * MINUTE, FlightTimes.NONE).withStatus(FlightStatus.ACTIVE);
+        FlightSnapshot merged = previous.withFlights(List.of(delayed));
+        AtomicReference<FlightSnapshot> current = new AtomicReference<>(merged);
+        when(snapshotCache.update(any())).thenAnswer(invocation -> {
+            UnaryOperator<FlightSnapshot> change = invocation.getArgument(0);
+            return current.updateAndGet(change);
+        });
+
+        engine.onSnapshotChanged(new FlightSnapshotChangedEvent(previous, merged, false));
+        assertThat(current.get().getFlights().getFirst().getStatus()).isEqualTo(FlightStatus.SCHEDULED);
+
+        // Un cambio que solo toca el estado (el que acaba de publicar el motor) no se reprocesa
+        engine.onSnapshotChanged(new FlightSnapshotChangedEvent(merged, current.get(), false));
+        verify(snapshotCache, times(1)).update(any());
+    }
+
+    private static FlightRecord flight(long scheduledDeparture, long estimatedDeparture, long actualDeparture,
+                                       long scheduledArrival, long estimatedArrival, long actualArrival) {
+        return FlightRecord.builder()
+                .status(FlightStatus.SCHEDULED)
+                .flight(FlightRecord.FlightInfo.builder().number("1000").iata("IB1000").build())
+                .departure(FlightRecord.Endpoint.builder().iata("MAD")
+                        .scheduledEpoch(scheduledDeparture).estimatedEpoch(estimatedDeparture).actualEpoch(actualDeparture)
+                        .build())
+                .arrival(FlightRecord.Endpoint.builder().iata("BCN")
+                        .scheduledEpoch(scheduledArrival).estimatedEpoch(estimatedArrival).actualEpoch(actualArrival)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.galacticos.AirportApp.service.flight;
+
+import com.galacticos.AirportApp.config.FlightProperties;
+import com.galacticos.AirportApp.model.FlightRecord;
+import com.galacticos.AirportApp.model.FlightSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class FlightStreamBroadcasterTest {
+
+    private final FlightSnapshotCache snapshotCache = mock(FlightSnapshotCache.class);
+    private final FlightProperties properties = new FlightProperties();
+    private final FlightVersionHistory history = new FlightVersionHistory(properties);
+    private final FlightStreamBroadcaster broadcaster = new FlightStreamBroadcaster(snapshotCache, properties,
+            JsonMapper.builder().build(), new SimpleMeterRegistry(), history);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster.registerMetrics();
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void changePublishedWhileSubscribingIsNotLost() throws Exception {
+        FlightSnapshot v1 = new FlightSnapshot(List.of(flight("IB3100")), "aviationstack-api");
+        FlightSnapshot v2 = v1.withFlights(List.of(flight("IB3100"), flight("VY1000")));
+        // El cambio a v2 se publica justo mientras el cliente nuevo lee el snapshot
+        when(snapshotCache.current()).thenAnswer(invocation -> {
+            publish(v1, v2);
+            return v2;
+        });
+
+        MvcResult result = mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn();
+        FlightSnapshot v3 = v2.withFlights(List.of(flight("VY1000")));
+        publish(v2, v3);
+
+        String body = awaitContent(result, "\"version\":" + v3.getVersion());
+        // Primero el snapshot completo con v2; el delta de v2 ya está en él y no se repite
+        assertThat(body.indexOf("event:snapshot")).isNotNegative()
+                .isLessThan(body.indexOf("event:delta"));
+        assertThat(body).contains("\"version\":" + v2.getVersion());
+        assertThat(body.split("event:delta", -1)).hasSize(2);
+        assertThat(body).contains("\"removed\":[\"IB3100\"]");
+    }
+
+    @Test
+    void withoutSnapshotTheFirstDeltaIsSent() throws Exception {
+        MvcResult result = mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn();
+        FlightSnapshot first = new FlightSnapshot(List.of(flight("IB3100")), "aviationstack-api");
+        publish(null, first);
+
+        String body = awaitContent(result, "\"version\":" + first.getVersion());
+        assertThat(body).contains("event:delta").doesNotContain("event:snapshot");
+    }
+
+    private void publish(FlightSnapshot previous, FlightSnapshot current) {
+        FlightSnapshotChangedEvent event = new FlightSnapshotChangedEvent(previous, current, previous == null);
+        history.onSnapshotChanged(event);
+        broadcaster.onSnapshotChanged(event);
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+    private static FlightRecord flight(String iata) {
+        return FlightRecord.builder()
+                .flight(FlightRecord.FlightInfo.builder().iata(iata).build())
+                .departure(FlightRecord.Endpoint.builder().iata("MAD").build())
+                .build();
+    }
+
+    @RestController
+    class StreamController {
+        @GetMapping("/stream")
+        SseEmitter stream() {
+            return broadcaster.subscribe();
+        }
+    }
+}
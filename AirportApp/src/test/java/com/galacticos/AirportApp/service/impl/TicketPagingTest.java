@@ -0,0 +1,187 @@
+package com.galacticos.AirportApp.service.impl;
+
+import com.galacticos.AirportApp.controller.TicketController;
+import com.galacticos.AirportApp.dto.response.TicketPageResponse;
+import com.galacticos.AirportApp.dto.response.TicketResponse;
+import com.galacticos.AirportApp.entity.Ticket;
+import com.galacticos.AirportApp.entity.TicketClass;
+import com.galacticos.AirportApp.entity.TicketStatus;
+import com.galacticos.AirportApp.exception.GlobalExceptionHandler;
+import com.galacticos.AirportApp.service.flight.FlightSnapshotCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Paginación por keyset de los listados de tickets contra una base de datos real (H2). El
+// esquema lo genera Hibernate: schema.sql y el dialecto de application.properties son de MySQL
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@Import(TicketServiceImpl.class)
+class TicketPagingTest {
+
+    private static final LocalDateTime BATCH = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @MockitoBean
+    private FlightSnapshotCache snapshotCache;
+
+    // Tickets de u1 del más reciente al más antiguo: (purchaseDate DESC, id DESC)
+    private List<Ticket> expected;
+    private int references;
+
+    @BeforeEach
+    void setUp() {
+        List<Ticket> tickets = new ArrayList<>();
+        // Cinco compras en el mismo instante: solo el id las ordena
+        for (int i = 0; i < 5; i++) {
+            tickets.add(save("u1", "IB3100", BATCH, TicketStatus.CONFIRMED));
+        }
+        tickets.add(save("u1", "VY1000", BATCH.minusHours(1), TicketStatus.CANCELLED));
+        tickets.add(save("u1", "IB3100", BATCH.plusHours(1), TicketStatus.CONFIRMED));
+        save("u2", "IB3100", BATCH, TicketStatus.CONFIRMED);
+        entityManager.clear();
+
+        expected = tickets.stream()
+                .sorted(Comparator.comparing(Ticket::getPurchaseDate).thenComparing(Ticket::getId).reversed())
+                .toList();
+    }
+
+    @Test
+    void pagesThroughEqualPurchaseDatesWithoutGapsOrDuplicates() {
+        for (int limit = 1; limit <= expected.size() + 1; limit++) {
+            List<Long> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                TicketPageResponse page = ticketService.getTicketsByUser("u1", limit, cursor);
+                assertThat(page.getCount()).isEqualTo(page.getTickets().size()).isLessThanOrEqualTo(limit);
+                page.getTickets().forEach(ticket -> seen.add(ticket.getId()));
+                cursor = page.getNextCursor();
+                pages++;
+            } while (cursor != null);
+
+            assertThat(seen).as("limit %d", limit).containsExactlyElementsOf(ids(expected));
+            // La última página llega sin cursor, también cuando el total es múltiplo del límite
+            assertThat(pages).as("limit %d", limit).isEqualTo((expected.size() + limit - 1) / limit);
+        }
+    }
+
+    @Test
+    void filteredListingsUseTheSameOrder() {
+        List<Long> flight = ids(expected.stream().filter(ticket -> ticket.getFlightIATA().equals("IB3100")).toList());
+        List<Long> confirmed = ids(expected.stream().filter(ticket -> ticket.getTicketStatus() == TicketStatus.CONFIRMED).toList());
+
+        assertThat(all(cursor -> ticketService.getTicketsByUserAndFlight("u1", "IB3100", 2, cursor))).isEqualTo(flight);
+        assertThat(all(cursor -> ticketService.getTicketsByUserAndStatus("u1", "confirmed", 2, cursor))).isEqualTo(confirmed);
+        assertThat(all(cursor -> ticketService.getTicketsByFlight("IB3100", 2, cursor))).hasSize(flight.size() + 1);
+    }
+
+    @Test
+    void firstPageStartsAtTheNewestTicketAndCursorEncodesTheLastRow() {
+        TicketPageResponse page = ticketService.getTicketsByUser("u1", 3, null);
+
+        assertThat(page.getTickets()).extracting(TicketResponse::getId).containsExactlyElementsOf(ids(expected.subList(0, 3)));
+        Ticket last = expected.get(2);
+        String raw = new String(Base64.getUrlDecoder().decode(page.getNextCursor()), StandardCharsets.UTF_8);
+        assertThat(raw).isEqualTo(last.getPurchaseDate() + "|" + last.getId());
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        assertThatThrownBy(() -> ticketService.getTicketsByUser("u1", 10, "no-es-un-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        String withoutId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(BATCH.toString().getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> ticketService.getTicketsByUser("u1", 10, withoutId))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TicketController(ticketService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        mockMvc.perform(get("/api/tickets/user/u1").param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(get("/api/tickets/user/u1").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> all(Function<String, TicketPageResponse> listing) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TicketPageResponse page = listing.apply(cursor);
+            page.getTickets().forEach(ticket -> seen.add(ticket.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private static List<Long> ids(List<Ticket> tickets) {
+        return tickets.stream().map(Ticket::getId).toList();
+    }
+
+    // purchaseDate es @CreationTimestamp y no actualizable: se fija después con SQL
+    private Ticket save(String owner, String flightIATA, LocalDateTime purchaseDate, TicketStatus ticketStatus) {
+        Ticket ticket = entityManager.persistAndFlush(Ticket.builder()
+                .ownerUserId(owner)
+                .flightNumber(flightIATA.substring(2))
+                .flightIATA(flightIATA)
+                .airlineName("Iberia")
+                .airlineIATA(flightIATA.substring(0, 2))
+                .departureAirport("Adolfo Suárez Madrid-Barajas")
+                .departureIATA("MAD")
+                .departureCity("Madrid")
+                .departureDate(LocalDate.of(2026, 10, 20))
+                .departureTime(LocalTime.of(8, 0))
+                .arrivalAirport("Heathrow")
+                .arrivalIATA("LHR")
+                .arrivalCity("Londres")
+                .arrivalDate(LocalDate.of(2026, 10, 20))
+                .arrivalTime(LocalTime.of(9, 10))
+                .passengerName("Ana García")
+                .passengerDocument("12345678Z")
+                .seatNumber("12A")
+                .ticketClass(TicketClass.ECONOMY)
+                .price(new BigDecimal("89.90"))
+                .bookingReference(String.format("REF%03d", references++))
+                .ticketStatus(ticketStatus)
+                .build());
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE tickets SET purchase_date = ?1 WHERE id = ?2")
+                .setParameter(1, purchaseDate)
+                .setParameter(2, ticket.getId())
+                .executeUpdate();
+        ticket.setPurchaseDate(purchaseDate);
+        return ticket;
+    }
+}
@@ -2,39 +2,17 @@ import { createPortal } from 'react-dom';
 import { X, Plane, Clock, MapPin, Navigation, Gauge, TrendingUp, Calendar, CheckCircle } from 'lucide-react';
 import { format } from 'date-fns';
 import { es } from 'date-fns/locale';
+import { formatDateTime, formatTime, parseFlightTime } from '../../utils/formatters';
 import styles from './FlightDetails.module.css';
 
 const FlightDetails = ({ flight, onClose, isFlipped = false }) => {
   if (!flight) return null;
 
-  const formatDateTime = (dateString) => {
-    if (!dateString) return 'No disponible';
-    try {
-      return format(new Date(dateString), "dd 'de' MMMM 'a las' HH:mm", { locale: es });
-    } catch {
-      return 'No disponible';
-    }
-  };
-
-  const formatTime = (dateString) => {
-    if (!dateString) return '--:--';
-    try {
-      return format(new Date(dateString), 'HH:mm', { locale: es });
-    } catch {
-      return '--:--';
-    }
-  };
-
+  // Fecha sola (YYYY-MM-DD) o con hora: las dos se leen como hora de reloj
   const formatDate = (dateString) => {
     if (!dateString) return 'No disponible';
     try {
-      // Si es solo fecha (YYYY-MM-DD), parsearla correctamente
-      if (dateString.length === 10 && dateString.includes('-')) {
-        const [year, month, day] = dateString.split('-');
-        return format(new Date(year, month - 1, day), "dd 'de' MMMM 'de' yyyy", { locale: es });
-      }
-      // Si es fecha completa con hora
-      return format(new Date(dateString), "dd 'de' MMMM 'de' yyyy", { locale: es });
+      return format(parseFlightTime(dateString), "dd 'de' MMMM 'de' yyyy", { locale: es });
     } catch {
       return 'No disponible';
     }
@@ -5,8 +5,12 @@ import { ticketService } from '../../services/ticketService';
 import { useScrollLock } from '../../hooks';
 import styles from './TicketsModal.module.css';
 
+// La pila solo muestra los más recientes; el resto se ve paginado en la billetera
+const RECENT_TICKETS = 10;
+
 const TicketsModal = ({ isOpen, onClose, onTicketClick, onViewWallet }) => {
   const [tickets, setTickets] = useState([]);
+  const [hasMore, setHasMore] = useState(false);
 
   // Bloquear scroll cuando el modal está abierto
   useScrollLock(isOpen);
@@ -20,11 +24,13 @@ const TicketsModal = ({ isOpen, onClose, onTicketClick, onViewWallet }) => {
   const loadTickets = async () => {
     try {
       await ticketService.initialize();
-      const userTickets = await ticketService.getUserTickets();
-      setTickets(userTickets);
+      const page = await ticketService.getUserTickets({ limit: RECENT_TICKETS });
+      setTickets(page.tickets);
+      setHasMore(!!page.nextCursor);
     } catch (error) {
       console.error('Error cargando billetes:', error);
       setTickets([]);
+      setHasMore(false);
     }
   };
 
@@ -54,7 +60,11 @@ const TicketsModal = ({ isOpen, onClose, onTicketClick, onViewWallet }) => {
           <Plane size={40} className={styles.ticketsModalIcon} />
           <div className={styles.headerContent}>
             <h2>Mis Billetes</h2>
-            <p>{tickets.length} {tickets.length === 1 ? 'billete' : 'billetes'} en tu billetera</p>
+            <p>
+              {hasMore
+                ? `Tus ${tickets.length} billetes más recientes`
+                : `${tickets.length} ${tickets.length === 1 ? 'billete' : 'billetes'} en tu billetera`}
+            </p>
           </div>
           {onViewWallet && (
             <button 
@@ -8,7 +8,9 @@ import styles from './WalletView.module.css';
 
 const WalletView = () => {
   const [tickets, setTickets] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null); // Cursor de la página siguiente (null si no hay más)
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState(null);
   const [isTicketsModalOpen, setIsTicketsModalOpen] = useState(false);
   const [selectedTicket, setSelectedTicket] = useState(null);
@@ -18,17 +20,21 @@ const WalletView = () => {
   // Bloquear scroll cuando el modal está abierto
   useScrollLock(!!selectedTicket);
 
+  // El filtro por estado lo aplica el backend: al cambiarlo se vuelve a la primera página
   useEffect(() => {
     loadTickets();
-  }, []);
+  }, [filter]);
+
+  const statusFilter = () => (filter === 'all' ? null : filter);
 
   const loadTickets = async () => {
     try {
       setLoading(true);
       setError(null);
       await ticketService.initialize();
-      const userTickets = await ticketService.getUserTickets();
-      setTickets(userTickets);
+      const page = await ticketService.getUserTickets({ status: statusFilter() });
+      setTickets(page.tickets);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       console.error('Error cargando billetes:', err);
       setError('No se pudieron cargar los billetes. Por favor, inténtalo de nuevo.');
@@ -37,6 +43,28 @@ const WalletView = () => {
     }
   };
 
+  const loadMoreTickets = async () => {
+    if (!nextCursor || loadingMore) return;
+
+    try {
+      setLoadingMore(true);
+      const page = await ticketService.getUserTickets({ status: statusFilter(), cursor: nextCursor });
+      setTickets(current => [...current, ...page.tickets]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error('Error cargando más billetes:', err);
+      window.dispatchEvent(new CustomEvent('flight-notification', {
+        detail: {
+          title: '❌ Error',
+          message: 'No se pudieron cargar más billetes. Inténtalo de nuevo.',
+          type: 'error'
+        }
+      }));
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleCancelTicket = async (ticketId) => {
     // Mostrar modal de confirmación
     setTicketToCancel(ticketId);
@@ -108,15 +136,18 @@ const WalletView = () => {
     card.style.setProperty('--mouse-y', `${y}%`);
   };
 
-  const filteredTickets = tickets.filter(ticket => {
-    if (filter === 'all') return true;
-    return ticket.ticketStatus === filter;
-  });
+  // Solo se conocen los billetes de las páginas cargadas: si quedan más se indica con "+", y con
+  // un filtro activo no se sabe cuántos hay del otro estado
+  const loadedCount = (status) => {
+    if (status && filter !== 'all' && filter !== status) return '—';
+    const count = status ? tickets.filter(t => t.ticketStatus === status).length : tickets.length;
+    return `${count}${nextCursor ? '+' : ''}`;
+  };
 
   const ticketStats = {
-    total: tickets.length,
-    confirmed: tickets.filter(t => t.ticketStatus === 'confirmed').length,
-    cancelled: tickets.filter(t => t.ticketStatus === 'cancelled').length
+    total: loadedCount(null),
+    confirmed: loadedCount('confirmed'),
+    cancelled: loadedCount('cancelled')
   };
 
   if (loading) {
@@ -202,7 +233,7 @@ const WalletView = () => {
         </div>
       </div>
 
-      {filteredTickets.length === 0 ? (
+      {tickets.length === 0 ? (
         <div className={styles.emptyState}>
           <Ticket size={64} />
           <h2>No tienes billetes {filter !== 'all' ? filter + 's' : ''}</h2>
@@ -210,7 +241,7 @@ const WalletView = () => {
         </div>
       ) : (
         <div className={styles.ticketsGrid}>
-          {filteredTickets.map(ticket => (
+          {tickets.map(ticket => (
             <div 
               key={ticket.id} 
               className={`${styles.ticketCard} ${styles[getTicketStatusClass(ticket.ticketStatus)]}`}
@@ -264,6 +295,14 @@ const WalletView = () => {
         </div>
       )}
 
+      {nextCursor && (
+        <div className={styles.loadMore}>
+          <button onClick={loadMoreTickets} className={styles.retryButton} disabled={loadingMore}>
+            {loadingMore ? 'Cargando...' : 'Cargar más billetes'}
+          </button>
+        </div>
+      )}
+
       {/* Modal de detalles del billete */}
       {selectedTicket && (
         <div className={styles.ticketModalOverlay} onClick={() => setSelectedTicket(null)}>
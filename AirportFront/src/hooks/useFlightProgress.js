@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
 import { FLIGHT_STATUS } from '../constants/flightStatus';
+import { parseFlightTime } from '../utils/formatters';
 
 // Calcula y actualiza el progreso de un vuelo (0-100)
 export const useFlightProgress = (flight, updateInterval = 2000) => {
@@ -31,12 +32,12 @@ export const useFlightProgress = (flight, updateInterval = 2000) => {
       if (flight.flight_status === FLIGHT_STATUS.ACTIVE && 
           flight.departure?.scheduled) {
         const now = Date.now();
-        const departureTime = new Date(flight.departure.scheduled).getTime();
+        const departureTime = parseFlightTime(flight.departure.scheduled).getTime();
         // Usar estimated o scheduled para la llegada
         const arrivalTimeStr = flight.arrival?.estimated || flight.arrival?.scheduled;
         if (!arrivalTimeStr) return 0;
         
-        const arrivalTime = new Date(arrivalTimeStr).getTime();
+        const arrivalTime = parseFlightTime(arrivalTimeStr).getTime();
         const totalDuration = arrivalTime - departureTime;
         const elapsed = now - departureTime;
         
@@ -173,36 +173,40 @@ class CommercialFlightService {
     }
   }
 
-  // Formatea una oferta para mostrar
+  // Formatea una oferta para mostrar. El backend ya la devuelve tipada (FlightOfferResponse):
+  // precio numérico, duración en minutos, paradas y segmentos con origen/destino planos
   formatOffer(offer) {
     if (!offer) return null;
 
-    const itinerary = offer.itineraries?.[0];
-    const segment = itinerary?.segments?.[0];
+    const segment = offer.segments?.[0];
     
     if (!segment) return null;
 
+    const minutes = offer.durationMinutes;
+
     return {
       id: offer.id,
       price: {
-        total: parseFloat(offer.price?.total || 0),
-        currency: offer.price?.currency || 'EUR'
+        total: offer.price != null ? Number(offer.price) : 0,
+        currency: offer.currency || 'EUR'
       },
       departure: {
-        iata: segment.departure?.iataCode,
-        time: segment.departure?.at
+        iata: offer.origin || segment.departureIata,
+        time: offer.departureAt || segment.departureAt
       },
       arrival: {
-        iata: segment.arrival?.iataCode,
-        time: segment.arrival?.at
+        iata: offer.destination || offer.segments[offer.segments.length - 1].arrivalIata,
+        time: offer.arrivalAt || offer.segments[offer.segments.length - 1].arrivalAt
       },
       airline: {
-        code: segment.operating?.carrierCode,
-        name: segment.operating?.carrierName || segment.operating?.carrierCode
+        code: offer.carrierCode,
+        name: offer.carrierName || offer.carrierCode
       },
-      flightNumber: `${segment.operating?.carrierCode}${segment.number}`,
-      duration: itinerary.duration,
-      stops: itinerary.segments?.length - 1 || 0
+      flightNumber: `${segment.carrierCode}${segment.number}`,
+      // Mismo formato ISO-8601 que daba Amadeus (PT2H10M)
+      duration: minutes != null ? `PT${Math.floor(minutes / 60)}H${minutes % 60}M` : null,
+      durationMinutes: minutes ?? null,
+      stops: offer.stops ?? 0
     };
   }
 
@@ -1,6 +1,7 @@
 // Simulador de vuelos en tiempo real con transiciones automáticas de estado
 
 import { getAirportCoordinates } from '../constants/airports';
+import { parseFlightTime } from '../utils/formatters';
 
 class FlightSimulator {
   constructor() {
@@ -22,7 +23,7 @@ class FlightSimulator {
         this._initializeActiveFlight(flight, flightId);
       } else if (flight.flight_status === 'scheduled') {
         this.scheduledFlights.set(flightId, flight);
-        console.log(`  🕐 ${flight.flightNumber}: Programado para ${new Date(flight.departure.scheduled).toLocaleTimeString()}`);
+        console.log(`  🕐 ${flight.flightNumber}: Programado para ${parseFlightTime(flight.departure.scheduled).toLocaleTimeString()}`);
       } else if (flight.flight_status === 'landed') {
         this.landedFlights.set(flightId, flight);
         console.log(`  ✅ ${flight.flightNumber}: Aterrizado`);
@@ -37,8 +38,8 @@ class FlightSimulator {
 
   // Inicializa un vuelo activo con datos de simulación
   _initializeActiveFlight(flight, flightId) {
-    const departureTime = new Date(flight.departure?.scheduled || Date.now() - 3600000).getTime();
-    const arrivalTime = new Date(flight.arrival?.estimated || flight.arrival?.scheduled || Date.now() + 3600000).getTime();
+    const departureTime = parseFlightTime(flight.departure?.scheduled || Date.now() - 3600000).getTime();
+    const arrivalTime = parseFlightTime(flight.arrival?.estimated || flight.arrival?.scheduled || Date.now() + 3600000).getTime();
 
     const now = Date.now();
     const totalDuration = arrivalTime - departureTime;
@@ -183,7 +184,7 @@ class FlightSimulator {
     const toActivate = [];
 
     this.scheduledFlights.forEach((flight, flightId) => {
-      const departureTime = new Date(flight.departure.scheduled).getTime();
+      const departureTime = parseFlightTime(flight.departure.scheduled).getTime();
 
       // Si ya pasó la hora de salida, activar el vuelo
       if (now >= departureTime) {
@@ -3,6 +3,9 @@
 import axios from 'axios';
 
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
+// Tamaño de página por defecto y máximo que acepta el backend para los listados de tickets
+const TICKET_PAGE_SIZE = 50;
+const MAX_TICKET_PAGE_SIZE = 200;
 
 class TicketService {
   constructor() {
@@ -37,20 +40,32 @@ class TicketService {
     return true;
   }
 
-  // Obtiene billetes del usuario
-  async getUserTickets() {
+  // Pide una página de un listado de tickets. Devuelve { tickets, nextCursor }; nextCursor es
+  // null cuando no quedan más y se pasa tal cual para pedir la siguiente
+  async _getPage(path, { cursor = null, limit = TICKET_PAGE_SIZE, status = null } = {}) {
+    const response = await this.apiClient.get(path, {
+      params: {
+        limit: Math.min(limit, MAX_TICKET_PAGE_SIZE),
+        ...(cursor ? { cursor } : {}),
+        ...(status ? { status } : {})
+      }
+    });
+    if (!response.data.success) {
+      return { tickets: [], nextCursor: null };
+    }
+    const page = response.data.data;
+    return { tickets: page.tickets || [], nextCursor: page.nextCursor || null };
+  }
+
+  // Obtiene una página de billetes del usuario (los más recientes primero), opcionalmente por estado
+  async getUserTickets(options = {}) {
     const userId = this.getCurrentUserId();
     console.log('🎫 Obteniendo tickets del usuario:', userId);
 
     try {
-      const response = await this.apiClient.get(`/user/${userId}`);
-      
-      if (response.data.success) {
-        console.log(`✅ ${response.data.data.length} tickets obtenidos`);
-        return response.data.data;
-      }
-      
-      return [];
+      const page = await this._getPage(`/user/${userId}`, options);
+      console.log(`✅ ${page.tickets.length} tickets obtenidos`);
+      return page;
     } catch (error) {
       console.error('❌ Error obteniendo billetes:', error);
       throw error;
@@ -174,13 +189,12 @@ class TicketService {
     }
   }
 
-  // Busca billetes por vuelo
-  async getTicketsByFlight(flightIATA) {
+  // Busca billetes por vuelo (una página, como getUserTickets)
+  async getTicketsByFlight(flightIATA, options = {}) {
     const userId = this.getCurrentUserId();
     
     try {
-      const response = await this.apiClient.get(`/user/${userId}/flight/${flightIATA}`);
-      return response.data.success ? response.data.data : [];
+      return await this._getPage(`/user/${userId}/flight/${flightIATA}`, options);
     } catch (error) {
       console.error('❌ Error buscando billetes por vuelo:', error);
       throw error;
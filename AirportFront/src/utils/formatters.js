@@ -3,6 +3,22 @@
 import { format } from 'date-fns';
 import { es } from 'date-fns/locale';
 
+// Fecha y hora "yyyy-MM-ddTHH:mm[:ss]" sin zona, como las sirve el backend
+const WALL_CLOCK = /^(\d{4})-(\d{2})-(\d{2})(?:T(\d{2}):(\d{2})(?::(\d{2})(?:\.\d+)?)?)?$/;
+
+// Las horas de vuelo llegan sin offset: son la hora de reloj que publica el proveedor y se
+// muestran tal cual, sin convertirlas de zona. Se construye la fecha a mano en hora local
+// porque new Date() no trata igual en todos los navegadores una cadena sin zona (ni una
+// fecha sola, que lee en UTC). El resto (con offset, timestamps) va a new Date().
+export const parseFlightTime = (value) => {
+  const match = typeof value === 'string' ? WALL_CLOCK.exec(value) : null;
+  if (!match) {
+    return new Date(value);
+  }
+  const [, year, month, day, hours = 0, minutes = 0, seconds = 0] = match;
+  return new Date(year, month - 1, day, hours, minutes, seconds);
+};
+
 // Formatea altitud en pies
 export const formatAltitude = (altitude) => {
   return altitude ? `${Math.round(altitude).toLocaleString()} ft` : 'N/A';
@@ -17,7 +33,7 @@ export const formatSpeed = (speed) => {
 export const formatTime = (dateString) => {
   if (!dateString) return '--:--';
   try {
-    return format(new Date(dateString), 'HH:mm', { locale: es });
+    return format(parseFlightTime(dateString), 'HH:mm', { locale: es });
   } catch {
     return '--:--';
   }
@@ -27,7 +43,7 @@ export const formatTime = (dateString) => {
 export const formatDate = (dateString) => {
   if (!dateString) return '';
   try {
-    return format(new Date(dateString), 'dd MMM', { locale: es });
+    return format(parseFlightTime(dateString), 'dd MMM', { locale: es });
   } catch {
     return '';
   }
@@ -37,7 +53,7 @@ export const formatDate = (dateString) => {
 export const formatDateTime = (dateString) => {
   if (!dateString) return 'No disponible';
   try {
-    return format(new Date(dateString), "dd 'de' MMMM 'a las' HH:mm", { locale: es });
+    return format(parseFlightTime(dateString), "dd 'de' MMMM 'a las' HH:mm", { locale: es });
   } catch {
     return 'No disponible';
   }
@@ -47,7 +63,7 @@ export const formatDateTime = (dateString) => {
 export const formatDateLong = (dateString) => {
   if (!dateString) return 'N/A';
   try {
-    return format(new Date(dateString), "EEEE, dd 'de' MMMM 'de' yyyy", { locale: es });
+    return format(parseFlightTime(dateString), "EEEE, dd 'de' MMMM 'de' yyyy", { locale: es });
   } catch {
     return 'N/A';
   }